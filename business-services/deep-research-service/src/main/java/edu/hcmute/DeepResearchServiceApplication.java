@@ -1,11 +1,15 @@
 package edu.hcmute;
 
+import edu.hcmute.commons.config.DiagnosticsConfiguration;
+import edu.hcmute.commons.config.ShutdownDrainConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
 @EnableFeignClients
+@Import({DiagnosticsConfiguration.class, ShutdownDrainConfiguration.class})
 public class DeepResearchServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(DeepResearchServiceApplication.class, args);
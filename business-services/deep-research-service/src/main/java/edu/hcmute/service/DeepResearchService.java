@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.hcmute.client.PropertyInfoClient;
 import edu.hcmute.client.PropertyLeadClient;
 import edu.hcmute.client.PropertyQuoteClient;
+import edu.hcmute.commons.service.StreamingResponses;
 import edu.hcmute.dto.PropertyInfoDto;
 import edu.hcmute.dto.PropertyLeadDto;
 import edu.hcmute.dto.QuoteDto;
@@ -18,6 +19,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.FileCopyUtils;
 import org.stringtemplate.v4.ST;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -25,10 +27,12 @@ import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @Slf4j
-public class DeepResearchService {
+public class DeepResearchService implements StreamingResponses {
     private static final String TEMPLATE_NAME = "deep-research.st";
     private static final String STATUS_COMPLETED = "completed";
     private final PropertyLeadClient propertyLeadClient;
@@ -37,6 +41,7 @@ public class DeepResearchService {
     private final GeminiApiService geminiApiService;
     private final ResearchInteractionRepository interactionRepository;
     private final ObjectMapper objectMapper;
+    private final Map<Integer, ActiveStream> activeStreams = new ConcurrentHashMap<>();
 
     public DeepResearchService(PropertyLeadClient propertyLeadClient,
                                PropertyInfoClient propertyInfoClient,
@@ -118,8 +123,35 @@ public class DeepResearchService {
 
     public Flux<ServerSentEvent<String>> streamResearch(Integer leadId) {
         log.info("### Stream research for lead {} ###", leadId);
+        ActiveStream active = activeStreams.get(leadId);
+        if (active != null) {
+            log.info("~~> joining active research stream for lead {}", leadId);
+            return active.events();
+        }
         ResearchInteraction interaction = getInteractionByLeadId(leadId);
-        return geminiApiService.resumeResearch(interaction.getInteractionId());
+        return activeStreams.computeIfAbsent(leadId, id -> shareStream(id, interaction.getInteractionId())).events();
+    }
+
+    @Override
+    public int completeAll() {
+        int open = 0;
+        for (ActiveStream stream : activeStreams.values()) {
+            if (stream.closed().tryEmitEmpty().isSuccess()) {
+                open++;
+            }
+        }
+        return open;
+    }
+
+    private ActiveStream shareStream(Integer leadId, String interactionId) {
+        Sinks.Empty<Void> closed = Sinks.empty();
+        AtomicReference<ActiveStream> shared = new AtomicReference<>();
+        shared.set(new ActiveStream(geminiApiService.resumeResearch(interactionId)
+                .takeUntilOther(closed.asMono())
+                .doFinally(signal -> activeStreams.remove(leadId, shared.get()))
+                .replay()
+                .refCount(), closed));
+        return shared.get();
     }
 
     public String initiateResearch(Integer leadId) {
@@ -199,4 +231,7 @@ public class DeepResearchService {
     public boolean isResearched(Integer leadId) {
         return interactionRepository.existsByLeadId(leadId);
     }
-}
\ No newline at end of file
+
+    private record ActiveStream(Flux<ServerSentEvent<String>> events, Sinks.Empty<Void> closed) {
+    }
+}
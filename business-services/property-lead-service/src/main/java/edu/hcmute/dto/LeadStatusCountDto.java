@@ -0,0 +1,9 @@
+package edu.hcmute.dto;
+
+import edu.hcmute.domain.LeadStatus;
+
+public record LeadStatusCountDto(
+        LeadStatus status,
+        long count
+) {
+}
@@ -0,0 +1,20 @@
+package edu.hcmute.entity;
+
+import edu.hcmute.domain.LeadStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "lead_status_count")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadStatusCount {
+    @Id
+    @Enumerated(EnumType.STRING)
+    private LeadStatus status;
+    @Column(nullable = false)
+    private long leadCount;
+}
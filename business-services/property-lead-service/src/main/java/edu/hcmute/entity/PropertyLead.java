@@ -10,7 +10,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "property_lead")
+@Table(name = "property_lead", indexes = {
+        @Index(name = "idx_property_lead_status", columnList = "status"),
+        @Index(name = "idx_property_lead_user_info", columnList = "user_info")
+})
 @Data
 @Builder
 @NoArgsConstructor
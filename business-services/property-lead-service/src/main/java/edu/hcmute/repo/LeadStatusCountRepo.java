@@ -0,0 +1,24 @@
+package edu.hcmute.repo;
+
+import edu.hcmute.domain.LeadStatus;
+import edu.hcmute.entity.LeadStatusCount;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LeadStatusCountRepo extends JpaRepository<LeadStatusCount, LeadStatus> {
+    @Modifying
+    @Query("update LeadStatusCount c set c.leadCount = c.leadCount + :delta where c.status = :status")
+    int adjust(@Param("status") LeadStatus status, @Param("delta") long delta);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from LeadStatusCount c order by c.status")
+    List<LeadStatusCount> findAllForUpdate();
+}
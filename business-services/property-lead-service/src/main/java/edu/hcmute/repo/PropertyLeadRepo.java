@@ -1,9 +1,13 @@
 package edu.hcmute.repo;
 
 import edu.hcmute.domain.LeadStatus;
+import edu.hcmute.dto.LeadStatusCountDto;
 import edu.hcmute.entity.PropertyLead;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -18,4 +22,15 @@ public interface PropertyLeadRepo extends JpaRepository<PropertyLead, Integer>,
     List<PropertyLead> findByZipCode(String zipCode);
 
     List<PropertyLead> findByCreateDateGreaterThanEqual(LocalDate date);
+
+    @Query("select new edu.hcmute.dto.LeadStatusCountDto(l.status, count(l)) from PropertyLead l group by l.status")
+    List<LeadStatusCountDto> countByStatus();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update PropertyLead l set l.status = :to where l.id = :id and l.status = :from")
+    int updateStatus(@Param("id") Integer id, @Param("from") LeadStatus from, @Param("to") LeadStatus to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from PropertyLead l where l.id = :id and l.status = :status")
+    int deleteByIdAndStatus(@Param("id") Integer id, @Param("status") LeadStatus status);
 }
\ No newline at end of file
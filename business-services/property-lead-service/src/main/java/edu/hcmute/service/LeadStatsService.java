@@ -0,0 +1,125 @@
+package edu.hcmute.service;
+
+import edu.hcmute.domain.LeadStatus;
+import edu.hcmute.dto.LeadStatsDto;
+import edu.hcmute.dto.LeadStatusCountDto;
+import edu.hcmute.entity.LeadStatusCount;
+import edu.hcmute.repo.LeadStatusCountRepo;
+import edu.hcmute.repo.PropertyLeadRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Service
+@Slf4j
+public class LeadStatsService {
+    private final LeadStatusCountRepo leadStatusCountRepo;
+    private final PropertyLeadRepo propertyLeadRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public LeadStatsService(LeadStatusCountRepo leadStatusCountRepo, PropertyLeadRepo propertyLeadRepo,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.leadStatusCountRepo = leadStatusCountRepo;
+        this.propertyLeadRepo = propertyLeadRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void created(LeadStatus status) {
+        adjust(status, 1);
+    }
+
+    public void deleted(LeadStatus status) {
+        adjust(status, -1);
+    }
+
+    public void moved(LeadStatus from, LeadStatus to) {
+        if (from == to) {
+            return;
+        }
+        if (from.name().compareTo(to.name()) < 0) {
+            adjust(from, -1);
+            adjust(to, 1);
+        } else {
+            adjust(to, 1);
+            adjust(from, -1);
+        }
+    }
+
+    public LeadStatsDto stats() {
+        Map<LeadStatus, Long> counts = counters();
+        long newLeads = counts.getOrDefault(LeadStatus.NEW, 0L);
+        long inReviewLeads = counts.getOrDefault(LeadStatus.IN_REVIEW, 0L);
+        long acceptedLeads = counts.getOrDefault(LeadStatus.ACCEPTED, 0L);
+        return new LeadStatsDto(newLeads + inReviewLeads + acceptedLeads, newLeads, inReviewLeads, acceptedLeads);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${picma.leads.stats.reconcile-interval:10m}")
+    public void reconcile() {
+        try {
+            if (counters().equals(actualCounts())) {
+                meterRegistry.counter("lead.stats.reconciliations", "result", "consistent").increment();
+                return;
+            }
+            Boolean corrected = transactionTemplate.execute(transaction -> {
+                boolean drifted = false;
+                Map<LeadStatus, LeadStatusCount> locked = new EnumMap<>(LeadStatus.class);
+                leadStatusCountRepo.findAllForUpdate().forEach(count -> locked.put(count.getStatus(), count));
+                Map<LeadStatus, Long> actual = actualCounts();
+                for (LeadStatus status : LeadStatus.values()) {
+                    long expected = actual.get(status);
+                    LeadStatusCount count = locked.get(status);
+                    long recorded = count != null ? count.getLeadCount() : 0;
+                    if (count == null) {
+                        leadStatusCountRepo.save(new LeadStatusCount(status, expected));
+                    } else if (recorded != expected) {
+                        count.setLeadCount(expected);
+                    } else {
+                        continue;
+                    }
+                    drifted = true;
+                    meterRegistry.counter("lead.stats.drift", "status", status.name()).increment(Math.abs(expected - recorded));
+                    log.warn("~~> lead counter {} was {}, grouped count is {}", status, count != null ? recorded : "missing", expected);
+                }
+                return drifted;
+            });
+            meterRegistry.counter("lead.stats.reconciliations", "result",
+                    Boolean.TRUE.equals(corrected) ? "corrected" : "consistent").increment();
+        } catch (DataAccessException | TransactionException e) {
+            meterRegistry.counter("lead.stats.reconciliations", "result", "failed").increment();
+            log.warn("~~> lead counter reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    private void adjust(LeadStatus status, long delta) {
+        if (leadStatusCountRepo.adjust(status, delta) == 0) {
+            log.warn("~~> no counter row for {}, leaving it to reconciliation", status);
+        }
+    }
+
+    private Map<LeadStatus, Long> counters() {
+        Map<LeadStatus, Long> counts = new EnumMap<>(LeadStatus.class);
+        leadStatusCountRepo.findAll().forEach(count -> counts.put(count.getStatus(), count.getLeadCount()));
+        return counts;
+    }
+
+    private Map<LeadStatus, Long> actualCounts() {
+        Map<LeadStatus, Long> counts = new EnumMap<>(LeadStatus.class);
+        for (LeadStatus status : LeadStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (LeadStatusCountDto count : propertyLeadRepo.countByStatus()) {
+            counts.put(count.status(), count.count());
+        }
+        return counts;
+    }
+}
@@ -2,6 +2,8 @@ package edu.hcmute.service;
 
 import edu.hcmute.client.PropertyMgmtFeignClient;
 import edu.hcmute.client.PropertyQuoteFeignClient;
+import edu.hcmute.commons.dto.ChangeEvent;
+import edu.hcmute.commons.service.ChangeEventService;
 import edu.hcmute.domain.LeadStatus;
 import edu.hcmute.dto.LeadStatsDto;
 import edu.hcmute.dto.LeadTrendDto;
@@ -30,10 +32,13 @@ import java.util.stream.Collectors;
 @Slf4j
 @RequiredArgsConstructor
 public class PropertyLeadServiceImpl implements PropertyLeadService {
+    private static final int MAX_STATUS_ATTEMPTS = 3;
     private final PropertyLeadRepo propertyLeadRepo;
     private final PropertyQuoteFeignClient propertyQuoteFeignClient;
     private final PropertyMgmtFeignClient propertyMgmtFeignClient;
     private final PropertyLeadMapper propertyLeadMapper;
+    private final ChangeEventService changeEventService;
+    private final LeadStatsService leadStatsService;
 
     @Override
     @Transactional
@@ -47,7 +52,9 @@ public class PropertyLeadServiceImpl implements PropertyLeadService {
             }
             propertyLead.setStatus(LeadStatus.NEW);
             propertyLead = propertyLeadRepo.save(propertyLead);
+            leadStatsService.created(propertyLead.getStatus());
             log.info("~~> PropertyLead saved with id: {}", propertyLead.getId());
+            publishChange(ChangeEvent.CREATED, propertyLead);
             return propertyLeadMapper.toDto(propertyLead);
         } catch (Exception e) {
             log.error("~~> error creating PropertyLead: {}", e.getMessage(), e);
@@ -68,6 +75,7 @@ public class PropertyLeadServiceImpl implements PropertyLeadService {
             propertyLeadMapper.updateEntity(propertyLead, propertyLeadDto);
             propertyLead = propertyLeadRepo.save(propertyLead);
             log.info("~~> PropertyLead updated with id: {}", propertyLead.getId());
+            publishChange(ChangeEvent.UPDATED, propertyLead);
             return propertyLeadMapper.toDto(propertyLead);
         } catch (Exception e) {
             log.error("~~> error updating PropertyLead: {}", e.getMessage(), e);
@@ -102,13 +110,26 @@ public class PropertyLeadServiceImpl implements PropertyLeadService {
                 throw new PropertyLeadException("Invalid status: " + status);
             }
             if (newStatus == LeadStatus.ACCEPTED || newStatus == LeadStatus.IN_REVIEW) {
-                if (propertyLead.getStatus() == LeadStatus.ACCEPTED) {
-                    log.warn("~~> Lead is already ACCEPTED. Ignoring status update.");
-                    return propertyLeadMapper.toDto(propertyLead);
+                for (int attempt = 1; ; attempt++) {
+                    if (propertyLead.getStatus() == LeadStatus.ACCEPTED) {
+                        log.warn("~~> Lead is already ACCEPTED. Ignoring status update.");
+                        return propertyLeadMapper.toDto(propertyLead);
+                    }
+                    LeadStatus previousStatus = propertyLead.getStatus();
+                    if (propertyLeadRepo.updateStatus(leadId, previousStatus, newStatus) == 1) {
+                        propertyLead.setStatus(newStatus);
+                        leadStatsService.moved(previousStatus, newStatus);
+                        break;
+                    }
+                    if (attempt == MAX_STATUS_ATTEMPTS) {
+                        throw new PropertyLeadException("PropertyLead " + leadId + " is being updated concurrently");
+                    }
+                    log.warn("~~> lead {} changed from {} concurrently, retrying", leadId, previousStatus);
+                    propertyLead = propertyLeadRepo.findById(leadId)
+                            .orElseThrow(() -> new PropertyLeadException("PropertyLead not found with id: " + leadId));
                 }
-                propertyLead.setStatus(newStatus);
-                propertyLead = propertyLeadRepo.save(propertyLead);
                 log.info("~~> successfully updated PropertyLead status to {}", newStatus);
+                publishChange(ChangeEvent.UPDATED, propertyLead);
             } else {
                 log.warn("~~> Unsupported status transition to {}. Only IN_REVIEW and ACCEPTED allowed via this endpoint.", newStatus);
             }
@@ -198,11 +219,23 @@ public class PropertyLeadServiceImpl implements PropertyLeadService {
             log.error("~~> Failed to check quotes for leadId {}: {}", leadId, e.getMessage());
             throw new PropertyLeadException("Failed to verify if lead has quotes. Cannot delete safely.", e);
         }
-        String propertyInfoId = propertyLeadRepo.findById(leadId)
-                .map(PropertyLead::getPropertyInfo)
-                .orElse(null);
-        propertyLeadRepo.deleteById(leadId);
+        PropertyLead deletedLead = null;
+        for (int attempt = 1; deletedLead == null; attempt++) {
+            PropertyLead current = propertyLeadRepo.findById(leadId).orElse(null);
+            if (current == null) {
+                log.warn("~~> PropertyLead {} was already deleted", leadId);
+                return;
+            }
+            if (propertyLeadRepo.deleteByIdAndStatus(leadId, current.getStatus()) == 1) {
+                deletedLead = current;
+            } else if (attempt == MAX_STATUS_ATTEMPTS) {
+                throw new PropertyLeadException("PropertyLead " + leadId + " is being updated concurrently");
+            }
+        }
         log.info("~~> successfully deleted PropertyLead with id: {}", leadId);
+        leadStatsService.deleted(deletedLead.getStatus());
+        publishChange(ChangeEvent.DELETED, deletedLead);
+        String propertyInfoId = deletedLead.getPropertyInfo();
         if (StringUtils.hasText(propertyInfoId)) {
             try {
                 propertyMgmtFeignClient.deletePropertyById(propertyInfoId);
@@ -217,13 +250,8 @@ public class PropertyLeadServiceImpl implements PropertyLeadService {
     @Transactional(readOnly = true)
     public LeadStatsDto getLeadStats() {
         log.info("### Get lead stats ###");
-        List<PropertyLead> allLeads = propertyLeadRepo.findAll();
-        long total = allLeads.size();
-        long newLeads = allLeads.stream().filter(l -> LeadStatus.NEW == l.getStatus()).count();
-        long inReviewLeads = allLeads.stream().filter(l -> LeadStatus.IN_REVIEW == l.getStatus()).count();
-        long acceptedLeads = allLeads.stream().filter(l -> LeadStatus.ACCEPTED == l.getStatus()).count();
-        LeadStatsDto stats = new LeadStatsDto(total, newLeads, inReviewLeads, acceptedLeads);
-        log.info("~~> calculated stats: {}", stats);
+        LeadStatsDto stats = leadStatsService.stats();
+        log.info("~~> lead stats from counters: {}", stats);
         return stats;
     }
 
@@ -247,4 +275,10 @@ public class PropertyLeadServiceImpl implements PropertyLeadService {
         log.info("~~> found {} trend data points", trendList.size());
         return trendList;
     }
-}
\ No newline at end of file
+
+    private void publishChange(String action, PropertyLead propertyLead) {
+        changeEventService.publish(new ChangeEvent(ChangeEvent.LEAD, action, propertyLead.getId(), propertyLead.getId(),
+                propertyLead.getZipCode(), propertyLead.getUserInfo(), null, String.valueOf(propertyLead.getStatus()),
+                System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,139 @@
+package edu.hcmute.service;
+
+import edu.hcmute.domain.LeadStatus;
+import edu.hcmute.dto.LeadStatsDto;
+import edu.hcmute.dto.LeadStatusCountDto;
+import edu.hcmute.entity.LeadStatusCount;
+import edu.hcmute.repo.LeadStatusCountRepo;
+import edu.hcmute.repo.PropertyLeadRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LeadStatsServiceTests {
+    @Mock
+    private LeadStatusCountRepo leadStatusCountRepo;
+    @Mock
+    private PropertyLeadRepo propertyLeadRepo;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private MeterRegistry meterRegistry;
+    private LeadStatsService leadStatsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        leadStatsService = new LeadStatsService(leadStatusCountRepo, propertyLeadRepo, transactionManager, meterRegistry);
+    }
+
+    @Test
+    void createdAndDeletedAdjustTheirStatusCounter() {
+        when(leadStatusCountRepo.adjust(any(), anyLong())).thenReturn(1);
+
+        leadStatsService.created(LeadStatus.NEW);
+        leadStatsService.deleted(LeadStatus.ACCEPTED);
+
+        verify(leadStatusCountRepo).adjust(LeadStatus.NEW, 1);
+        verify(leadStatusCountRepo).adjust(LeadStatus.ACCEPTED, -1);
+    }
+
+    @Test
+    void movedAdjustsCountersInStatusNameOrder() {
+        when(leadStatusCountRepo.adjust(any(), anyLong())).thenReturn(1);
+
+        leadStatsService.moved(LeadStatus.NEW, LeadStatus.IN_REVIEW);
+        leadStatsService.moved(LeadStatus.IN_REVIEW, LeadStatus.NEW);
+
+        InOrder order = inOrder(leadStatusCountRepo);
+        order.verify(leadStatusCountRepo).adjust(LeadStatus.IN_REVIEW, 1);
+        order.verify(leadStatusCountRepo).adjust(LeadStatus.NEW, -1);
+        order.verify(leadStatusCountRepo).adjust(LeadStatus.IN_REVIEW, -1);
+        order.verify(leadStatusCountRepo).adjust(LeadStatus.NEW, 1);
+    }
+
+    @Test
+    void movedToTheSameStatusIsANoOp() {
+        leadStatsService.moved(LeadStatus.ACCEPTED, LeadStatus.ACCEPTED);
+
+        verify(leadStatusCountRepo, never()).adjust(any(), anyLong());
+    }
+
+    @Test
+    void statsSumTheCounterRows() {
+        when(leadStatusCountRepo.findAll()).thenReturn(List.of(
+                new LeadStatusCount(LeadStatus.NEW, 4),
+                new LeadStatusCount(LeadStatus.ACCEPTED, 2)));
+
+        assertThat(leadStatsService.stats()).isEqualTo(new LeadStatsDto(6, 4, 0, 2));
+    }
+
+    @Test
+    void reconcileLeavesConsistentCountersUnlocked() {
+        when(leadStatusCountRepo.findAll()).thenReturn(List.of(
+                new LeadStatusCount(LeadStatus.NEW, 3),
+                new LeadStatusCount(LeadStatus.IN_REVIEW, 0),
+                new LeadStatusCount(LeadStatus.ACCEPTED, 1)));
+        when(propertyLeadRepo.countByStatus()).thenReturn(List.of(
+                new LeadStatusCountDto(LeadStatus.NEW, 3),
+                new LeadStatusCountDto(LeadStatus.ACCEPTED, 1)));
+
+        leadStatsService.reconcile();
+
+        verify(leadStatusCountRepo, never()).findAllForUpdate();
+        assertThat(reconciliations("consistent")).isEqualTo(1.0);
+    }
+
+    @Test
+    void reconcileCorrectsDriftedAndMissingCounters() {
+        LeadStatusCount drifted = new LeadStatusCount(LeadStatus.NEW, 5);
+        LeadStatusCount accurate = new LeadStatusCount(LeadStatus.IN_REVIEW, 1);
+        when(leadStatusCountRepo.findAll()).thenReturn(List.of(drifted, accurate));
+        when(leadStatusCountRepo.findAllForUpdate()).thenReturn(List.of(drifted, accurate));
+        when(propertyLeadRepo.countByStatus()).thenReturn(List.of(
+                new LeadStatusCountDto(LeadStatus.NEW, 3),
+                new LeadStatusCountDto(LeadStatus.IN_REVIEW, 1),
+                new LeadStatusCountDto(LeadStatus.ACCEPTED, 2)));
+
+        leadStatsService.reconcile();
+
+        assertThat(drifted.getLeadCount()).isEqualTo(3);
+        assertThat(accurate.getLeadCount()).isEqualTo(1);
+        verify(leadStatusCountRepo).save(new LeadStatusCount(LeadStatus.ACCEPTED, 2));
+        verify(transactionManager).commit(any());
+        assertThat(meterRegistry.get("lead.stats.drift").tag("status", "NEW").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("lead.stats.drift").tag("status", "ACCEPTED").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.find("lead.stats.drift").tag("status", "IN_REVIEW").counter()).isNull();
+        assertThat(reconciliations("corrected")).isEqualTo(1.0);
+    }
+
+    @Test
+    void reconcileRecordsFailuresInsteadOfThrowing() {
+        when(leadStatusCountRepo.findAll()).thenThrow(new DataAccessResourceFailureException("database unavailable"));
+
+        leadStatsService.reconcile();
+
+        assertThat(reconciliations("failed")).isEqualTo(1.0);
+    }
+
+    private double reconciliations(String result) {
+        return meterRegistry.get("lead.stats.reconciliations").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,137 @@
+package edu.hcmute.service;
+
+import edu.hcmute.client.PropertyMgmtFeignClient;
+import edu.hcmute.client.PropertyQuoteFeignClient;
+import edu.hcmute.commons.service.ChangeEventService;
+import edu.hcmute.domain.LeadStatus;
+import edu.hcmute.entity.PropertyLead;
+import edu.hcmute.exception.PropertyLeadException;
+import edu.hcmute.mapper.PropertyLeadMapper;
+import edu.hcmute.repo.PropertyLeadRepo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyLeadServiceImplTests {
+    private static final Integer LEAD_ID = 7;
+    @Mock
+    private PropertyLeadRepo propertyLeadRepo;
+    @Mock
+    private PropertyQuoteFeignClient propertyQuoteFeignClient;
+    @Mock
+    private PropertyMgmtFeignClient propertyMgmtFeignClient;
+    @Mock
+    private PropertyLeadMapper propertyLeadMapper;
+    @Mock
+    private ChangeEventService changeEventService;
+    @Mock
+    private LeadStatsService leadStatsService;
+    @InjectMocks
+    private PropertyLeadServiceImpl propertyLeadService;
+
+    @Test
+    void movesCounterWhenConditionalUpdateWins() {
+        when(propertyLeadRepo.findById(LEAD_ID)).thenReturn(Optional.of(lead(LeadStatus.NEW)));
+        when(propertyLeadRepo.updateStatus(LEAD_ID, LeadStatus.NEW, LeadStatus.IN_REVIEW)).thenReturn(1);
+
+        propertyLeadService.updatePropertyLeadStatus(LEAD_ID, "in_review");
+
+        verify(leadStatsService).moved(LeadStatus.NEW, LeadStatus.IN_REVIEW);
+        verify(changeEventService).publish(any());
+    }
+
+    @Test
+    void retriesFromTheStatusAnotherWriterCommitted() {
+        when(propertyLeadRepo.findById(LEAD_ID))
+                .thenReturn(Optional.of(lead(LeadStatus.NEW)), Optional.of(lead(LeadStatus.IN_REVIEW)));
+        when(propertyLeadRepo.updateStatus(LEAD_ID, LeadStatus.NEW, LeadStatus.ACCEPTED)).thenReturn(0);
+        when(propertyLeadRepo.updateStatus(LEAD_ID, LeadStatus.IN_REVIEW, LeadStatus.ACCEPTED)).thenReturn(1);
+
+        propertyLeadService.updatePropertyLeadStatus(LEAD_ID, "ACCEPTED");
+
+        verify(leadStatsService).moved(LeadStatus.IN_REVIEW, LeadStatus.ACCEPTED);
+        verify(leadStatsService, never()).moved(LeadStatus.NEW, LeadStatus.ACCEPTED);
+    }
+
+    @Test
+    void leavesCountersAloneWhenAnotherWriterAcceptedFirst() {
+        when(propertyLeadRepo.findById(LEAD_ID))
+                .thenReturn(Optional.of(lead(LeadStatus.IN_REVIEW)), Optional.of(lead(LeadStatus.ACCEPTED)));
+        when(propertyLeadRepo.updateStatus(LEAD_ID, LeadStatus.IN_REVIEW, LeadStatus.ACCEPTED)).thenReturn(0);
+
+        propertyLeadService.updatePropertyLeadStatus(LEAD_ID, "ACCEPTED");
+
+        verify(leadStatsService, never()).moved(any(), any());
+        verify(changeEventService, never()).publish(any());
+    }
+
+    @Test
+    void givesUpAfterRepeatedConflicts() {
+        when(propertyLeadRepo.findById(LEAD_ID)).thenReturn(Optional.of(lead(LeadStatus.NEW)));
+        when(propertyLeadRepo.updateStatus(LEAD_ID, LeadStatus.NEW, LeadStatus.IN_REVIEW)).thenReturn(0);
+
+        assertThatThrownBy(() -> propertyLeadService.updatePropertyLeadStatus(LEAD_ID, "IN_REVIEW"))
+                .isInstanceOf(PropertyLeadException.class);
+        verify(leadStatsService, never()).moved(any(), any());
+    }
+
+    @Test
+    void decrementsCounterOnlyForTheDeleteThatRemovedTheRow() {
+        when(propertyLeadRepo.existsById(LEAD_ID)).thenReturn(true);
+        when(propertyLeadRepo.findById(LEAD_ID)).thenReturn(Optional.of(lead(LeadStatus.IN_REVIEW)));
+        when(propertyLeadRepo.deleteByIdAndStatus(LEAD_ID, LeadStatus.IN_REVIEW)).thenReturn(1);
+
+        propertyLeadService.deletePropertyLeadById(LEAD_ID);
+
+        verify(leadStatsService).deleted(LeadStatus.IN_REVIEW);
+        verify(propertyMgmtFeignClient).deletePropertyById("property-1");
+    }
+
+    @Test
+    void skipsCounterWhenAConcurrentDeleteWon() {
+        when(propertyLeadRepo.existsById(LEAD_ID)).thenReturn(true);
+        when(propertyLeadRepo.findById(LEAD_ID)).thenReturn(Optional.of(lead(LeadStatus.NEW)), Optional.empty());
+        when(propertyLeadRepo.deleteByIdAndStatus(LEAD_ID, LeadStatus.NEW)).thenReturn(0);
+
+        propertyLeadService.deletePropertyLeadById(LEAD_ID);
+
+        verify(leadStatsService, never()).deleted(any());
+        verify(propertyMgmtFeignClient, never()).deletePropertyById(anyString());
+    }
+
+    @Test
+    void deletesWithTheStatusAConcurrentUpdateLeftBehind() {
+        when(propertyLeadRepo.existsById(LEAD_ID)).thenReturn(true);
+        when(propertyLeadRepo.findById(LEAD_ID))
+                .thenReturn(Optional.of(lead(LeadStatus.NEW)), Optional.of(lead(LeadStatus.ACCEPTED)));
+        when(propertyLeadRepo.deleteByIdAndStatus(LEAD_ID, LeadStatus.NEW)).thenReturn(0);
+        when(propertyLeadRepo.deleteByIdAndStatus(LEAD_ID, LeadStatus.ACCEPTED)).thenReturn(1);
+
+        propertyLeadService.deletePropertyLeadById(LEAD_ID);
+
+        verify(leadStatsService).deleted(LeadStatus.ACCEPTED);
+        verify(leadStatsService, never()).deleted(LeadStatus.NEW);
+    }
+
+    private static PropertyLead lead(LeadStatus status) {
+        return PropertyLead.builder()
+                .id(LEAD_ID)
+                .status(status)
+                .zipCode("70000")
+                .userInfo("user-1")
+                .propertyInfo("property-1")
+                .build();
+    }
+}
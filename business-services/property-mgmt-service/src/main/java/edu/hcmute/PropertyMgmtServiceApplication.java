@@ -1,11 +1,14 @@
 package edu.hcmute;
 
+import edu.hcmute.commons.config.ShutdownDrainConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@Import(ShutdownDrainConfiguration.class)
 public class PropertyMgmtServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(PropertyMgmtServiceApplication.class, args);
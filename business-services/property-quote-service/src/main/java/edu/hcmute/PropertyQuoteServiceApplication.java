@@ -1,13 +1,21 @@
 package edu.hcmute;
 
+import edu.hcmute.commons.config.ChangeEventConfiguration;
+import edu.hcmute.commons.config.InternalEndpointConfiguration;
+import edu.hcmute.commons.config.ShutdownDrainConfiguration;
+import edu.hcmute.commons.config.WarmupConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableFeignClients
 @EnableDiscoveryClient
+@EnableScheduling
+@Import({ChangeEventConfiguration.class, InternalEndpointConfiguration.class, ShutdownDrainConfiguration.class, WarmupConfiguration.class})
 public class PropertyQuoteServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(PropertyQuoteServiceApplication.class, args);
@@ -66,6 +66,15 @@ public class PropertyQuoteController {
         return ResponseEntity.ok(propertyQuoteService.getQuotesByLeadId(leadId));
     }
 
+    @GetMapping("/leads")
+    @Operation(summary = "Get quotes by leads", description = "Get all property quotes for a batch of leads")
+    public ResponseEntity<List<PropertyQuoteDto>> getQuotesByLeadIds(
+            @Parameter(description = "IDs of the property leads", required = true)
+            @RequestParam List<Integer> leadIds
+    ) {
+        return ResponseEntity.ok(propertyQuoteService.getQuotesByLeadIds(leadIds));
+    }
+
     @GetMapping("/agent/{agentId}")
     @Operation(summary = "Get quotes by agent", description = "Get all property quotes for an agent")
     public ResponseEntity<List<PropertyQuoteDto>> getQuotesByAgentId(
@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(name = "property_quote", indexes = @Index(name = "idx_property_quote_lead_id", columnList = "lead_id"))
 @Data
 @Builder
 @NoArgsConstructor
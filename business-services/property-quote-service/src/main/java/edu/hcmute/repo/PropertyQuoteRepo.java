@@ -6,12 +6,15 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface PropertyQuoteRepo extends JpaRepository<PropertyQuote, Integer>, JpaSpecificationExecutor<PropertyQuote> {
     List<PropertyQuote> findByLeadId(Integer leadId);
 
+    List<PropertyQuote> findByLeadIdIn(Collection<Integer> leadIds);
+
     List<PropertyQuote> findByAgentId(String agentId);
 
     List<PropertyQuote> findByCreateDateGreaterThanEqual(LocalDate date);
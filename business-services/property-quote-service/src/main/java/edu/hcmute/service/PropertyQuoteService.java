@@ -16,6 +16,8 @@ public interface PropertyQuoteService {
 
     List<PropertyQuoteDto> getQuotesByLeadId(Integer leadId);
 
+    List<PropertyQuoteDto> getQuotesByLeadIds(List<Integer> leadIds);
+
     List<PropertyQuoteDto> getQuotesByAgentId(String agentId);
 
     PropertyQuoteDto updatePropertyQuote(Integer id, UpdateQuoteDto updateDto);
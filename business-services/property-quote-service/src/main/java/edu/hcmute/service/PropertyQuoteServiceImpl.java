@@ -1,8 +1,11 @@
 package edu.hcmute.service;
 
 import edu.hcmute.client.PropertyLeadFeignClient;
+import edu.hcmute.commons.dto.ChangeEvent;
+import edu.hcmute.commons.service.ChangeEventService;
 import edu.hcmute.domain.QuoteStatus;
 import edu.hcmute.dto.CreateQuoteDto;
+import edu.hcmute.dto.PropertyLeadDto;
 import edu.hcmute.dto.PropertyQuoteDto;
 import edu.hcmute.dto.QuoteTrendDto;
 import edu.hcmute.dto.UpdateQuoteDto;
@@ -36,6 +39,7 @@ public class PropertyQuoteServiceImpl implements PropertyQuoteService {
     private final PropertyQuoteMapper propertyQuoteMapper;
     private final PremiumCalculationService premiumCalculationService;
     private final PropertyLeadFeignClient propertyLeadFeignClient;
+    private final ChangeEventService changeEventService;
 
     @Override
     @Transactional
@@ -45,8 +49,9 @@ public class PropertyQuoteServiceImpl implements PropertyQuoteService {
         if (leadId == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "leadId is required to create a quote");
         }
+        PropertyLeadDto lead;
         try {
-            propertyLeadFeignClient.getLeadById(leadId);
+            lead = propertyLeadFeignClient.getLeadById(leadId);
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Lead with id " + leadId + " does not exist.");
         }
@@ -74,6 +79,7 @@ public class PropertyQuoteServiceImpl implements PropertyQuoteService {
         }
         propertyQuote = propertyQuoteRepo.save(propertyQuote);
         log.info("~~> propertyQuote saved with id: {}", propertyQuote.getId());
+        publishChange(ChangeEvent.CREATED, propertyQuote, lead);
         try {
             propertyLeadFeignClient.updateLeadStatus(leadId, "IN_REVIEW");
             log.info("~~> updated lead status to IN_REVIEW for leadId: {}", leadId);
@@ -127,6 +133,18 @@ public class PropertyQuoteServiceImpl implements PropertyQuoteService {
         return quotes.stream().map(propertyQuoteMapper::toDto).toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<PropertyQuoteDto> getQuotesByLeadIds(List<Integer> leadIds) {
+        log.info("### Get propertyQuotes by {} leadIds ###", leadIds.size());
+        if (leadIds.isEmpty()) {
+            return List.of();
+        }
+        List<PropertyQuote> quotes = propertyQuoteRepo.findByLeadIdIn(leadIds);
+        log.info("~~> found {} quotes for {} leads", quotes.size(), leadIds.size());
+        return quotes.stream().map(propertyQuoteMapper::toDto).toList();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<PropertyQuoteDto> getQuotesByAgentId(String agentId) {
@@ -152,6 +170,7 @@ public class PropertyQuoteServiceImpl implements PropertyQuoteService {
         log.info("~~> recalculated premium: total={}", calculatedPremium.getTotal());
         existingQuote = propertyQuoteRepo.save(existingQuote);
         log.info("~~> propertyQuote updated with id: {}", existingQuote.getId());
+        publishChange(ChangeEvent.UPDATED, existingQuote, findLead(existingQuote.getLeadId()));
         return propertyQuoteMapper.toDto(existingQuote);
     }
 
@@ -166,6 +185,7 @@ public class PropertyQuoteServiceImpl implements PropertyQuoteService {
         }
         propertyQuoteRepo.deleteById(id);
         log.info("~~> propertyQuote deleted with id: {}", id);
+        publishChange(ChangeEvent.DELETED, quote, findLead(quote.getLeadId()));
     }
 
     @Override
@@ -185,6 +205,8 @@ public class PropertyQuoteServiceImpl implements PropertyQuoteService {
         targetQuote.setStatus(QuoteStatus.ACCEPTED);
         propertyQuoteRepo.save(targetQuote);
         log.info("~~> quote status updated to ACCEPTED for quoteId: {}", quoteId);
+        PropertyLeadDto lead = findLead(targetQuote.getLeadId());
+        publishChange(ChangeEvent.UPDATED, targetQuote, lead);
         try {
             propertyLeadFeignClient.updateLeadStatus(targetQuote.getLeadId(), "ACCEPTED");
             log.info("~~> updated lead status to ACCEPTED for leadId: {}", targetQuote.getLeadId());
@@ -198,6 +220,7 @@ public class PropertyQuoteServiceImpl implements PropertyQuoteService {
                 quote.setStatus(QuoteStatus.REJECTED);
                 propertyQuoteRepo.save(quote);
                 log.info("~~> automatically rejected other quoteId: {}", quote.getId());
+                publishChange(ChangeEvent.UPDATED, quote, lead);
             }
         }
     }
@@ -214,6 +237,7 @@ public class PropertyQuoteServiceImpl implements PropertyQuoteService {
         quote.setStatus(QuoteStatus.REJECTED);
         propertyQuoteRepo.save(quote);
         log.info("~~> quote status updated to REJECTED for quoteId: {}", quoteId);
+        publishChange(ChangeEvent.UPDATED, quote, findLead(quote.getLeadId()));
     }
 
     @Override
@@ -235,4 +259,22 @@ public class PropertyQuoteServiceImpl implements PropertyQuoteService {
         }
         return trendList;
     }
-}
\ No newline at end of file
+
+    private void publishChange(String action, PropertyQuote propertyQuote, PropertyLeadDto lead) {
+        changeEventService.publish(new ChangeEvent(ChangeEvent.QUOTE, action, propertyQuote.getId(), propertyQuote.getLeadId(),
+                lead != null ? lead.zipCode() : null, lead != null ? lead.userInfo() : null,
+                propertyQuote.getAgentId(), String.valueOf(propertyQuote.getStatus()), System.currentTimeMillis()));
+    }
+
+    private PropertyLeadDto findLead(Integer leadId) {
+        if (leadId == null) {
+            return null;
+        }
+        try {
+            return propertyLeadFeignClient.getLeadById(leadId);
+        } catch (Exception e) {
+            log.warn("~~> could not resolve lead {} for change event: {}", leadId, e.getMessage());
+            return null;
+        }
+    }
+}
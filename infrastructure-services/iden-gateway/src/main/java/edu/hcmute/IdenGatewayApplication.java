@@ -1,11 +1,16 @@
 package edu.hcmute;
 
+import edu.hcmute.commons.config.DiagnosticsConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 @EnableDiscoveryClient
+@Import(DiagnosticsConfiguration.class)
 public class IdenGatewayApplication {
     public static void main(String[] args) {
         SpringApplication.run(IdenGatewayApplication.class, args);
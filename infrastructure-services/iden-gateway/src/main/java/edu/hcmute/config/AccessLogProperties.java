@@ -0,0 +1,21 @@
+package edu.hcmute.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "picma.gateway.access-log")
+public class AccessLogProperties {
+    private boolean enabled = true;
+    private int capacity = 16_384;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+    private int batchSize = 512;
+    private Duration idleWait = Duration.ofMillis(5);
+    private String loggerName = "picma.gateway.access";
+
+    public enum OverflowPolicy {
+        DROP_NEWEST, DROP_OLDEST
+    }
+}
@@ -0,0 +1,109 @@
+package edu.hcmute.config;
+
+import edu.hcmute.dto.ActiveUserClusterView;
+import edu.hcmute.dto.ActiveUserSketch;
+import edu.hcmute.service.ActiveUserTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@Endpoint(id = "activeusers")
+public class ActiveUserEndpoint {
+    private static final ParameterizedTypeReference<List<ActiveUserSketch>> SKETCHES_TYPE = new ParameterizedTypeReference<>() {
+    };
+    private final ActiveUserTracker activeUserTracker;
+    private final ActiveUserProperties properties;
+    private final ReactiveDiscoveryClient discoveryClient;
+    private final WebClient webClient;
+
+    public ActiveUserEndpoint(ActiveUserTracker activeUserTracker,
+                              ActiveUserProperties properties,
+                              ReactiveDiscoveryClient discoveryClient,
+                              WebClient.Builder webClientBuilder) {
+        this.activeUserTracker = activeUserTracker;
+        this.properties = properties;
+        this.discoveryClient = discoveryClient;
+        this.webClient = webClientBuilder.build();
+    }
+
+    @ReadOperation
+    public Map<String, Map<Instant, Map<String, Long>>> activeUsers() {
+        return activeUserTracker.estimates();
+    }
+
+    @ReadOperation
+    public Object view(@Selector String view) {
+        return switch (view) {
+            case "sketches" -> activeUserTracker.exportSketches();
+            case "cluster" -> clusterEstimates();
+            default -> null;
+        };
+    }
+
+    private Mono<ActiveUserClusterView> clusterEstimates() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .ofType(JwtAuthenticationToken.class)
+                .map(auth -> auth.getToken().getTokenValue())
+                .defaultIfEmpty("")
+                .flatMap(this::clusterEstimates);
+    }
+
+    private Mono<ActiveUserClusterView> clusterEstimates(String bearerToken) {
+        return discoveryClient.getInstances(properties.getServiceId())
+                .flatMap(instance -> fetchSketches(instance, bearerToken))
+                .collectList()
+                .map(peers -> {
+                    List<ActiveUserSketch> sketches = new ArrayList<>(activeUserTracker.exportSketches());
+                    List<String> failedPeers = new ArrayList<>();
+                    for (PeerSketches peer : peers) {
+                        if (peer.sketches() == null) {
+                            failedPeers.add(peer.instance());
+                        } else {
+                            sketches.addAll(peer.sketches());
+                        }
+                    }
+                    return new ActiveUserClusterView(peers.size(), failedPeers, ActiveUserTracker.estimate(sketches));
+                });
+    }
+
+    private Mono<PeerSketches> fetchSketches(ServiceInstance instance, String bearerToken) {
+        String peer = instance.getUri().toString();
+        return webClient.get()
+                .uri(instance.getUri().resolve("/actuator/activeusers/sketches"))
+                .headers(headers -> {
+                    if (!bearerToken.isEmpty()) {
+                        headers.setBearerAuth(bearerToken);
+                    }
+                })
+                .retrieve()
+                .bodyToMono(SKETCHES_TYPE)
+                .timeout(properties.getPeerTimeout())
+                .defaultIfEmpty(List.of())
+                .map(sketches -> new PeerSketches(peer, sketches))
+                .onErrorResume(ex -> {
+                    log.warn("~~> active user sketches unavailable from {}: {}", peer, ex.getMessage());
+                    return Mono.just(new PeerSketches(peer, null));
+                });
+    }
+
+    private record PeerSketches(String instance, List<ActiveUserSketch> sketches) {
+    }
+}
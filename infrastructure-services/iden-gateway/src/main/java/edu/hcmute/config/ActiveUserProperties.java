@@ -0,0 +1,17 @@
+package edu.hcmute.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "picma.gateway.active-users")
+public class ActiveUserProperties {
+    private boolean enabled = true;
+    private int precision = 12;
+    private int hourlyRetention = 48;
+    private int dailyRetention = 35;
+    private String serviceId = "iden-gateway";
+    private Duration peerTimeout = Duration.ofSeconds(3);
+}
@@ -0,0 +1,30 @@
+package edu.hcmute.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "picma.gateway.admission")
+public class AdmissionProperties {
+    public static final String ANONYMOUS = "ANONYMOUS";
+    private boolean enabled = true;
+    private int maxQueueSize = 200;
+    private Duration maxQueueTime = Duration.ofSeconds(1);
+    private String defaultTier = "standard";
+    private int defaultPriority = 1;
+    private List<Tier> tiers = new ArrayList<>();
+
+    @Data
+    public static class Tier {
+        private String name;
+        private int priority;
+        private List<String> routes = new ArrayList<>();
+        private List<String> paths = new ArrayList<>();
+        private List<String> methods = new ArrayList<>();
+        private List<String> roles = new ArrayList<>();
+    }
+}
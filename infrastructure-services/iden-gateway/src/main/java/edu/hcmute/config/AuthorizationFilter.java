@@ -1,5 +1,10 @@
 package edu.hcmute.config;
 
+import edu.hcmute.dto.CachedAuthentication;
+import edu.hcmute.filter.RequestTimings;
+import edu.hcmute.service.ActiveUserTracker;
+import edu.hcmute.service.AuthenticationCache;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
@@ -7,72 +12,72 @@ import org.springframework.core.Ordered;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.Collection;
-import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class AuthorizationFilter implements GlobalFilter, Ordered {
-    private static final Map<String, String> PATH_ROLE_MAP = Map.of(
-            "/picma/admin/", "ADMIN",
-            "/picma/agent/", "AGENT",
-            "/picma/owner/", "OWNER"
-    );
+    public static final String ROLE_ATTR = AuthorizationFilter.class.getName() + ".role";
+    private static final String ROLE_PREFIX = "ROLE_";
+    private final AuthenticationCache authenticationCache;
+    private final RouteAuthorizationTable routeAuthorizationTable;
+    private final ActiveUserTracker activeUserTracker;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        String path = exchange.getRequest().getURI().getPath();
+        markTiming(exchange, RequestTimings::markAuthorizationStart);
+        long requiredMask = routeAuthorizationTable.requiredMask(exchange.getRequest().getURI().getPath());
         return ReactiveSecurityContextHolder.getContext()
                 .map(SecurityContext::getAuthentication)
                 .filter(Authentication::isAuthenticated)
-                .flatMap(auth -> {
-                    ServerWebExchange mutatedExchange = exchange;
-                    if (auth instanceof JwtAuthenticationToken jwtToken) {
-                        Jwt jwt = jwtToken.getToken();
-                        ServerHttpRequest request = exchange.getRequest().mutate()
-                                .header("X-User-Id", jwt.getSubject())
-                                .header("X-User-Name", jwt.getClaimAsString("name"))
-                                .header("X-User-Email", jwt.getClaimAsString("email"))
-                                .header("X-User-Zipcode", jwt.getClaimAsString("zipcode"))
-                                .header("X-User-Role", determineRole(auth.getAuthorities()))
-                                .build();
-                        mutatedExchange = exchange.mutate().request(request).build();
-                    }
-                    for (Map.Entry<String, String> entry : PATH_ROLE_MAP.entrySet()) {
-                        if (path.startsWith(entry.getKey())) {
-                            String requiredRole = entry.getValue();
-                            if (!hasRole(auth.getAuthorities(), requiredRole)) {
-                                mutatedExchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
-                                return mutatedExchange.getResponse().setComplete();
-                            }
-                        }
-                    }
-                    return chain.filter(mutatedExchange);
-                })
-                .switchIfEmpty(chain.filter(exchange));
+                .map(auth -> authorize(exchange, chain, auth, requiredMask))
+                .defaultIfEmpty(Mono.defer(() -> {
+                    markTiming(exchange, RequestTimings::markAuthorizationEnd);
+                    return chain.filter(exchange);
+                }))
+                .flatMap(Function.identity());
     }
 
-    private boolean hasRole(Collection<? extends GrantedAuthority> authorities, String roleSuffix) {
-        return authorities.stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(a -> a.endsWith(roleSuffix) || a.equalsIgnoreCase(roleSuffix));
+    private Mono<Void> authorize(ServerWebExchange exchange, GatewayFilterChain chain, Authentication auth, long requiredMask) {
+        ServerWebExchange mutatedExchange = exchange;
+        CachedAuthentication cached = null;
+        long roleMask;
+        if (auth instanceof JwtAuthenticationToken jwtToken) {
+            cached = authenticationCache.get(jwtToken.getToken());
+            ServerHttpRequest.Builder builder = exchange.getRequest().mutate();
+            cached.userHeaders().forEach(builder::header);
+            mutatedExchange = exchange.mutate().request(builder.build()).build();
+            roleMask = cached.roleMask();
+        } else {
+            roleMask = routeAuthorizationTable.roleMask(auth.getAuthorities());
+        }
+        if (!RouteAuthorizationTable.isGranted(roleMask, requiredMask)) {
+            mutatedExchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+            return mutatedExchange.getResponse().setComplete();
+        }
+        if (cached != null) {
+            String role = cached.userHeaders().get("X-User-Role");
+            exchange.getAttributes().put(ROLE_ATTR, role.startsWith(ROLE_PREFIX) ? role.substring(ROLE_PREFIX.length()) : role);
+            activeUserTracker.record(cached.userHash(), role);
+        }
+        markTiming(exchange, RequestTimings::markAuthorizationEnd);
+        return chain.filter(mutatedExchange);
     }
 
-    private String determineRole(Collection<? extends GrantedAuthority> authorities) {
-        return authorities.stream()
-                .map(GrantedAuthority::getAuthority)
-                .filter(a -> !a.contains("default-roles"))
-                .findFirst()
-                .orElse("USER");
+    private void markTiming(ServerWebExchange exchange, Consumer<RequestTimings> mark) {
+        RequestTimings timings = RequestTimings.of(exchange);
+        if (timings != null) {
+            mark.accept(timings);
+        }
     }
 
     @Override
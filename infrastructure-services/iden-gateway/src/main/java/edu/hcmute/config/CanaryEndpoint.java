@@ -0,0 +1,29 @@
+package edu.hcmute.config;
+
+import edu.hcmute.dto.CanaryReport;
+import edu.hcmute.service.CanaryMonitor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "canaries")
+@RequiredArgsConstructor
+public class CanaryEndpoint {
+    private final CanaryMonitor canaryMonitor;
+
+    @ReadOperation
+    public Map<String, CanaryReport> canaries() {
+        return canaryMonitor.reports();
+    }
+
+    @DeleteOperation
+    public Map<String, Object> reinstate(@Selector String serviceId) {
+        return Map.of("serviceId", serviceId, "reinstated", canaryMonitor.reinstate(serviceId));
+    }
+}
@@ -0,0 +1,44 @@
+package edu.hcmute.config;
+
+import edu.hcmute.service.CanaryMonitor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+public class CanaryLatencyTracker implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+    private final CanaryMonitor canaryMonitor;
+
+    public CanaryLatencyTracker(CanaryMonitor canaryMonitor) {
+        this.canaryMonitor = canaryMonitor;
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse.hasServer() && request.getContext() instanceof TimedRequestContext context
+                && context.getRequestStartTime() == 0L) {
+            context.setRequestStartTime(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD || lbResponse == null || !lbResponse.hasServer()
+                || !(completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext context)
+                || context.getRequestStartTime() <= 0) {
+            return;
+        }
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || completionContext.getClientResponse() instanceof ResponseData response
+                && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError();
+        canaryMonitor.record(lbResponse.getServer(), System.nanoTime() - context.getRequestStartTime(), failed);
+    }
+}
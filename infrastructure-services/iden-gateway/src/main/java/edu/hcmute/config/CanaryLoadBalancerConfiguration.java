@@ -0,0 +1,11 @@
+package edu.hcmute.config;
+
+import edu.hcmute.service.CanaryMonitor;
+import org.springframework.context.annotation.Bean;
+
+public class CanaryLoadBalancerConfiguration {
+    @Bean
+    public CanaryLatencyTracker canaryLatencyTracker(CanaryMonitor canaryMonitor) {
+        return new CanaryLatencyTracker(canaryMonitor);
+    }
+}
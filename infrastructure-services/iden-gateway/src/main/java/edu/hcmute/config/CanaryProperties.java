@@ -0,0 +1,28 @@
+package edu.hcmute.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "picma.gateway.canary")
+public class CanaryProperties {
+    private boolean enabled = true;
+    private String metadataKey = "canary";
+    private String metadataValue = "true";
+    private Map<String, Integer> routes = new LinkedHashMap<>();
+    private Duration evaluationInterval = Duration.ofSeconds(30);
+    private int minSamples = 200;
+    private double latencyPercentile = 0.99;
+    private double maxLatencyRatio = 1.5;
+    private Duration latencyTolerance = Duration.ofMillis(20);
+    private double maxErrorRateIncrease = 0.02;
+
+    public int percentFor(String routeId) {
+        Integer percent = routeId != null ? routes.get(routeId) : null;
+        return percent != null ? Math.max(0, Math.min(100, percent)) : 0;
+    }
+}
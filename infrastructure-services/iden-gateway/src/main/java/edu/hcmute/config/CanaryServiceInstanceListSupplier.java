@@ -0,0 +1,46 @@
+package edu.hcmute.config;
+
+import edu.hcmute.filter.StreamConnectionFilter;
+import edu.hcmute.service.CanaryMonitor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+public class CanaryServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+    private final CanaryMonitor canaryMonitor;
+
+    public CanaryServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, CanaryMonitor canaryMonitor) {
+        super(delegate);
+        this.canaryMonitor = canaryMonitor;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get().map(instances -> canaryMonitor.select(null, instances, false));
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get(Request request) {
+        Map<String, Object> attributes = attributesOf(request);
+        Route route = (Route) attributes.get(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        boolean sticky = attributes.containsKey(StreamConnectionFilter.HASH_KEY_ATTR);
+        return delegate.get(request).map(instances ->
+                canaryMonitor.select(route != null ? route.getId() : null, instances, sticky));
+    }
+
+    private static Map<String, Object> attributesOf(Request request) {
+        if (request.getContext() instanceof RequestDataContext context && context.getClientRequest() != null
+                && context.getClientRequest().getAttributes() != null) {
+            return context.getClientRequest().getAttributes();
+        }
+        return Map.of();
+    }
+}
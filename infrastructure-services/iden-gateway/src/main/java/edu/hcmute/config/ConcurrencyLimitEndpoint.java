@@ -0,0 +1,27 @@
+package edu.hcmute.config;
+
+import edu.hcmute.filter.ConcurrencyLimitFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@Component
+@Endpoint(id = "concurrencylimits")
+@RequiredArgsConstructor
+public class ConcurrencyLimitEndpoint {
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @ReadOperation
+    public Map<String, Map<String, Number>> limits() {
+        Map<String, Map<String, Number>> limits = new TreeMap<>();
+        concurrencyLimitFilter.limiters().forEach((routeId, limiter) -> limits.put(routeId, Map.of(
+                "limit", limiter.limit(),
+                "inFlight", limiter.inFlight(),
+                "dropped", limiter.dropped())));
+        return limits;
+    }
+}
@@ -0,0 +1,31 @@
+package edu.hcmute.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "picma.gateway.concurrency-limit")
+public class ConcurrencyLimitProperties {
+    private boolean enabled = true;
+    private Limit defaults = new Limit();
+    private Map<String, Limit> routes = new LinkedHashMap<>();
+
+    public Limit limitFor(String routeId) {
+        return routes.getOrDefault(routeId, defaults);
+    }
+
+    @Data
+    public static class Limit {
+        private boolean enabled = true;
+        private int initialLimit = 50;
+        private int minLimit = 5;
+        private int maxLimit = 500;
+        private double smoothing = 0.2;
+        private double rttTolerance = 1.5;
+        private int longWindow = 600;
+        private double backoffRatio = 0.9;
+    }
+}
@@ -0,0 +1,70 @@
+package edu.hcmute.config;
+
+import edu.hcmute.filter.StreamConnectionFilter;
+import edu.hcmute.service.ConsistentHashRing;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public class ConsistentHashLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final ReactorLoadBalancer<ServiceInstance> delegate;
+    private final int virtualNodes;
+    private volatile ConsistentHashRing ring;
+
+    public ConsistentHashLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                      ReactorLoadBalancer<ServiceInstance> delegate, int virtualNodes) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.delegate = delegate;
+        this.virtualNodes = virtualNodes;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        String hashKey = hashKeyOf(request);
+        if (hashKey == null) {
+            return delegate.choose(request);
+        }
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().flatMap(instances -> {
+            ServiceInstance instance = ringFor(instances).locate(hashKey);
+            if (instance == null) {
+                return delegate.choose(request);
+            }
+            if (supplier instanceof SelectedInstanceCallback callback) {
+                callback.selectedServiceInstance(instance);
+            }
+            return Mono.just(new DefaultResponse(instance));
+        });
+    }
+
+    private ConsistentHashRing ringFor(List<ServiceInstance> instances) {
+        ConsistentHashRing current = ring;
+        if (current == null || !current.hasSameMembers(instances)) {
+            current = new ConsistentHashRing(instances, virtualNodes);
+            ring = current;
+        }
+        return current;
+    }
+
+    private static String hashKeyOf(Request request) {
+        if (request.getContext() instanceof RequestDataContext context && context.getClientRequest() != null
+                && context.getClientRequest().getAttributes() != null) {
+            Object hashKey = context.getClientRequest().getAttributes().get(StreamConnectionFilter.HASH_KEY_ATTR);
+            return hashKey != null ? hashKey.toString() : null;
+        }
+        return null;
+    }
+}
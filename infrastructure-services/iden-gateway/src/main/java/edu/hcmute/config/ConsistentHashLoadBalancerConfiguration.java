@@ -0,0 +1,25 @@
+package edu.hcmute.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+public class ConsistentHashLoadBalancerConfiguration {
+    @Bean
+    @Primary
+    public ReactorLoadBalancer<ServiceInstance> consistentHashLoadBalancer(Environment environment,
+                                                                          LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                          StreamRoutingProperties streamRoutingProperties,
+                                                                          @Qualifier("reactorServiceInstanceLoadBalancer")
+                                                                          ReactorLoadBalancer<ServiceInstance> delegate) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new ConsistentHashLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                delegate, streamRoutingProperties.getVirtualNodes());
+    }
+}
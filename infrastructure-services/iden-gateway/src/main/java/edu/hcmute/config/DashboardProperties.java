@@ -0,0 +1,19 @@
+package edu.hcmute.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "picma.gateway.dashboard")
+public class DashboardProperties {
+    private String propertyServiceUri = "http://PROPERTY-MGMT-SERVICE";
+    private String leadServiceUri = "http://PROPERTY-LEAD-SERVICE";
+    private String quoteServiceUri = "http://PROPERTY-QUOTE-SERVICE";
+    private Duration propertiesTimeout = Duration.ofSeconds(2);
+    private Duration leadsTimeout = Duration.ofSeconds(2);
+    private Duration quotesTimeout = Duration.ofSeconds(3);
+    private int quoteBatchSize = 50;
+    private int quoteBatchConcurrency = 4;
+}
@@ -0,0 +1,52 @@
+package edu.hcmute.config;
+
+import edu.hcmute.filter.RequestTimings;
+import edu.hcmute.filter.TimingMarkFilter;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.net.URI;
+
+@Configuration
+public class GatewayTimingConfig {
+    @Bean
+    public TimingMarkFilter gatewayStartTimingFilter() {
+        return new TimingMarkFilter(Ordered.HIGHEST_PRECEDENCE, (timings, exchange) -> timings.markGatewayStart());
+    }
+
+    @Bean
+    public TimingMarkFilter loadBalancerStartTimingFilter() {
+        return new TimingMarkFilter(ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1,
+                (timings, exchange) -> timings.markLoadBalancerStart());
+    }
+
+    @Bean
+    public TimingMarkFilter loadBalancerEndTimingFilter() {
+        return new TimingMarkFilter(ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1,
+                (timings, exchange) -> {
+                    URI target = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+                    timings.markLoadBalancerEnd(target != null ? target.getHost() + ":" + target.getPort() : null);
+                });
+    }
+
+    @Bean
+    public HttpClientCustomizer requestTimingHttpClientCustomizer() {
+        return httpClient -> httpClient
+                .doOnRequest((request, connection) -> {
+                    RequestTimings timings = RequestTimings.of(request.currentContextView());
+                    if (timings != null) {
+                        timings.markRequestSent();
+                    }
+                })
+                .doOnResponse((response, connection) -> {
+                    RequestTimings timings = RequestTimings.of(response.currentContextView());
+                    if (timings != null) {
+                        timings.markFirstByte();
+                    }
+                });
+    }
+}
@@ -0,0 +1,60 @@
+package edu.hcmute.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import edu.hcmute.service.IdempotencyStore;
+import edu.hcmute.service.InMemoryIdempotencyStore;
+import edu.hcmute.service.PostgresIdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+@Slf4j
+public class IdempotencyConfig {
+    @Configuration
+    @ConditionalOnProperty(prefix = "picma.gateway.idempotency", name = "store", havingValue = "postgres")
+    static class PostgresStoreConfig {
+        @Bean(destroyMethod = "close")
+        public HikariDataSource idempotencyDataSource(IdempotencyProperties properties) {
+            IdempotencyProperties.Postgres postgres = properties.getPostgres();
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("gateway-idempotency");
+            dataSource.setJdbcUrl(postgres.getUrl());
+            dataSource.setUsername(postgres.getUsername());
+            dataSource.setPassword(postgres.getPassword());
+            dataSource.setMaximumPoolSize(postgres.getMaxPoolSize());
+            return dataSource;
+        }
+
+        @Bean
+        public PostgresIdempotencyStore idempotencyStore(HikariDataSource idempotencyDataSource, ObjectMapper objectMapper) {
+            return new PostgresIdempotencyStore(new JdbcTemplate(idempotencyDataSource), objectMapper);
+        }
+
+        @Bean(destroyMethod = "dispose")
+        public Disposable idempotencyPurgeTask(PostgresIdempotencyStore idempotencyStore, IdempotencyProperties properties) {
+            return Flux.interval(properties.getPostgres().getCleanupInterval())
+                    .concatMap(tick -> Mono.fromRunnable(idempotencyStore::purgeExpired)
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .onErrorResume(ex -> {
+                                log.warn("~~> idempotency purge failed: {}", ex.getMessage());
+                                return Mono.empty();
+                            }))
+                    .subscribe();
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "picma.gateway.idempotency", name = "store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        return new InMemoryIdempotencyStore(properties.getMaxEntries(), meterRegistry);
+    }
+}
@@ -0,0 +1,39 @@
+package edu.hcmute.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "picma.gateway.idempotency")
+public class IdempotencyProperties {
+    public static final String HEADER = "Idempotency-Key";
+    private boolean enabled = true;
+    private List<String> routes = new ArrayList<>();
+    private List<String> methods = new ArrayList<>(List.of("POST", "PUT"));
+    private Duration ttl = Duration.ofMinutes(10);
+    private Duration inFlightTimeout = Duration.ofSeconds(30);
+    private long maxEntries = 100_000;
+    private DataSize maxBodySize = DataSize.ofKilobytes(256);
+    private DataSize maxRequestBodySize = DataSize.ofMegabytes(1);
+    private int maxKeyLength = 255;
+    private Store store = Store.MEMORY;
+    private Postgres postgres = new Postgres();
+
+    public enum Store {
+        MEMORY, POSTGRES
+    }
+
+    @Data
+    public static class Postgres {
+        private String url;
+        private String username;
+        private String password;
+        private int maxPoolSize = 4;
+        private Duration cleanupInterval = Duration.ofMinutes(1);
+    }
+}
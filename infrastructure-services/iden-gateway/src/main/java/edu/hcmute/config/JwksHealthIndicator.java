@@ -0,0 +1,23 @@
+package edu.hcmute.config;
+
+import edu.hcmute.service.JwksKeyManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+@Component("jwks")
+@RequiredArgsConstructor
+public class JwksHealthIndicator implements HealthIndicator {
+    private final JwksKeyManager jwksKeyManager;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = jwksKeyManager.isLoaded() && !jwksKeyManager.isStale() ? Health.up() : Health.down();
+        return builder
+                .withDetail("loaded", jwksKeyManager.isLoaded())
+                .withDetail("stalenessSeconds", jwksKeyManager.stalenessSeconds())
+                .withDetail("consecutiveFailures", jwksKeyManager.consecutiveFailures())
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package edu.hcmute.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "picma.gateway.jwks")
+public class JwksProperties {
+    private Duration refreshInterval = Duration.ofMinutes(5);
+    private Duration minRefreshInterval = Duration.ofSeconds(30);
+    private Duration retryBackoff = Duration.ofSeconds(5);
+    private Duration maxRetryBackoff = Duration.ofMinutes(1);
+    private Duration fetchTimeout = Duration.ofSeconds(3);
+    private Duration startupWait = Duration.ofSeconds(5);
+    private Duration maxStaleness = Duration.ofHours(1);
+}
@@ -0,0 +1,22 @@
+package edu.hcmute.config;
+
+import edu.hcmute.commons.config.DiscoveryPushConfiguration;
+import edu.hcmute.commons.config.DiscoverySnapshotConfiguration;
+import edu.hcmute.commons.config.LoadBalancerProperties;
+import edu.hcmute.commons.config.PowerOfTwoChoicesLoadBalancerConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+@Configuration
+@EnableConfigurationProperties(LoadBalancerProperties.class)
+@Import({DiscoveryPushConfiguration.class, DiscoverySnapshotConfiguration.class})
+@LoadBalancerClients(defaultConfiguration = {
+        PowerOfTwoChoicesLoadBalancerConfiguration.class,
+        ConsistentHashLoadBalancerConfiguration.class,
+        CanaryLoadBalancerConfiguration.class,
+        ServiceInstanceListSupplierConfiguration.class
+})
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,23 @@
+package edu.hcmute.config;
+
+import edu.hcmute.controller.PushWebSocketHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+import java.util.Map;
+
+@Configuration
+@Slf4j
+public class PushConfig {
+    @Bean
+    @ConditionalOnProperty(prefix = "picma.gateway.push", name = "enabled", matchIfMissing = true)
+    public HandlerMapping pushHandlerMapping(PushProperties properties, PushWebSocketHandler pushWebSocketHandler) {
+        log.info("### Mapping push hub at {} ###", properties.getPath());
+        return new SimpleUrlHandlerMapping(Map.of(properties.getPath(), pushWebSocketHandler), Ordered.HIGHEST_PRECEDENCE);
+    }
+}
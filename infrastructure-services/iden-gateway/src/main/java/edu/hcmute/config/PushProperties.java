@@ -0,0 +1,24 @@
+package edu.hcmute.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "picma.gateway.push")
+public class PushProperties {
+    private boolean enabled = true;
+    private String path = "/picma/push";
+    private List<String> sources = new ArrayList<>(List.of("PROPERTY-LEAD-SERVICE", "PROPERTY-QUOTE-SERVICE"));
+    private String streamPath = "/internal/events/stream";
+    private int maxConnections = 50_000;
+    private int maxTopicsPerConnection = 32;
+    private int sendBufferSize = 16;
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+    private Duration revocationCheckInterval = Duration.ofSeconds(5);
+    private Duration discoveryInterval = Duration.ofSeconds(30);
+    private Duration reconnectBackoff = Duration.ofSeconds(2);
+}
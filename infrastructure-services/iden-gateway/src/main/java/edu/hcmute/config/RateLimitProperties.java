@@ -0,0 +1,34 @@
+package edu.hcmute.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "picma.gateway.rate-limit")
+public class RateLimitProperties {
+    public static final String ANONYMOUS = "ANONYMOUS";
+    private boolean enabled = true;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private long maxBuckets = 200_000;
+    private int trustedProxyHops = 0;
+    private Map<String, Limit> roles = new LinkedHashMap<>();
+    private Map<String, Map<String, Limit>> routes = new LinkedHashMap<>();
+
+    public Limit limitFor(String routeId, String role) {
+        Map<String, Limit> routeLimits = routes.get(routeId);
+        if (routeLimits != null && routeLimits.containsKey(role)) {
+            return routeLimits.get(role);
+        }
+        return roles.get(role);
+    }
+
+    @Data
+    public static class Limit {
+        private long capacity = 100;
+        private double refillPerSecond = 50;
+    }
+}
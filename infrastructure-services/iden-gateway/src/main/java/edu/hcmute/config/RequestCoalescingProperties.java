@@ -0,0 +1,31 @@
+package edu.hcmute.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "picma.gateway.request-coalescing")
+public class RequestCoalescingProperties {
+    private boolean enabled = true;
+    private Map<String, RoutePolicy> routes = new LinkedHashMap<>();
+
+    public enum Scope {
+        USER,
+        ROLE,
+        NONE
+    }
+
+    @Data
+    public static class RoutePolicy {
+        private List<String> paths = new ArrayList<>();
+        private Scope scope = Scope.USER;
+        private int maxWaiters = 256;
+        private DataSize maxBodySize = DataSize.ofMegabytes(1);
+    }
+}
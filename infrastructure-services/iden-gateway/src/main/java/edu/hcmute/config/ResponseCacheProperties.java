@@ -0,0 +1,24 @@
+package edu.hcmute.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "picma.gateway.response-cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    private Map<String, RoutePolicy> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class RoutePolicy {
+        private Duration ttl = Duration.ofSeconds(60);
+        private long maxEntries = 1000;
+        private DataSize maxBodySize = DataSize.ofKilobytes(256);
+        private boolean varyByUser = false;
+    }
+}
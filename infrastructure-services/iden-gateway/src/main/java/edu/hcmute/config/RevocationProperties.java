@@ -0,0 +1,20 @@
+package edu.hcmute.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "picma.gateway.revocation")
+public class RevocationProperties {
+    private boolean enabled = true;
+    private String serviceId = "USER-AUTHNZ-SERVICE";
+    private String streamPath = "/internal/revocations/stream";
+    private Duration partitionSize = Duration.ofMinutes(5);
+    private Duration maxTokenLifetime = Duration.ofHours(1);
+    private int expectedEntriesPerPartition = 10_000;
+    private double falsePositiveRate = 0.01;
+    private Duration discoveryInterval = Duration.ofSeconds(30);
+    private Duration reconnectBackoff = Duration.ofSeconds(2);
+}
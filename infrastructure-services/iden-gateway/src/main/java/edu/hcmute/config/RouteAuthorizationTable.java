@@ -0,0 +1,103 @@
+package edu.hcmute.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class RouteAuthorizationTable {
+    static final Map<String, String> PATH_ROLE_MAP = Map.of(
+            "/picma/admin/", "ADMIN",
+            "/picma/agent/", "AGENT",
+            "/picma/owner/", "OWNER"
+    );
+    private final String[] roles;
+    private final Node root = new Node();
+
+    public RouteAuthorizationTable() {
+        this(PATH_ROLE_MAP);
+    }
+
+    RouteAuthorizationTable(Map<String, String> pathRoles) {
+        Map<String, Integer> roleBits = new LinkedHashMap<>();
+        for (String role : pathRoles.values()) {
+            roleBits.putIfAbsent(role, roleBits.size());
+        }
+        if (roleBits.size() > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " distinct roles are supported");
+        }
+        this.roles = roleBits.keySet().toArray(new String[0]);
+        pathRoles.forEach((prefix, role) -> insert(prefix, 1L << roleBits.get(role)));
+    }
+
+    public long requiredMask(String path) {
+        long required = 0L;
+        Node node = root;
+        for (int i = 0, n = path.length(); i < n; i++) {
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                break;
+            }
+            required |= node.mask;
+        }
+        return required;
+    }
+
+    public long roleMask(Collection<? extends GrantedAuthority> authorities) {
+        long mask = 0L;
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            for (int bit = 0; bit < roles.length; bit++) {
+                if (name.endsWith(roles[bit]) || name.equalsIgnoreCase(roles[bit])) {
+                    mask |= 1L << bit;
+                }
+            }
+        }
+        return mask;
+    }
+
+    public static boolean isGranted(long roleMask, long requiredMask) {
+        return (roleMask & requiredMask) == requiredMask;
+    }
+
+    private void insert(String prefix, long mask) {
+        Node node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.getOrCreateChild(prefix.charAt(i));
+        }
+        node.mask |= mask;
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private long mask;
+
+        Node child(char c) {
+            char[] k = keys;
+            for (int i = 0; i < k.length; i++) {
+                if (k[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node getOrCreateChild(char c) {
+            Node existing = child(c);
+            if (existing != null) {
+                return existing;
+            }
+            Node created = new Node();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = c;
+            children[children.length - 1] = created;
+            return created;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package edu.hcmute.config;
 
+import edu.hcmute.service.AuthenticationCache;
+import edu.hcmute.service.JwksKeyManager;
+import edu.hcmute.service.TokenRevocationRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.constraints.NotNull;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
@@ -11,12 +16,21 @@ import org.springframework.security.config.annotation.web.reactive.EnableWebFlux
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
 import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.web.server.authentication.ServerBearerTokenAuthenticationConverter;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -27,8 +41,19 @@ import java.util.stream.Collectors;
 @EnableWebFluxSecurity
 @Slf4j
 public class SecurityConfig {
+    @Value("${picma.gateway.auth-cache.max-size:10000}")
+    private long authCacheMaxSize;
+    @Value("${picma.gateway.auth-cache.max-ttl:5m}")
+    private Duration authCacheMaxTtl;
+    @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
+    private String issuerUri;
+    @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
+    private String jwkSetUri;
+
     @Bean
-    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         Converter<Jwt, Mono<AbstractAuthenticationToken>> grantedAuthoritiesExtractor,
+                                                         PushProperties pushProperties) {
         log.info("### Configuring Security Web Filter Chain ###");
         return http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -45,17 +70,29 @@ public class SecurityConfig {
                         .pathMatchers("/picma/admin/**").hasRole("ADMIN")
                         .pathMatchers("/picma/agent/**").hasRole("AGENT")
                         .pathMatchers("/picma/owner/**").hasRole("OWNER")
-                        .pathMatchers("/actuator/**").permitAll()
+                        .pathMatchers(pushProperties.getPath()).hasAnyRole("ADMIN", "AGENT", "OWNER")
+                        .pathMatchers("/actuator/health/**").permitAll()
+                        .pathMatchers("/actuator/**").hasRole("ADMIN")
                         .anyExchange().authenticated()
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
+                        .bearerTokenConverter(bearerTokenConverter(pushProperties.getPath()))
                         .jwt(jwt -> jwt
-                                .jwtAuthenticationConverter(grantedAuthoritiesExtractor())
+                                .jwtAuthenticationConverter(grantedAuthoritiesExtractor)
                         )
                 )
                 .build();
     }
 
+    private static ServerAuthenticationConverter bearerTokenConverter(String pushPath) {
+        ServerBearerTokenAuthenticationConverter headerConverter = new ServerBearerTokenAuthenticationConverter();
+        ServerBearerTokenAuthenticationConverter queryConverter = new ServerBearerTokenAuthenticationConverter();
+        queryConverter.setAllowUriQueryParameter(true);
+        return exchange -> pushPath.equals(exchange.getRequest().getPath().pathWithinApplication().value())
+                ? queryConverter.convert(exchange)
+                : headerConverter.convert(exchange);
+    }
+
     @Bean
     public org.springframework.web.cors.reactive.CorsConfigurationSource corsConfigurationSource() {
         org.springframework.web.cors.CorsConfiguration configuration = new org.springframework.web.cors.CorsConfiguration();
@@ -68,10 +105,31 @@ public class SecurityConfig {
     }
 
     @Bean
-    public Converter<Jwt, Mono<AbstractAuthenticationToken>> grantedAuthoritiesExtractor() {
-        JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(new KeycloakRealmRoleConverter());
-        return new ReactiveJwtAuthenticationConverterAdapter(jwtAuthenticationConverter);
+    public JwksKeyManager jwksKeyManager(JwksProperties jwksProperties, WebClient.Builder webClientBuilder,
+                                         MeterRegistry meterRegistry) {
+        return new JwksKeyManager(jwkSetUri, jwksProperties, webClientBuilder, meterRegistry);
+    }
+
+    @Bean
+    public ReactiveJwtDecoder reactiveJwtDecoder(JwksKeyManager jwksKeyManager, TokenRevocationRegistry tokenRevocationRegistry) {
+        NimbusReactiveJwtDecoder jwtDecoder = NimbusReactiveJwtDecoder.withJwkSource(jwksKeyManager::keysFor).build();
+        jwtDecoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefaultWithIssuer(issuerUri),
+                jwt -> tokenRevocationRegistry.isRevoked(jwt.getId(), jwt.getClaimAsString("sid"))
+                        ? OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token", "Token has been revoked", null))
+                        : OAuth2TokenValidatorResult.success()));
+        return jwtDecoder;
+    }
+
+    @Bean
+    public AuthenticationCache authenticationCache(RouteAuthorizationTable routeAuthorizationTable, MeterRegistry meterRegistry) {
+        return new AuthenticationCache(new KeycloakRealmRoleConverter(), routeAuthorizationTable,
+                authCacheMaxSize, authCacheMaxTtl, meterRegistry);
+    }
+
+    @Bean
+    public Converter<Jwt, Mono<AbstractAuthenticationToken>> grantedAuthoritiesExtractor(AuthenticationCache authenticationCache) {
+        return jwt -> Mono.just(new JwtAuthenticationToken(jwt, authenticationCache.get(jwt).authorities(), jwt.getSubject()));
     }
 
     @SuppressWarnings("unchecked")
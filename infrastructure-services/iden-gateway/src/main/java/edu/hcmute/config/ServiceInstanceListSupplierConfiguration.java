@@ -0,0 +1,26 @@
+package edu.hcmute.config;
+
+import edu.hcmute.commons.config.DiscoverySnapshotServiceInstanceListSupplier;
+import edu.hcmute.commons.config.RegistryOverlayServiceInstanceListSupplier;
+import edu.hcmute.commons.service.DiscoverySnapshotStore;
+import edu.hcmute.commons.service.RegistryOverlay;
+import edu.hcmute.service.CanaryMonitor;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+public class ServiceInstanceListSupplierConfiguration {
+    @Bean
+    public ServiceInstanceListSupplier serviceInstanceListSupplier(ConfigurableApplicationContext context,
+                                                                   DiscoverySnapshotStore snapshotStore,
+                                                                   RegistryOverlay registryOverlay,
+                                                                   CanaryMonitor canaryMonitor) {
+        return ServiceInstanceListSupplier.builder()
+                .withDiscoveryClient()
+                .withCaching()
+                .with((ctx, delegate) -> new DiscoverySnapshotServiceInstanceListSupplier(delegate, snapshotStore))
+                .with((ctx, delegate) -> new RegistryOverlayServiceInstanceListSupplier(delegate, registryOverlay))
+                .with((ctx, delegate) -> new CanaryServiceInstanceListSupplier(delegate, canaryMonitor))
+                .build(context);
+    }
+}
@@ -0,0 +1,19 @@
+package edu.hcmute.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "picma.gateway.stream-routing")
+public class StreamRoutingProperties {
+    private boolean enabled = true;
+    private List<String> paths = new ArrayList<>(List.of("/picma/research/stream/{leadId}"));
+    private String hashVariable = "leadId";
+    private int virtualNodes = 128;
+    private int maxConnectionsPerUser = 3;
+    private Duration idleTimeout = Duration.ofMinutes(5);
+}
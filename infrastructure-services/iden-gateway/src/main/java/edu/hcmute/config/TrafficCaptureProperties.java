@@ -0,0 +1,26 @@
+package edu.hcmute.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "picma.gateway.capture")
+public class TrafficCaptureProperties {
+    private boolean enabled = false;
+    private double sampleRate = 0.01;
+    private List<String> routes = new ArrayList<>();
+    private List<String> bodyRoutes = new ArrayList<>();
+    private String file = "capture/gateway-capture.jsonl";
+    private DataSize maxFileSize = DataSize.ofMegabytes(512);
+    private DataSize maxBodySize = DataSize.ofKilobytes(64);
+    private int queueCapacity = 10_000;
+    private List<String> redactHeaders = new ArrayList<>(List.of(
+            "Authorization", "Cookie", "Set-Cookie", "Proxy-Authorization", "X-User-Email"));
+    private List<String> redactFields = new ArrayList<>(List.of(
+            "password", "newPassword", "confirmPassword", "secret", "clientSecret", "token", "accessToken",
+            "refreshToken", "idToken", "email", "phone", "phoneNumber"));
+}
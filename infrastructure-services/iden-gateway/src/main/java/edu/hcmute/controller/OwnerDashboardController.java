@@ -0,0 +1,28 @@
+package edu.hcmute.controller;
+
+import edu.hcmute.dto.OwnerDashboardDto;
+import edu.hcmute.service.AuthenticationCache;
+import edu.hcmute.service.OwnerDashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/picma/owner")
+@RequiredArgsConstructor
+public class OwnerDashboardController {
+    private final OwnerDashboardService ownerDashboardService;
+    private final AuthenticationCache authenticationCache;
+
+    @GetMapping("/dashboard")
+    public Mono<ResponseEntity<OwnerDashboardDto>> getDashboard(@AuthenticationPrincipal Jwt jwt) {
+        String userId = authenticationCache.get(jwt).userHeaders().get("X-User-Id");
+        return ownerDashboardService.getDashboard(userId, "Bearer " + jwt.getTokenValue())
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,92 @@
+package edu.hcmute.controller;
+
+import edu.hcmute.config.PushProperties;
+import edu.hcmute.service.PushHub;
+import edu.hcmute.service.TokenRevocationRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class PushWebSocketHandler implements WebSocketHandler {
+    private static final String ROLE_PREFIX = "ROLE_";
+    private final PushHub pushHub;
+    private final PushProperties properties;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        return session.getHandshakeInfo().getPrincipal()
+                .filter(Authentication.class::isInstance)
+                .cast(Authentication.class)
+                .map(authentication -> serve(session, authentication))
+                .defaultIfEmpty(Mono.defer(() -> session.close(CloseStatus.POLICY_VIOLATION)))
+                .flatMap(Function.identity());
+    }
+
+    private Mono<Void> serve(WebSocketSession session, Authentication authentication) {
+        Set<String> roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith(ROLE_PREFIX))
+                .map(authority -> authority.substring(ROLE_PREFIX.length()))
+                .collect(Collectors.toUnmodifiableSet());
+        PushHub.Connection connection = pushHub.open(session, authentication.getName(), roles);
+        if (connection == null) {
+            return session.close(CloseStatus.SERVICE_OVERLOAD.withReason("push hub at capacity"));
+        }
+        Mono<Void> inbound = session.receive()
+                .filter(message -> message.getType() == WebSocketMessage.Type.TEXT)
+                .doOnNext(message -> pushHub.handle(connection, message.getPayloadAsText()))
+                .then();
+        Mono<Void> outbound = session.send(connection.outbound().map(session::textMessage));
+        Disposable watch = credentialsInvalidated(authentication)
+                .subscribe(reason -> {
+                    meterRegistry.counter("gateway.push.disconnected", "reason", reason).increment();
+                    pushHub.disconnect(connection, CloseStatus.POLICY_VIOLATION.withReason(reason));
+                });
+        return Mono.zip(inbound, outbound)
+                .then()
+                .doFinally(signal -> {
+                    watch.dispose();
+                    pushHub.close(connection);
+                });
+    }
+
+    private Mono<String> credentialsInvalidated(Authentication authentication) {
+        if (!(authentication instanceof JwtAuthenticationToken jwtAuthentication)) {
+            return Mono.never();
+        }
+        Jwt jwt = jwtAuthentication.getToken();
+        Mono<String> expired = jwt.getExpiresAt() == null
+                ? Mono.never()
+                : Mono.delay(maxZero(Duration.between(Instant.now(), jwt.getExpiresAt()))).thenReturn("token-expired");
+        Mono<String> revoked = Flux.interval(properties.getRevocationCheckInterval())
+                .filter(tick -> tokenRevocationRegistry.isRevoked(jwt.getId(), jwt.getClaimAsString("sid")))
+                .next()
+                .thenReturn("token-revoked");
+        return Mono.firstWithSignal(expired, revoked);
+    }
+
+    private static Duration maxZero(Duration duration) {
+        return duration.isNegative() ? Duration.ZERO : duration;
+    }
+}
@@ -0,0 +1,12 @@
+package edu.hcmute.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public record ActiveUserClusterView(
+        int peers,
+        List<String> failedPeers,
+        Map<String, Map<Instant, Map<String, Long>>> estimates
+) {
+}
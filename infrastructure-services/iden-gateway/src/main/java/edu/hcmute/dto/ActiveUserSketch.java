@@ -0,0 +1,11 @@
+package edu.hcmute.dto;
+
+import java.time.Instant;
+
+public record ActiveUserSketch(
+        String granularity,
+        Instant bucket,
+        String role,
+        String registers
+) {
+}
@@ -0,0 +1,16 @@
+package edu.hcmute.dto;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+public record CachedAuthentication(
+        Collection<GrantedAuthority> authorities,
+        Map<String, String> userHeaders,
+        long roleMask,
+        long userHash,
+        Instant expiresAt
+) {
+}
@@ -0,0 +1,11 @@
+package edu.hcmute.dto;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+public record CachedResponse(
+        HttpStatusCode status,
+        HttpHeaders headers,
+        byte[] body
+) {
+}
@@ -0,0 +1,18 @@
+package edu.hcmute.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record CanaryReport(
+        String serviceId,
+        String state,
+        List<String> canaries,
+        String reason,
+        Instant ejectedAt,
+        Instant evaluatedAt,
+        CohortStats canary,
+        CohortStats baseline
+) {
+    public record CohortStats(long requests, double errorRate, double p50Millis, double tailMillis) {
+    }
+}
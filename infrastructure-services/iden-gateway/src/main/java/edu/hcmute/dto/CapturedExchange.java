@@ -0,0 +1,19 @@
+package edu.hcmute.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record CapturedExchange(
+        long timestamp,
+        String route,
+        String method,
+        String path,
+        String query,
+        Map<String, List<String>> requestHeaders,
+        byte[] requestBody,
+        int status,
+        Map<String, List<String>> responseHeaders,
+        byte[] responseBody,
+        long latencyMicros
+) {
+}
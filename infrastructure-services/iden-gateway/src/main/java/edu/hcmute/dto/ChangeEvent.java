@@ -0,0 +1,14 @@
+package edu.hcmute.dto;
+
+public record ChangeEvent(
+        String entity,
+        String action,
+        Integer id,
+        Integer leadId,
+        String zipCode,
+        String userId,
+        String agentId,
+        String status,
+        long timestamp
+) {
+}
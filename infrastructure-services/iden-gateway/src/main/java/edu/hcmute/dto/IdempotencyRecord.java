@@ -0,0 +1,17 @@
+package edu.hcmute.dto;
+
+import java.time.Instant;
+
+public record IdempotencyRecord(
+        CachedResponse response,
+        String requestDigest,
+        Instant expiresAt
+) {
+    public boolean inFlight() {
+        return response == null;
+    }
+
+    public boolean matches(String digest) {
+        return requestDigest == null || requestDigest.equals(digest);
+    }
+}
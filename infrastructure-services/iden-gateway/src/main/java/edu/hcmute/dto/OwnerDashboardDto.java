@@ -0,0 +1,15 @@
+package edu.hcmute.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.Map;
+
+public record OwnerDashboardDto(
+        String userId,
+        List<JsonNode> properties,
+        List<JsonNode> leads,
+        Map<Integer, List<JsonNode>> quotesByLead,
+        List<String> unavailableSections
+) {
+}
@@ -0,0 +1,6 @@
+package edu.hcmute.dto;
+
+public record PushCommand(String action, String topic) {
+    public static final String SUBSCRIBE = "subscribe";
+    public static final String UNSUBSCRIBE = "unsubscribe";
+}
@@ -0,0 +1,12 @@
+package edu.hcmute.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PushMessage(String type, String topic, String reason, ChangeEvent event) {
+    public static final String EVENT = "event";
+    public static final String SUBSCRIBED = "subscribed";
+    public static final String UNSUBSCRIBED = "unsubscribed";
+    public static final String ERROR = "error";
+    public static final String HEARTBEAT = "heartbeat";
+}
@@ -0,0 +1,104 @@
+package edu.hcmute.filter;
+
+import edu.hcmute.dto.CachedResponse;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+public class CapturingResponseDecorator extends ServerHttpResponseDecorator {
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, HttpHeaders.CONTENT_LENGTH);
+    private final long maxBodySize;
+    private final Sinks.One<CachedResponse> captured = Sinks.one();
+
+    public CapturingResponseDecorator(ServerHttpResponse delegate, long maxBodySize) {
+        super(delegate);
+        this.maxBodySize = maxBodySize;
+    }
+
+    public Mono<CachedResponse> captured() {
+        return captured.asMono();
+    }
+
+    public void abandon() {
+        captured.tryEmitEmpty();
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        long contentLength = getHeaders().getContentLength();
+        if (contentLength > maxBodySize) {
+            abandon();
+            return super.writeWith(body);
+        }
+        HttpStatusCode status = getStatusCode() != null ? getStatusCode() : HttpStatus.OK;
+        HttpHeaders headers = snapshotHeaders();
+        ByteArrayOutputStream copy = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : 1024);
+        Flux<DataBuffer> tee = Flux.from(body).map(buffer -> {
+            if (copy.size() <= maxBodySize) {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                DataBufferUtils.release(buffer);
+                copy.writeBytes(bytes);
+                return bufferFactory().wrap(bytes);
+            }
+            return buffer;
+        });
+        return super.writeWith(tee)
+                .doOnSuccess(v -> complete(status, headers, copy))
+                .doOnError(e -> abandon())
+                .doOnCancel(this::abandon);
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        abandon();
+        return super.writeAndFlushWith(body);
+    }
+
+    @Override
+    public Mono<Void> setComplete() {
+        HttpStatusCode status = getStatusCode() != null ? getStatusCode() : HttpStatus.OK;
+        HttpHeaders headers = snapshotHeaders();
+        return super.setComplete().doOnSuccess(v -> complete(status, headers, new ByteArrayOutputStream(0)));
+    }
+
+    private HttpHeaders snapshotHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        getHeaders().forEach((name, values) -> {
+            if (HOP_BY_HOP_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                headers.put(name, List.copyOf(values));
+            }
+        });
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    private void complete(HttpStatusCode status, HttpHeaders headers, ByteArrayOutputStream copy) {
+        if (copy.size() > maxBodySize) {
+            abandon();
+            return;
+        }
+        captured.tryEmitValue(new CachedResponse(status, headers, copy.toByteArray()));
+    }
+
+    public static Mono<Void> replay(CachedResponse cached, ServerHttpResponse response) {
+        response.setStatusCode(cached.status());
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().setContentLength(cached.body().length);
+        if (cached.body().length == 0) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+}
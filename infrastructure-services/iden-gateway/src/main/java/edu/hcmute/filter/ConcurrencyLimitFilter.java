@@ -0,0 +1,165 @@
+package edu.hcmute.filter;
+
+import edu.hcmute.config.AdmissionProperties;
+import edu.hcmute.config.AuthorizationFilter;
+import edu.hcmute.config.ConcurrencyLimitProperties;
+import edu.hcmute.service.AdaptiveConcurrencyLimiter;
+import edu.hcmute.service.AdmissionClassifier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.DispatcherHandler;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+    public static final int ORDER = 3;
+    private static final String FALLBACK_PATH = "/fallback";
+    private final ConcurrencyLimitProperties properties;
+    private final AdmissionProperties admissionProperties;
+    private final AdmissionClassifier admissionClassifier;
+    private final ObjectProvider<DispatcherHandler> dispatcherHandler;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                  AdmissionProperties admissionProperties,
+                                  AdmissionClassifier admissionClassifier,
+                                  ObjectProvider<DispatcherHandler> dispatcherHandler,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.admissionProperties = admissionProperties;
+        this.admissionClassifier = admissionClassifier;
+        this.dispatcherHandler = dispatcherHandler;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+        AdaptiveConcurrencyLimiter limiter = limiterFor(route.getId());
+        if (limiter == null) {
+            return chain.filter(exchange);
+        }
+        if (admissionProperties.isEnabled()) {
+            return admit(exchange, chain, route.getId(), limiter);
+        }
+        if (!limiter.tryAcquire()) {
+            return shed(exchange, route.getId());
+        }
+        return forward(exchange, chain, limiter);
+    }
+
+    private Mono<Void> admit(ServerWebExchange exchange, GatewayFilterChain chain, String routeId, AdaptiveConcurrencyLimiter limiter) {
+        AdmissionClassifier.AdmissionTier tier = admissionClassifier.classify(routeId,
+                exchange.getRequest().getMethod().name(), originalPath(exchange),
+                exchange.getAttribute(AuthorizationFilter.ROLE_ATTR));
+        return limiter.admit(tier.priority(), admissionProperties.getMaxQueueSize(), admissionProperties.getMaxQueueTime())
+                .flatMap(admission -> {
+                    if (admission == AdaptiveConcurrencyLimiter.Admission.ADMITTED) {
+                        return forward(exchange, chain, limiter);
+                    }
+                    Counter.builder("gateway.admission.shed")
+                            .description("Requests shed by priority admission control")
+                            .tag("route", routeId)
+                            .tag("tier", tier.name())
+                            .tag("reason", admission.name().toLowerCase(Locale.ROOT))
+                            .register(meterRegistry)
+                            .increment();
+                    return shed(exchange, routeId);
+                });
+    }
+
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, AdaptiveConcurrencyLimiter limiter) {
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> limiter.release(System.nanoTime() - start, isOverloaded(exchange)))
+                .doOnError(ex -> limiter.release(System.nanoTime() - start, ex instanceof TimeoutException))
+                .doOnCancel(limiter::cancel);
+    }
+
+    public Map<String, AdaptiveConcurrencyLimiter> limiters() {
+        return Collections.unmodifiableMap(limiters);
+    }
+
+    private AdaptiveConcurrencyLimiter limiterFor(String routeId) {
+        AdaptiveConcurrencyLimiter limiter = limiters.get(routeId);
+        if (limiter != null) {
+            return limiter;
+        }
+        ConcurrencyLimitProperties.Limit settings = properties.limitFor(routeId);
+        if (!settings.isEnabled()) {
+            return null;
+        }
+        return limiters.computeIfAbsent(routeId, id -> register(id, new AdaptiveConcurrencyLimiter(settings)));
+    }
+
+    private String originalPath(ServerWebExchange exchange) {
+        Set<URI> originalUrls = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+        if (originalUrls != null && !originalUrls.isEmpty()) {
+            return originalUrls.iterator().next().getRawPath();
+        }
+        return exchange.getRequest().getURI().getRawPath();
+    }
+
+    private AdaptiveConcurrencyLimiter register(String routeId, AdaptiveConcurrencyLimiter limiter) {
+        log.info("~~> adaptive concurrency limiter for route {} starts at limit {}", routeId, limiter.limit());
+        Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive concurrency limit of the route")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Requests currently forwarded to the route")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.admission.queued", limiter, AdaptiveConcurrencyLimiter::queued)
+                .description("Requests waiting for admission to the route")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private boolean isOverloaded(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null && (status.value() == 503 || status.value() == 504 || status.value() == 429);
+    }
+
+    private Mono<Void> shed(ServerWebExchange exchange, String routeId) {
+        Counter.builder("gateway.concurrency.dropped")
+                .description("Requests shed by the adaptive concurrency limiter")
+                .tag("route", routeId)
+                .register(meterRegistry)
+                .increment();
+        ServerWebExchange fallbackExchange = exchange.mutate()
+                .request(request -> request.path(FALLBACK_PATH))
+                .build();
+        return dispatcherHandler.getObject().handle(fallbackExchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
@@ -0,0 +1,167 @@
+package edu.hcmute.filter;
+
+import edu.hcmute.config.IdempotencyProperties;
+import edu.hcmute.dto.CachedResponse;
+import edu.hcmute.dto.IdempotencyRecord;
+import edu.hcmute.service.Hashing;
+import edu.hcmute.service.IdempotencyStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+@Component
+@Slf4j
+public class IdempotencyFilter implements GlobalFilter, Ordered {
+    public static final int ORDER = RateLimitFilter.ORDER - 1;
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private final IdempotencyProperties properties;
+    private final IdempotencyStore idempotencyStore;
+    private final MeterRegistry meterRegistry;
+
+    public IdempotencyFilter(IdempotencyProperties properties, IdempotencyStore idempotencyStore,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.idempotencyStore = idempotencyStore;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String idempotencyKey = request.getHeaders().getFirst(IdempotencyProperties.HEADER);
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || idempotencyKey == null || route == null
+                || !properties.getRoutes().contains(route.getId())
+                || !properties.getMethods().contains(request.getMethod().name())) {
+            return chain.filter(exchange);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > properties.getMaxKeyLength()) {
+            exchange.getResponse().setStatusCode(HttpStatus.BAD_REQUEST);
+            return exchange.getResponse().setComplete();
+        }
+        return DataBufferUtils.join(request.getBody(), (int) properties.getMaxRequestBodySize().toBytes())
+                .map(IdempotencyFilter::read)
+                .defaultIfEmpty(new byte[0])
+                .flatMap(body -> reserve(exchange.mutate().request(replayable(request, body)).build(), chain, route,
+                        idempotencyKey, Hashing.sha256(body)))
+                .onErrorResume(DataBufferLimitException.class, ex -> {
+                    exchange.getResponse().setStatusCode(HttpStatus.PAYLOAD_TOO_LARGE);
+                    return exchange.getResponse().setComplete();
+                });
+    }
+
+    private Mono<Void> reserve(ServerWebExchange exchange, GatewayFilterChain chain, Route route,
+                               String idempotencyKey, String requestDigest) {
+        ServerHttpRequest request = exchange.getRequest();
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(Authentication::getName)
+                .defaultIfEmpty("")
+                .flatMap(user -> {
+                    String key = storageKey(route.getId(), user, request.getMethod().name(),
+                            request.getURI().getRawPath(), idempotencyKey);
+                    return idempotencyStore.reserve(key, requestDigest, properties.getInFlightTimeout())
+                            .map(existing -> respondWithExisting(exchange, route.getId(), existing, requestDigest))
+                            .defaultIfEmpty(Mono.defer(() -> forward(exchange, chain, key, requestDigest)))
+                            .flatMap(Function.identity());
+                });
+    }
+
+    static String storageKey(String routeId, String user, String method, String path, String idempotencyKey) {
+        String key = routeId + '|' + user + '|' + method + '|' + path + '|' + idempotencyKey;
+        return Hashing.sha256(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mono<Void> respondWithExisting(ServerWebExchange exchange, String routeId, IdempotencyRecord existing,
+                                           String requestDigest) {
+        if (!existing.matches(requestDigest)) {
+            count("gateway.idempotency.mismatches", routeId);
+            exchange.getResponse().setStatusCode(HttpStatus.UNPROCESSABLE_ENTITY);
+            return exchange.getResponse().setComplete();
+        }
+        if (existing.inFlight()) {
+            count("gateway.idempotency.conflicts", routeId);
+            exchange.getResponse().setStatusCode(HttpStatus.CONFLICT);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return exchange.getResponse().setComplete();
+        }
+        count("gateway.idempotency.replays", routeId);
+        exchange.getResponse().getHeaders().set(REPLAYED_HEADER, "true");
+        return CapturingResponseDecorator.replay(existing.response(), exchange.getResponse());
+    }
+
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, String key, String requestDigest) {
+        CapturingResponseDecorator decorator = new CapturingResponseDecorator(exchange.getResponse(),
+                properties.getMaxBodySize().toBytes());
+        decorator.captured()
+                .map(response -> store(key, requestDigest, response))
+                .defaultIfEmpty(Mono.defer(() -> idempotencyStore.release(key)))
+                .flatMap(Function.identity())
+                .onErrorResume(ex -> {
+                    log.warn("~~> failed to record idempotent response for {}: {}", key, ex.getMessage());
+                    return idempotencyStore.release(key);
+                })
+                .subscribe();
+        return chain.filter(exchange.mutate().response(decorator).build())
+                .doFinally(signal -> decorator.abandon());
+    }
+
+    private Mono<Void> store(String key, String requestDigest, CachedResponse response) {
+        if (response.status().is5xxServerError()) {
+            return idempotencyStore.release(key);
+        }
+        return idempotencyStore.complete(key, requestDigest, response, properties.getTtl());
+    }
+
+    private static byte[] read(DataBuffer buffer) {
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+
+    private static ServerHttpRequest replayable(ServerHttpRequest request, byte[] body) {
+        return new ServerHttpRequestDecorator(request) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return body.length == 0 ? Flux.empty()
+                        : Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+            }
+        };
+    }
+
+    private void count(String name, String routeId) {
+        Counter.builder(name)
+                .tag("route", routeId)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
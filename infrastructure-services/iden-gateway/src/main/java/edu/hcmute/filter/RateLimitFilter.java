@@ -0,0 +1,122 @@
+package edu.hcmute.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.hcmute.config.RateLimitProperties;
+import edu.hcmute.service.AuthenticationCache;
+import edu.hcmute.service.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+public class RateLimitFilter implements GlobalFilter, Ordered {
+    public static final int ORDER = ResponseCacheFilter.ORDER - 1;
+    private static final String ROLE_PREFIX = "ROLE_";
+    private final RateLimitProperties properties;
+    private final AuthenticationCache authenticationCache;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, TokenBucket> buckets;
+    private final RemoteAddressResolver remoteAddressResolver;
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, AuthenticationCache authenticationCache,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.authenticationCache = authenticationCache;
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+        this.remoteAddressResolver = properties.getTrustedProxyHops() > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(properties.getTrustedProxyHops())
+                : new RemoteAddressResolver() {
+                };
+        Gauge.builder("gateway.ratelimit.buckets", buckets, Cache::estimatedSize)
+                .description("Token buckets currently tracked by the gateway rate limiter")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(auth -> auth instanceof JwtAuthenticationToken)
+                .map(auth -> new Caller(auth.getName(), roleOf((JwtAuthenticationToken) auth)))
+                .defaultIfEmpty(new Caller(clientAddress(exchange), RateLimitProperties.ANONYMOUS))
+                .flatMap(caller -> {
+                    RateLimitProperties.Limit limit = properties.limitFor(route.getId(), caller.role());
+                    if (limit == null) {
+                        return chain.filter(exchange);
+                    }
+                    TokenBucket bucket = buckets.get(route.getId() + '|' + caller.role() + '|' + caller.id(),
+                            key -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond()));
+                    long waitNanos = bucket.tryConsume(System.nanoTime());
+                    if (waitNanos == 0L) {
+                        return chain.filter(exchange);
+                    }
+                    return reject(exchange, route.getId(), caller.role(), waitNanos);
+                });
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String routeId, String role, long waitNanos) {
+        rejections.computeIfAbsent(routeId + '|' + role, key -> Counter.builder("gateway.ratelimit.rejected")
+                        .tag("route", routeId)
+                        .tag("role", role)
+                        .register(meterRegistry))
+                .increment();
+        long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return exchange.getResponse().setComplete();
+    }
+
+    private String roleOf(JwtAuthenticationToken auth) {
+        String role = authenticationCache.get(auth.getToken()).userHeaders().get("X-User-Role");
+        return role.startsWith(ROLE_PREFIX) ? role.substring(ROLE_PREFIX.length()) : role;
+    }
+
+    private String clientAddress(ServerWebExchange exchange) {
+        InetSocketAddress remoteAddress = remoteAddressResolver.resolve(exchange);
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return "unknown";
+        }
+        return remoteAddress.getAddress().getHostAddress();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private record Caller(String id, String role) {
+    }
+}
@@ -0,0 +1,154 @@
+package edu.hcmute.filter;
+
+import edu.hcmute.config.RequestCoalescingProperties;
+import edu.hcmute.dto.CachedResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@Component
+@Slf4j
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    private final RequestCoalescingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<CoalescingKey, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, List<PathPattern>> routePatterns = new ConcurrentHashMap<>();
+
+    public RequestCoalescingFilter(RequestCoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.coalescing.in.flight", inFlight, Map::size)
+                .description("Distinct upstream GET calls currently shared by coalesced requests")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null || !HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+        RequestCoalescingProperties.RoutePolicy policy = properties.getRoutes().get(route.getId());
+        if (policy == null || !matches(route.getId(), policy, exchange.getRequest().getPath().pathWithinApplication())) {
+            return chain.filter(exchange);
+        }
+        return scopeOf(policy.getScope()).flatMap(scope -> {
+            URI uri = exchange.getRequest().getURI();
+            CoalescingKey key = new CoalescingKey(route.getId(), uri.getRawPath(), uri.getRawQuery(), scope);
+            InFlight created = new InFlight();
+            InFlight existing = inFlight.putIfAbsent(key, created);
+            if (existing == null) {
+                return lead(exchange, chain, key, created, policy);
+            }
+            return follow(exchange, chain, route.getId(), existing, policy);
+        });
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, CoalescingKey key, InFlight flight,
+                            RequestCoalescingProperties.RoutePolicy policy) {
+        CapturingResponseDecorator decorator = new CapturingResponseDecorator(exchange.getResponse(),
+                policy.getMaxBodySize().toBytes());
+        decorator.captured()
+                .doFinally(signal -> inFlight.remove(key, flight))
+                .subscribe(flight.result::tryEmitValue, flight.result::tryEmitError, flight.result::tryEmitEmpty);
+        return chain.filter(exchange.mutate().response(decorator).build())
+                .doFinally(signal -> decorator.abandon());
+    }
+
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, String routeId, InFlight flight,
+                              RequestCoalescingProperties.RoutePolicy policy) {
+        if (flight.waiters.incrementAndGet() > policy.getMaxWaiters()) {
+            flight.waiters.decrementAndGet();
+            counter("gateway.coalescing.overflow", routeId).increment();
+            return chain.filter(exchange);
+        }
+        return flight.result.asMono()
+                .onErrorResume(e -> Mono.empty())
+                .map(response -> {
+                    counter("gateway.coalescing.saved", routeId).increment();
+                    return CapturingResponseDecorator.replay(response, exchange.getResponse());
+                })
+                .defaultIfEmpty(Mono.defer(() -> chain.filter(exchange)))
+                .flatMap(Function.identity())
+                .doFinally(signal -> flight.waiters.decrementAndGet());
+    }
+
+    private boolean matches(String routeId, RequestCoalescingProperties.RoutePolicy policy, PathContainer path) {
+        if (policy.getPaths().isEmpty()) {
+            return true;
+        }
+        List<PathPattern> patterns = routePatterns.computeIfAbsent(routeId, id -> policy.getPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList());
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<String> scopeOf(RequestCoalescingProperties.Scope scope) {
+        if (scope == RequestCoalescingProperties.Scope.NONE) {
+            return Mono.just("");
+        }
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(Authentication::isAuthenticated)
+                .map(auth -> scope == RequestCoalescingProperties.Scope.USER ? auth.getName() : roles(auth))
+                .defaultIfEmpty("");
+    }
+
+    private String roles(Authentication auth) {
+        return String.join(",", auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .toList());
+    }
+
+    private Counter counter(String name, String routeId) {
+        return Counter.builder(name)
+                .tag("route", routeId)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private record CoalescingKey(String routeId, String path, String query, String scope) {
+    }
+
+    private static final class InFlight {
+        private final Sinks.One<CachedResponse> result = Sinks.one();
+        private final AtomicInteger waiters = new AtomicInteger();
+    }
+}
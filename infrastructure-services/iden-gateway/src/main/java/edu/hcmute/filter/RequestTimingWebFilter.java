@@ -0,0 +1,42 @@
+package edu.hcmute.filter;
+
+import edu.hcmute.service.AccessLogWriter;
+import edu.hcmute.service.GatewayLatencyRecorder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+@Component
+@RequiredArgsConstructor
+public class RequestTimingWebFilter implements WebFilter, Ordered {
+    private final GatewayLatencyRecorder gatewayLatencyRecorder;
+    private final AccessLogWriter accessLogWriter;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        RequestTimings timings = new RequestTimings();
+        exchange.getAttributes().put(RequestTimings.ATTR, timings);
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    String routeId = route != null ? route.getId() : null;
+                    int statusCode = status != null ? status.value() : 0;
+                    gatewayLatencyRecorder.record(routeId, statusCode, timings);
+                    accessLogWriter.publish(exchange.getRequest(), routeId, statusCode, timings);
+                })
+                .contextWrite(context -> context.put(RequestTimings.class, timings));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,86 @@
+package edu.hcmute.filter;
+
+import org.springframework.web.server.ServerWebExchange;
+import reactor.util.context.ContextView;
+
+public class RequestTimings {
+    public static final String ATTR = RequestTimings.class.getName();
+    private final long startNanos = System.nanoTime();
+    private volatile long gatewayStart;
+    private volatile long authorizationStart;
+    private volatile long authorizationEnd;
+    private volatile long loadBalancerStart;
+    private volatile long loadBalancerEnd;
+    private volatile long requestSent;
+    private volatile long firstByte;
+    private volatile String instance;
+
+    public static RequestTimings of(ServerWebExchange exchange) {
+        return exchange.getAttribute(ATTR);
+    }
+
+    public static RequestTimings of(ContextView context) {
+        return context.getOrDefault(RequestTimings.class, null);
+    }
+
+    public void markGatewayStart() {
+        gatewayStart = System.nanoTime();
+    }
+
+    public void markAuthorizationStart() {
+        authorizationStart = System.nanoTime();
+    }
+
+    public void markAuthorizationEnd() {
+        authorizationEnd = System.nanoTime();
+    }
+
+    public void markLoadBalancerStart() {
+        loadBalancerStart = System.nanoTime();
+    }
+
+    public void markLoadBalancerEnd(String instance) {
+        this.loadBalancerEnd = System.nanoTime();
+        this.instance = instance;
+    }
+
+    public void markRequestSent() {
+        requestSent = System.nanoTime();
+    }
+
+    public void markFirstByte() {
+        firstByte = System.nanoTime();
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    public long securityNanos() {
+        return between(startNanos, gatewayStart);
+    }
+
+    public long authorizationNanos() {
+        return between(authorizationStart, authorizationEnd);
+    }
+
+    public long loadBalancerNanos() {
+        return between(loadBalancerStart, loadBalancerEnd);
+    }
+
+    public long connectNanos() {
+        return between(loadBalancerEnd, requestSent);
+    }
+
+    public long firstByteNanos() {
+        return between(requestSent, firstByte);
+    }
+
+    public String instance() {
+        return instance;
+    }
+
+    private static long between(long from, long to) {
+        return from == 0L || to == 0L ? -1L : to - from;
+    }
+}
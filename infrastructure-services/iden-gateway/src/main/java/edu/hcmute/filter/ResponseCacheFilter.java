@@ -0,0 +1,233 @@
+package edu.hcmute.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import edu.hcmute.config.ResponseCacheProperties;
+import edu.hcmute.dto.CachedResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+    public static final int ORDER = RequestCoalescingFilter.ORDER - 1;
+    private static final String ANONYMOUS = "anonymous";
+    private final ResponseCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private static final Set<HttpMethod> WRITE_METHODS = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH,
+            HttpMethod.DELETE);
+    private final Map<String, RouteCache> caches = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+        ResponseCacheProperties.RoutePolicy policy = properties.getRoutes().get(route.getId());
+        if (policy == null) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        if (WRITE_METHODS.contains(method)) {
+            String path = request.getURI().getRawPath();
+            RouteCache cache = cacheFor(route.getId(), policy);
+            cache.invalidate(path);
+            return chain.filter(exchange).doFinally(signal -> cache.invalidate(path));
+        }
+        if (!HttpMethod.GET.equals(method)) {
+            return chain.filter(exchange);
+        }
+        RouteCache cache = cacheFor(route.getId(), policy);
+        return userKey(policy).flatMap(user -> {
+            CacheKey key = new CacheKey(request.getURI().getRawPath(), request.getURI().getRawQuery(), user);
+            String requestCacheControl = request.getHeaders().getCacheControl();
+            if (requestCacheControl == null || !requestCacheControl.contains("no-cache")) {
+                Entry entry = cache.entries().getIfPresent(key);
+                if (entry != null) {
+                    return serve(exchange, entry);
+                }
+            }
+            CapturingResponseDecorator decorator = new CapturingResponseDecorator(exchange.getResponse(),
+                    policy.getMaxBodySize().toBytes());
+            decorator.captured()
+                    .filter(response -> response.status().value() == HttpStatus.OK.value())
+                    .subscribe(response -> store(cache, key, policy, response));
+            return chain.filter(exchange.mutate().response(decorator).build())
+                    .doFinally(signal -> decorator.abandon());
+        });
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, Entry entry) {
+        String etag = entry.response().headers().getETag();
+        if (etag != null && exchange.getRequest().getHeaders().getIfNoneMatch().contains(etag)) {
+            exchange.getResponse().setStatusCode(HttpStatus.NOT_MODIFIED);
+            exchange.getResponse().getHeaders().setETag(etag);
+            return exchange.getResponse().setComplete();
+        }
+        exchange.getResponse().getHeaders().set(HttpHeaders.AGE,
+                String.valueOf(Duration.between(entry.storedAt(), Instant.now()).toSeconds()));
+        return CapturingResponseDecorator.replay(entry.response(), exchange.getResponse());
+    }
+
+    private void store(RouteCache cache, CacheKey key, ResponseCacheProperties.RoutePolicy policy,
+                       CachedResponse response) {
+        Duration ttl = effectiveTtl(response.headers().getCacheControl(), policy);
+        if (ttl.isZero()) {
+            return;
+        }
+        Instant now = Instant.now();
+        cache.put(key, new Entry(response, now, now.plus(ttl)));
+    }
+
+    private Duration effectiveTtl(String cacheControl, ResponseCacheProperties.RoutePolicy policy) {
+        if (!StringUtils.hasText(cacheControl)) {
+            return policy.getTtl();
+        }
+        Duration ttl = policy.getTtl();
+        for (String directive : cacheControl.toLowerCase().split(",")) {
+            String d = directive.trim();
+            if (d.equals("no-store") || d.equals("no-cache") || (d.equals("private") && !policy.isVaryByUser())) {
+                return Duration.ZERO;
+            }
+            if (d.startsWith("max-age=") || d.startsWith("s-maxage=")) {
+                try {
+                    Duration maxAge = Duration.ofSeconds(Long.parseLong(d.substring(d.indexOf('=') + 1)));
+                    ttl = maxAge.compareTo(ttl) < 0 ? maxAge : ttl;
+                } catch (NumberFormatException e) {
+                    log.warn("~~> ignoring malformed Cache-Control directive: {}", d);
+                }
+            }
+        }
+        return ttl.isNegative() ? Duration.ZERO : ttl;
+    }
+
+    private Mono<String> userKey(ResponseCacheProperties.RoutePolicy policy) {
+        if (!policy.isVaryByUser()) {
+            return Mono.just("");
+        }
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(Authentication::isAuthenticated)
+                .map(Authentication::getName)
+                .defaultIfEmpty(ANONYMOUS);
+    }
+
+    private RouteCache cacheFor(String routeId, ResponseCacheProperties.RoutePolicy policy) {
+        return caches.computeIfAbsent(routeId, id -> {
+            RouteCache cache = new RouteCache(policy.getMaxEntries());
+            CaffeineCacheMetrics.monitor(meterRegistry, cache.entries(), "gateway.response",
+                    List.of(Tag.of("route", id)));
+            log.info("~~> response cache enabled for route {} with ttl={}, maxEntries={}", id, policy.getTtl(), policy.getMaxEntries());
+            return cache;
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private record CacheKey(String path, String query, String user) {
+    }
+
+    private record Entry(CachedResponse response, Instant storedAt, Instant expiresAt) {
+    }
+
+    // Keys are indexed by path so a write only visits the entries for its own path and its ancestors.
+    private static final class RouteCache {
+        private final Map<String, Set<CacheKey>> keysByPath = new ConcurrentHashMap<>();
+        private final Cache<CacheKey, Entry> entries;
+
+        private RouteCache(long maxEntries) {
+            this.entries = Caffeine.newBuilder()
+                    .maximumSize(maxEntries)
+                    .expireAfter(new EntryExpiry())
+                    .evictionListener((CacheKey key, Entry entry, RemovalCause cause) -> unindex(key))
+                    .recordStats()
+                    .build();
+        }
+
+        private Cache<CacheKey, Entry> entries() {
+            return entries;
+        }
+
+        private void put(CacheKey key, Entry entry) {
+            entries.put(key, entry);
+            keysByPath.compute(key.path(), (path, keys) -> {
+                Set<CacheKey> indexed = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                indexed.add(key);
+                return indexed;
+            });
+        }
+
+        private void invalidate(String path) {
+            String prefix = path;
+            while (true) {
+                Set<CacheKey> keys = keysByPath.remove(prefix);
+                if (keys != null) {
+                    entries.invalidateAll(keys);
+                }
+                int slash = prefix.lastIndexOf('/');
+                if (slash <= 0) {
+                    return;
+                }
+                prefix = prefix.substring(0, slash);
+            }
+        }
+
+        private void unindex(CacheKey key) {
+            keysByPath.computeIfPresent(key.path(), (path, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private static final class EntryExpiry implements Expiry<CacheKey, Entry> {
+        @Override
+        public long expireAfterCreate(CacheKey key, Entry value, long currentTime) {
+            return Math.max(0L, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(CacheKey key, Entry value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(CacheKey key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package edu.hcmute.filter;
+
+import edu.hcmute.config.StreamRoutingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Slf4j
+public class StreamConnectionFilter implements GlobalFilter, Ordered {
+    public static final int ORDER = TrafficCaptureFilter.ORDER - 1;
+    public static final String HASH_KEY_ATTR = StreamConnectionFilter.class.getName() + ".hashKey";
+    private final StreamRoutingProperties properties;
+    private final List<PathPattern> patterns;
+    private final Map<String, AtomicInteger> connectionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter rejected;
+    private final Counter reaped;
+
+    public StreamConnectionFilter(StreamRoutingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.patterns = properties.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        Gauge.builder("gateway.stream.connections", connections, AtomicInteger::get)
+                .description("Open streaming connections")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("gateway.stream.rejected")
+                .description("Streaming connections rejected by the per-user cap")
+                .register(meterRegistry);
+        this.reaped = Counter.builder("gateway.stream.reaped")
+                .description("Streaming connections closed after being idle")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        PathPattern.PathMatchInfo match = match(exchange);
+        if (match == null) {
+            return chain.filter(exchange);
+        }
+        String hashKey = match.getUriVariables().get(properties.getHashVariable());
+        if (hashKey != null) {
+            exchange.getAttributes().put(HASH_KEY_ATTR, hashKey);
+        }
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(Authentication::isAuthenticated)
+                .map(Authentication::getName)
+                .defaultIfEmpty(clientAddress(exchange))
+                .flatMap(user -> open(exchange, chain, user));
+    }
+
+    private Mono<Void> open(ServerWebExchange exchange, GatewayFilterChain chain, String user) {
+        AtomicInteger userConnections = connectionsByUser.computeIfAbsent(user, key -> new AtomicInteger());
+        if (userConnections.incrementAndGet() > properties.getMaxConnectionsPerUser()) {
+            release(user, userConnections);
+            rejected.increment();
+            log.warn("~~> rejecting stream for {}: more than {} open connections", user, properties.getMaxConnectionsPerUser());
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            return exchange.getResponse().setComplete();
+        }
+        connections.incrementAndGet();
+        ServerWebExchange idleAware = exchange.mutate()
+                .response(new IdleReapingResponse(exchange.getResponse(), properties.getIdleTimeout()))
+                .build();
+        return chain.filter(idleAware)
+                .doFinally(signal -> {
+                    connections.decrementAndGet();
+                    release(user, userConnections);
+                });
+    }
+
+    private PathPattern.PathMatchInfo match(ServerWebExchange exchange) {
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        for (PathPattern pattern : patterns) {
+            PathPattern.PathMatchInfo info = pattern.matchAndExtract(path);
+            if (info != null) {
+                return info;
+            }
+        }
+        return null;
+    }
+
+    private void release(String user, AtomicInteger userConnections) {
+        if (userConnections.decrementAndGet() <= 0) {
+            connectionsByUser.remove(user, userConnections);
+        }
+    }
+
+    private static String clientAddress(ServerWebExchange exchange) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        return remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress() : "unknown";
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private final class IdleReapingResponse extends ServerHttpResponseDecorator {
+        private final Duration idleTimeout;
+
+        private IdleReapingResponse(ServerHttpResponse delegate, Duration idleTimeout) {
+            super(delegate);
+            this.idleTimeout = idleTimeout;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).timeout(idleTimeout, reap()));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body).timeout(idleTimeout, reap()));
+        }
+
+        private <T> Flux<T> reap() {
+            return Flux.defer(() -> {
+                reaped.increment();
+                log.info("~~> closing stream idle for {}", idleTimeout);
+                return Flux.empty();
+            });
+        }
+    }
+}
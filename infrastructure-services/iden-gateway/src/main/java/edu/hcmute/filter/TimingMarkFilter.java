@@ -0,0 +1,33 @@
+package edu.hcmute.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.function.BiConsumer;
+
+public class TimingMarkFilter implements GlobalFilter, Ordered {
+    private final int order;
+    private final BiConsumer<RequestTimings, ServerWebExchange> mark;
+
+    public TimingMarkFilter(int order, BiConsumer<RequestTimings, ServerWebExchange> mark) {
+        this.order = order;
+        this.mark = mark;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        RequestTimings timings = RequestTimings.of(exchange);
+        if (timings != null) {
+            mark.accept(timings, exchange);
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+}
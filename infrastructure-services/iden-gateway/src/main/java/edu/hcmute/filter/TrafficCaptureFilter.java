@@ -0,0 +1,126 @@
+package edu.hcmute.filter;
+
+import edu.hcmute.config.TrafficCaptureProperties;
+import edu.hcmute.dto.CachedResponse;
+import edu.hcmute.dto.CapturedExchange;
+import edu.hcmute.service.TrafficCaptureWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+@RequiredArgsConstructor
+public class TrafficCaptureFilter implements GlobalFilter, Ordered {
+    public static final int ORDER = IdempotencyFilter.ORDER - 1;
+    private static final List<String> REDACTED = List.of("[REDACTED]");
+    private final TrafficCaptureProperties properties;
+    private final TrafficCaptureWriter trafficCaptureWriter;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null
+                || (!properties.getRoutes().isEmpty() && !properties.getRoutes().contains(route.getId()))
+                || ThreadLocalRandom.current().nextDouble() >= properties.getSampleRate()) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        long timestamp = System.currentTimeMillis();
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.getBodyRoutes().contains(route.getId())) {
+            return chain.filter(exchange)
+                    .doFinally(signal -> {
+                        HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        trafficCaptureWriter.submit(new CapturedExchange(
+                                timestamp,
+                                route.getId(),
+                                request.getMethod().name(),
+                                request.getURI().getRawPath(),
+                                request.getURI().getRawQuery(),
+                                redact(request.getHeaders()),
+                                null,
+                                (status != null ? status : HttpStatus.OK).value(),
+                                redact(exchange.getResponse().getHeaders()),
+                                null,
+                                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+                    });
+        }
+        int maxBodySize = (int) properties.getMaxBodySize().toBytes();
+        ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+        AtomicBoolean requestTruncated = new AtomicBoolean();
+        ServerHttpRequest teeRequest = new ServerHttpRequestDecorator(request) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return super.getBody().doOnNext(buffer -> copy(buffer, requestBody, requestTruncated, maxBodySize));
+            }
+        };
+        CapturingResponseDecorator response = new CapturingResponseDecorator(exchange.getResponse(), maxBodySize);
+        response.captured()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .subscribe(captured -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    trafficCaptureWriter.submit(new CapturedExchange(
+                            timestamp,
+                            route.getId(),
+                            request.getMethod().name(),
+                            request.getURI().getRawPath(),
+                            request.getURI().getRawQuery(),
+                            redact(request.getHeaders()),
+                            requestTruncated.get() ? null : requestBody.toByteArray(),
+                            captured.map(CachedResponse::status).orElse(status != null ? status : HttpStatus.OK).value(),
+                            redact(captured.map(CachedResponse::headers).orElse(exchange.getResponse().getHeaders())),
+                            captured.map(CachedResponse::body).orElse(null),
+                            TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+                });
+        return chain.filter(exchange.mutate().request(teeRequest).response(response).build())
+                .doFinally(signal -> response.abandon());
+    }
+
+    private Map<String, List<String>> redact(HttpHeaders headers) {
+        Map<String, List<String>> copy = new LinkedHashMap<>();
+        headers.forEach((name, values) -> copy.put(name,
+                properties.getRedactHeaders().stream().anyMatch(name::equalsIgnoreCase) ? REDACTED : List.copyOf(values)));
+        return copy;
+    }
+
+    private static void copy(DataBuffer buffer, ByteArrayOutputStream target, AtomicBoolean truncated, int maxBodySize) {
+        int readable = buffer.readableByteCount();
+        if (truncated.get() || target.size() + readable > maxBodySize) {
+            truncated.set(true);
+            return;
+        }
+        byte[] bytes = new byte[readable];
+        int position = buffer.readPosition();
+        buffer.read(bytes);
+        buffer.readPosition(position);
+        target.writeBytes(bytes);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+}
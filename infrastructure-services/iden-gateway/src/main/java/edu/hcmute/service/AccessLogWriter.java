@@ -0,0 +1,167 @@
+package edu.hcmute.service;
+
+import edu.hcmute.config.AccessLogProperties;
+import edu.hcmute.filter.RequestTimings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Service;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+@Service
+@Slf4j
+public class AccessLogWriter implements SmartLifecycle {
+    private final AccessLogProperties properties;
+    private final RingBuffer<AccessLogEvent> ringBuffer;
+    private final Logger accessLog;
+    private final StringBuilder line = new StringBuilder(256);
+    private final Counter written;
+    private final Counter droppedNewest;
+    private final Counter droppedOldest;
+    private volatile Thread writerThread;
+    private volatile boolean running;
+
+    public AccessLogWriter(AccessLogProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.ringBuffer = new RingBuffer<>(properties.getCapacity(), AccessLogEvent::new);
+        this.accessLog = LoggerFactory.getLogger(properties.getLoggerName());
+        this.written = Counter.builder("gateway.access.log.written").register(meterRegistry);
+        this.droppedNewest = droppedCounter(meterRegistry, AccessLogProperties.OverflowPolicy.DROP_NEWEST);
+        this.droppedOldest = droppedCounter(meterRegistry, AccessLogProperties.OverflowPolicy.DROP_OLDEST);
+        Gauge.builder("gateway.access.log.backlog", ringBuffer, RingBuffer::size)
+                .description("Access log events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public void publish(ServerHttpRequest request, String routeId, int status, RequestTimings timings) {
+        if (!running) {
+            return;
+        }
+        long sequence = ringBuffer.tryClaim();
+        if (sequence < 0 && properties.getOverflowPolicy() == AccessLogProperties.OverflowPolicy.DROP_OLDEST) {
+            if (ringBuffer.discardOldest()) {
+                droppedOldest.increment();
+            }
+            sequence = ringBuffer.tryClaim();
+        }
+        if (sequence < 0) {
+            droppedNewest.increment();
+            return;
+        }
+        AccessLogEvent event = ringBuffer.get(sequence);
+        event.timestamp = System.currentTimeMillis();
+        event.method = request.getMethod().name();
+        event.path = request.getURI().getRawPath();
+        event.remoteAddress = request.getRemoteAddress();
+        event.routeId = routeId;
+        event.status = status;
+        event.durationNanos = System.nanoTime() - timings.startNanos();
+        event.instance = timings.instance();
+        ringBuffer.publish(sequence);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        log.info("### Writing access log to '{}' through a {} slot ring buffer ({}) ###",
+                properties.getLoggerName(), ringBuffer.capacity(), properties.getOverflowPolicy());
+        running = true;
+        writerThread = new Thread(this::drain, "gateway-access-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 2048;
+    }
+
+    private void drain() {
+        long idleNanos = properties.getIdleWait().toNanos();
+        int batchSize = Math.max(1, properties.getBatchSize());
+        while (running || ringBuffer.size() > 0) {
+            int drained = ringBuffer.drain(this::write, batchSize);
+            if (drained > 0) {
+                written.increment(drained);
+            } else if (running) {
+                LockSupport.parkNanos(idleNanos);
+            }
+        }
+    }
+
+    private void write(AccessLogEvent event) {
+        line.setLength(0);
+        line.append("ts=");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(event.timestamp), line);
+        line.append(" method=").append(event.method)
+                .append(" path=").append(event.path)
+                .append(" route=").append(event.routeId != null ? event.routeId : "-")
+                .append(" status=").append(event.status)
+                .append(" duration_us=").append(event.durationNanos / 1_000)
+                .append(" instance=").append(event.instance != null ? event.instance : "-")
+                .append(" client=");
+        InetSocketAddress remoteAddress = event.remoteAddress;
+        line.append(remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress() : "-");
+        event.clear();
+        accessLog.info(line.toString());
+    }
+
+    private static Counter droppedCounter(MeterRegistry meterRegistry, AccessLogProperties.OverflowPolicy policy) {
+        return Counter.builder("gateway.access.log.dropped")
+                .description("Access log events dropped because the ring buffer was full")
+                .tag("policy", policy.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+
+    private static final class AccessLogEvent {
+        private long timestamp;
+        private String method;
+        private String path;
+        private InetSocketAddress remoteAddress;
+        private String routeId;
+        private int status;
+        private long durationNanos;
+        private String instance;
+
+        private void clear() {
+            method = null;
+            path = null;
+            remoteAddress = null;
+            routeId = null;
+            instance = null;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package edu.hcmute.service;
+
+import edu.hcmute.config.ActiveUserProperties;
+import edu.hcmute.dto.ActiveUserSketch;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@Service
+public class ActiveUserTracker {
+    private static final String ROLE_PREFIX = "ROLE_";
+    private final ActiveUserProperties properties;
+    private final Clock clock;
+    private final Map<Granularity, ConcurrentSkipListMap<Instant, ConcurrentMap<String, HyperLogLog>>> buckets = new ConcurrentHashMap<>();
+
+    public ActiveUserTracker(ActiveUserProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.clock = Clock.systemUTC();
+        for (Granularity granularity : Granularity.values()) {
+            buckets.put(granularity, new ConcurrentSkipListMap<>());
+        }
+        Gauge.builder("gateway.active.users.sketches", this, ActiveUserTracker::sketchCount)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public void record(long userHash, String role) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Instant now = clock.instant();
+        String normalizedRole = normalize(role);
+        for (Granularity granularity : Granularity.values()) {
+            sketchFor(granularity, granularity.bucketOf(now), normalizedRole).add(userHash);
+        }
+    }
+
+    public Map<String, Map<Instant, Map<String, Long>>> estimates() {
+        return estimate(exportSketches());
+    }
+
+    public List<ActiveUserSketch> exportSketches() {
+        List<ActiveUserSketch> sketches = new ArrayList<>();
+        Base64.Encoder encoder = Base64.getEncoder();
+        buckets.forEach((granularity, byBucket) -> byBucket.forEach((bucket, byRole) -> byRole.forEach((role, sketch) ->
+                sketches.add(new ActiveUserSketch(granularity.key(), bucket, role, encoder.encodeToString(sketch.toBytes()))))));
+        return sketches;
+    }
+
+    public static Map<String, Map<Instant, Map<String, Long>>> estimate(Collection<ActiveUserSketch> sketches) {
+        Map<String, Map<Instant, Map<String, HyperLogLog>>> merged = new TreeMap<>();
+        Base64.Decoder decoder = Base64.getDecoder();
+        for (ActiveUserSketch sketch : sketches) {
+            HyperLogLog incoming = HyperLogLog.fromBytes(decoder.decode(sketch.registers()));
+            Map<String, HyperLogLog> byRole = merged
+                    .computeIfAbsent(sketch.granularity(), key -> new TreeMap<>())
+                    .computeIfAbsent(sketch.bucket(), key -> new TreeMap<>());
+            HyperLogLog existing = byRole.putIfAbsent(sketch.role(), incoming);
+            if (existing != null) {
+                existing.merge(incoming);
+            }
+        }
+        Map<String, Map<Instant, Map<String, Long>>> estimates = new TreeMap<>();
+        merged.forEach((granularity, byBucket) -> byBucket.forEach((bucket, byRole) -> {
+            Map<String, Long> counts = estimates
+                    .computeIfAbsent(granularity, key -> new TreeMap<>())
+                    .computeIfAbsent(bucket, key -> new TreeMap<>());
+            HyperLogLog all = null;
+            for (Map.Entry<String, HyperLogLog> entry : byRole.entrySet()) {
+                counts.put(entry.getKey(), entry.getValue().estimate());
+                if (all == null) {
+                    all = new HyperLogLog(entry.getValue().precision());
+                }
+                all.merge(entry.getValue());
+            }
+            if (all != null) {
+                counts.put("ALL", all.estimate());
+            }
+        }));
+        return estimates;
+    }
+
+    private HyperLogLog sketchFor(Granularity granularity, Instant bucket, String role) {
+        ConcurrentSkipListMap<Instant, ConcurrentMap<String, HyperLogLog>> byBucket = buckets.get(granularity);
+        ConcurrentMap<String, HyperLogLog> byRole = byBucket.get(bucket);
+        if (byRole == null) {
+            byRole = byBucket.computeIfAbsent(bucket, key -> new ConcurrentHashMap<>());
+            evictExpired(granularity, byBucket);
+        }
+        HyperLogLog sketch = byRole.get(role);
+        return sketch != null ? sketch : byRole.computeIfAbsent(role, key -> new HyperLogLog(properties.getPrecision()));
+    }
+
+    private void evictExpired(Granularity granularity, ConcurrentSkipListMap<Instant, ConcurrentMap<String, HyperLogLog>> byBucket) {
+        int retention = granularity == Granularity.HOURLY ? properties.getHourlyRetention() : properties.getDailyRetention();
+        NavigableMap<Instant, ConcurrentMap<String, HyperLogLog>> expired = byBucket.headMap(
+                granularity.bucketOf(clock.instant()).minus(retention, granularity.unit()), false);
+        expired.clear();
+    }
+
+    private int sketchCount() {
+        return buckets.values().stream()
+                .mapToInt(byBucket -> byBucket.values().stream().mapToInt(Map::size).sum())
+                .sum();
+    }
+
+    private static String normalize(String role) {
+        if (role == null) {
+            return "USER";
+        }
+        String name = role.startsWith(ROLE_PREFIX) ? role.substring(ROLE_PREFIX.length()) : role;
+        return name.toUpperCase(Locale.ROOT);
+    }
+
+    private enum Granularity {
+        HOURLY(ChronoUnit.HOURS),
+        DAILY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        ChronoUnit unit() {
+            return unit;
+        }
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        Instant bucketOf(Instant instant) {
+            return instant.truncatedTo(unit);
+        }
+    }
+}
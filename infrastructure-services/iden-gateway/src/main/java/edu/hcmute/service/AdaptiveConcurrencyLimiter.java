@@ -0,0 +1,208 @@
+package edu.hcmute.service;
+
+import edu.hcmute.config.ConcurrencyLimitProperties;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AdaptiveConcurrencyLimiter {
+    private static final Mono<Admission> ADMITTED = Mono.just(Admission.ADMITTED);
+    private static final Mono<Admission> QUEUE_FULL = Mono.just(Admission.QUEUE_FULL);
+    private final ConcurrencyLimitProperties.Limit settings;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Object queueLock = new Object();
+    private final TreeMap<Integer, ArrayDeque<Waiter>> waiting = new TreeMap<>();
+    private volatile int queued;
+    private volatile double limit;
+    private double longRttNanos;
+    private long samples;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties.Limit settings) {
+        this.settings = settings;
+        this.limit = settings.getInitialLimit();
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public Mono<Admission> admit(int priority, int maxQueueSize, Duration maxWait) {
+        Waiter waiter;
+        Waiter evicted = null;
+        List<Waiter> granted;
+        synchronized (queueLock) {
+            if (queued == 0 && inFlight.get() < (int) limit) {
+                inFlight.incrementAndGet();
+                return ADMITTED;
+            }
+            if (queued >= maxQueueSize) {
+                Map.Entry<Integer, ArrayDeque<Waiter>> lowest = waiting.firstEntry();
+                if (lowest == null || lowest.getKey() >= priority) {
+                    dropped.incrementAndGet();
+                    return QUEUE_FULL;
+                }
+                evicted = lowest.getValue().pollLast();
+                if (lowest.getValue().isEmpty()) {
+                    waiting.pollFirstEntry();
+                }
+                evicted.state = Admission.EVICTED;
+                queued--;
+                dropped.incrementAndGet();
+            }
+            waiter = new Waiter(priority);
+            waiting.computeIfAbsent(priority, key -> new ArrayDeque<>()).addLast(waiter);
+            queued++;
+            granted = grantLocked();
+        }
+        if (evicted != null) {
+            evicted.sink.tryEmitValue(Admission.EVICTED);
+        }
+        emit(granted);
+        return waiter.sink.asMono()
+                .timeout(maxWait, Mono.fromSupplier(() -> abandon(waiter, Admission.TIMED_OUT)))
+                .doOnCancel(() -> {
+                    if (abandon(waiter, Admission.TIMED_OUT) == Admission.ADMITTED) {
+                        cancel();
+                    }
+                });
+    }
+
+    public void release(long rttNanos, boolean overloaded) {
+        int inFlightAtCompletion = inFlight.get();
+        releasePermit();
+        onSample(rttNanos, inFlightAtCompletion, overloaded);
+    }
+
+    public void cancel() {
+        releasePermit();
+    }
+
+    public int queued() {
+        return queued;
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtCompletion, boolean overloaded) {
+        double current = limit;
+        double next;
+        if (overloaded) {
+            next = current * settings.getBackoffRatio();
+        } else {
+            if (rttNanos <= 0) {
+                return;
+            }
+            samples++;
+            double window = Math.min(samples, settings.getLongWindow());
+            longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos + (rttNanos - longRttNanos) / window;
+            if (inFlightAtCompletion < current / 2) {
+                return;
+            }
+            if (longRttNanos / rttNanos > 2) {
+                longRttNanos *= 0.95;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, settings.getRttTolerance() * longRttNanos / rttNanos));
+            double queueSize = Math.sqrt(current);
+            next = current * gradient + queueSize;
+            next = current * (1 - settings.getSmoothing()) + next * settings.getSmoothing();
+        }
+        limit = Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), next));
+    }
+
+    private void releasePermit() {
+        List<Waiter> granted;
+        synchronized (queueLock) {
+            inFlight.decrementAndGet();
+            granted = queued == 0 ? null : grantLocked();
+        }
+        emit(granted);
+    }
+
+    private List<Waiter> grantLocked() {
+        List<Waiter> granted = null;
+        while (inFlight.get() < (int) limit) {
+            Map.Entry<Integer, ArrayDeque<Waiter>> highest = waiting.lastEntry();
+            if (highest == null) {
+                break;
+            }
+            Waiter next = highest.getValue().pollFirst();
+            if (highest.getValue().isEmpty()) {
+                waiting.pollLastEntry();
+            }
+            queued--;
+            next.state = Admission.ADMITTED;
+            inFlight.incrementAndGet();
+            if (granted == null) {
+                granted = new ArrayList<>(1);
+            }
+            granted.add(next);
+        }
+        return granted;
+    }
+
+    private Admission abandon(Waiter waiter, Admission reason) {
+        synchronized (queueLock) {
+            if (waiter.state != null) {
+                return waiter.state;
+            }
+            ArrayDeque<Waiter> queue = waiting.get(waiter.priority);
+            if (queue != null && queue.remove(waiter)) {
+                queued--;
+                if (queue.isEmpty()) {
+                    waiting.remove(waiter.priority);
+                }
+            }
+            waiter.state = reason;
+            dropped.incrementAndGet();
+            return reason;
+        }
+    }
+
+    private static void emit(List<Waiter> granted) {
+        if (granted != null) {
+            granted.forEach(waiter -> waiter.sink.tryEmitValue(Admission.ADMITTED));
+        }
+    }
+
+    public enum Admission {
+        ADMITTED, QUEUE_FULL, EVICTED, TIMED_OUT
+    }
+
+    private static final class Waiter {
+        private final int priority;
+        private final Sinks.One<Admission> sink = Sinks.one();
+        private Admission state;
+
+        private Waiter(int priority) {
+            this.priority = priority;
+        }
+    }
+}
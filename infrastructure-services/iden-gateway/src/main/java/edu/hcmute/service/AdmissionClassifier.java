@@ -0,0 +1,79 @@
+package edu.hcmute.service;
+
+import edu.hcmute.config.AdmissionProperties;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class AdmissionClassifier {
+    private final List<TierRule> rules;
+    private final AdmissionTier defaultTier;
+
+    public AdmissionClassifier(AdmissionProperties properties) {
+        this.rules = properties.getTiers().stream()
+                .map(TierRule::new)
+                .toList();
+        this.defaultTier = new AdmissionTier(properties.getDefaultTier(), properties.getDefaultPriority());
+    }
+
+    public AdmissionTier classify(String routeId, String method, String path, String role) {
+        PathContainer pathContainer = null;
+        String effectiveRole = role != null ? role : AdmissionProperties.ANONYMOUS;
+        for (TierRule rule : rules) {
+            if (!rule.routes.isEmpty() && !rule.routes.contains(routeId)) {
+                continue;
+            }
+            if (!rule.methods.isEmpty() && !rule.methods.contains(method)) {
+                continue;
+            }
+            if (!rule.roles.isEmpty() && !rule.roles.contains(effectiveRole)) {
+                continue;
+            }
+            if (!rule.paths.isEmpty()) {
+                if (pathContainer == null) {
+                    pathContainer = PathContainer.parsePath(path);
+                }
+                if (!rule.matchesPath(pathContainer)) {
+                    continue;
+                }
+            }
+            return rule.tier;
+        }
+        return defaultTier;
+    }
+
+    public record AdmissionTier(String name, int priority) {
+    }
+
+    private static final class TierRule {
+        private final AdmissionTier tier;
+        private final Set<String> routes;
+        private final Set<String> methods;
+        private final Set<String> roles;
+        private final List<PathPattern> paths;
+
+        private TierRule(AdmissionProperties.Tier tier) {
+            this.tier = new AdmissionTier(tier.getName(), tier.getPriority());
+            this.routes = Set.copyOf(tier.getRoutes());
+            this.methods = tier.getMethods().stream().map(value -> value.toUpperCase(Locale.ROOT)).collect(Collectors.toUnmodifiableSet());
+            this.roles = tier.getRoles().stream().map(value -> value.toUpperCase(Locale.ROOT)).collect(Collectors.toUnmodifiableSet());
+            this.paths = tier.getPaths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        }
+
+        private boolean matchesPath(PathContainer path) {
+            for (PathPattern pattern : paths) {
+                if (pattern.matches(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
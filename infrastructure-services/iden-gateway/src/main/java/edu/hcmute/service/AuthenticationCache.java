@@ -0,0 +1,114 @@
+package edu.hcmute.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import edu.hcmute.config.RouteAuthorizationTable;
+import edu.hcmute.dto.CachedAuthentication;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+public class AuthenticationCache {
+    private static final String CACHE_NAME = "gateway.auth";
+    private static final String DEFAULT_ROLE = "USER";
+    private final Converter<Jwt, Collection<GrantedAuthority>> authoritiesConverter;
+    private final RouteAuthorizationTable routeAuthorizationTable;
+    private final Cache<String, CachedAuthentication> cache;
+    private final Duration maxTtl;
+
+    public AuthenticationCache(Converter<Jwt, Collection<GrantedAuthority>> authoritiesConverter,
+                               RouteAuthorizationTable routeAuthorizationTable,
+                               long maxSize,
+                               Duration maxTtl,
+                               MeterRegistry meterRegistry) {
+        this.authoritiesConverter = authoritiesConverter;
+        this.routeAuthorizationTable = routeAuthorizationTable;
+        this.maxTtl = maxTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("~~> authentication cache enabled with maxSize={}, maxTtl={}", maxSize, maxTtl);
+    }
+
+    public CachedAuthentication get(Jwt jwt) {
+        return cache.get(digest(jwt.getTokenValue()), key -> load(jwt));
+    }
+
+    private CachedAuthentication load(Jwt jwt) {
+        Collection<GrantedAuthority> authorities = authoritiesConverter.convert(jwt);
+        if (authorities == null) {
+            authorities = Collections.emptyList();
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("X-User-Id", jwt.getSubject());
+        headers.put("X-User-Name", jwt.getClaimAsString("name"));
+        headers.put("X-User-Email", jwt.getClaimAsString("email"));
+        headers.put("X-User-Zipcode", jwt.getClaimAsString("zipcode"));
+        headers.put("X-User-Role", determineRole(authorities));
+        return new CachedAuthentication(List.copyOf(authorities), Collections.unmodifiableMap(headers),
+                routeAuthorizationTable.roleMask(authorities), Hashing.hash64(jwt.getSubject()), jwt.getExpiresAt());
+    }
+
+    private String determineRole(Collection<GrantedAuthority> authorities) {
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (!name.contains("default-roles")) {
+                return name;
+            }
+        }
+        return DEFAULT_ROLE;
+    }
+
+    private static String digest(String tokenValue) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(tokenValue.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private final class TokenExpiry implements Expiry<String, CachedAuthentication> {
+        @Override
+        public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+            if (value.expiresAt() == null) {
+                return maxTtl.toNanos();
+            }
+            Duration remaining = Duration.between(Instant.now(), value.expiresAt());
+            if (remaining.isNegative()) {
+                return 0L;
+            }
+            return Math.min(remaining.toNanos(), maxTtl.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package edu.hcmute.service;
+
+import edu.hcmute.config.CanaryProperties;
+import edu.hcmute.dto.CanaryReport;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+@Slf4j
+public class CanaryMonitor implements SmartLifecycle {
+    public static final String OBSERVING = "OBSERVING";
+    public static final String EJECTED = "EJECTED";
+    private final CanaryProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ServiceCanary> services = new ConcurrentHashMap<>();
+    private volatile Disposable evaluation;
+
+    public CanaryMonitor(CanaryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        log.info("### Evaluating canaries every {} ###", properties.getEvaluationInterval());
+        evaluation = Flux.interval(properties.getEvaluationInterval(), properties.getEvaluationInterval())
+                .subscribe(tick -> evaluateAll());
+    }
+
+    @Override
+    public void stop() {
+        if (evaluation != null) {
+            evaluation.dispose();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return evaluation != null && !evaluation.isDisposed();
+    }
+
+    public List<ServiceInstance> select(String routeId, List<ServiceInstance> instances, boolean sticky) {
+        if (!properties.isEnabled() || instances.isEmpty()) {
+            return instances;
+        }
+        String serviceId = instances.get(0).getServiceId();
+        ServiceCanary service = services.get(serviceId);
+        Partition partition = service != null ? service.partition : null;
+        if (partition == null || !sameInstances(partition.source, instances)) {
+            partition = partition(instances);
+            if (partition.canaries.isEmpty() && service == null) {
+                return instances;
+            }
+            service = services.computeIfAbsent(serviceId, ServiceCanary::new);
+            service.refresh(partition);
+        }
+        if (partition.canaries.isEmpty() || partition.baseline.isEmpty()) {
+            return instances;
+        }
+        int percent = properties.percentFor(routeId);
+        if (service.ejection != null || percent == 0) {
+            return partition.baseline;
+        }
+        if (sticky) {
+            return instances;
+        }
+        return ThreadLocalRandom.current().nextInt(100) < percent ? partition.canaries : partition.baseline;
+    }
+
+    public void record(ServiceInstance instance, long nanos, boolean failed) {
+        ServiceCanary service = services.get(instance.getServiceId());
+        if (service == null || service.ejection != null) {
+            return;
+        }
+        Cohort cohort = isCanary(instance) ? service.canary : service.baseline;
+        cohort.histogram.record(nanos);
+        if (failed) {
+            cohort.errors.increment();
+        }
+    }
+
+    public Map<String, CanaryReport> reports() {
+        Map<String, CanaryReport> reports = new TreeMap<>();
+        services.forEach((serviceId, service) -> {
+            Ejection ejection = service.ejection;
+            Evaluation last = service.lastEvaluation;
+            reports.put(serviceId, new CanaryReport(serviceId,
+                    ejection != null ? EJECTED : OBSERVING,
+                    service.partition != null ? service.partition.canaryIds : List.of(),
+                    ejection != null ? ejection.reason : null,
+                    ejection != null ? ejection.at : null,
+                    last != null ? last.at : null,
+                    last != null ? last.canary : stats(service.canary),
+                    last != null ? last.baseline : stats(service.baseline)));
+        });
+        return reports;
+    }
+
+    public boolean reinstate(String serviceId) {
+        ServiceCanary service = services.get(serviceId);
+        if (service == null || service.ejection == null) {
+            return false;
+        }
+        log.info("~~> canary of {} reinstated", serviceId);
+        service.reset();
+        return true;
+    }
+
+    void evaluateAll() {
+        services.values().forEach(this::evaluate);
+    }
+
+    private void evaluate(ServiceCanary service) {
+        Cohort canary = service.canary;
+        Cohort baseline = service.baseline;
+        if (service.ejection != null || canary.histogram.count() < properties.getMinSamples()
+                || baseline.histogram.count() < properties.getMinSamples()) {
+            return;
+        }
+        service.canary = new Cohort();
+        service.baseline = new Cohort();
+        CanaryReport.CohortStats canaryStats = stats(canary);
+        CanaryReport.CohortStats baselineStats = stats(baseline);
+        service.lastEvaluation = new Evaluation(Instant.now(), canaryStats, baselineStats);
+        String reason = null;
+        double toleranceMillis = properties.getLatencyTolerance().toNanos() / 1e6;
+        if (canaryStats.tailMillis() > baselineStats.tailMillis() * properties.getMaxLatencyRatio()
+                && canaryStats.tailMillis() - baselineStats.tailMillis() > toleranceMillis) {
+            reason = String.format("p%s latency %.1fms exceeds %.1fx baseline %.1fms",
+                    percentileLabel(), canaryStats.tailMillis(), properties.getMaxLatencyRatio(), baselineStats.tailMillis());
+        } else if (canaryStats.errorRate() - baselineStats.errorRate() > properties.getMaxErrorRateIncrease()) {
+            reason = String.format("error rate %.2f%% exceeds baseline %.2f%% by more than %.2f%%",
+                    canaryStats.errorRate() * 100, baselineStats.errorRate() * 100, properties.getMaxErrorRateIncrease() * 100);
+        }
+        if (reason != null) {
+            service.ejection = new Ejection(reason, Instant.now());
+            meterRegistry.counter("gateway.canary.ejections", "service", service.serviceId).increment();
+            log.warn("~~> canary {} of {} ejected: {}", service.partition.canaryIds, service.serviceId, reason);
+        } else {
+            log.info("~~> canary of {} healthy: p{} {}ms vs {}ms, errors {} vs {}", service.serviceId, percentileLabel(),
+                    canaryStats.tailMillis(), baselineStats.tailMillis(), canaryStats.errorRate(), baselineStats.errorRate());
+        }
+    }
+
+    private CanaryReport.CohortStats stats(Cohort cohort) {
+        long requests = cohort.histogram.count();
+        return new CanaryReport.CohortStats(requests,
+                requests == 0 ? 0 : (double) cohort.errors.sum() / requests,
+                cohort.histogram.percentile(0.5) / 1e6,
+                cohort.histogram.percentile(properties.getLatencyPercentile()) / 1e6);
+    }
+
+    private String percentileLabel() {
+        return String.valueOf(Math.round(properties.getLatencyPercentile() * 100));
+    }
+
+    private Partition partition(List<ServiceInstance> instances) {
+        List<ServiceInstance> canaries = new ArrayList<>();
+        List<ServiceInstance> baseline = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            (isCanary(instance) ? canaries : baseline).add(instance);
+        }
+        return new Partition(instances, List.copyOf(canaries), List.copyOf(baseline),
+                canaries.stream().map(CanaryMonitor::keyOf).sorted().toList());
+    }
+
+    // Suppliers hand out a fresh list on every request, so compare contents rather than identity.
+    private boolean sameInstances(List<ServiceInstance> previous, List<ServiceInstance> current) {
+        if (previous == current) {
+            return true;
+        }
+        if (previous.size() != current.size()) {
+            return false;
+        }
+        for (int i = 0; i < current.size(); i++) {
+            ServiceInstance a = previous.get(i);
+            ServiceInstance b = current.get(i);
+            if (!Objects.equals(a.getInstanceId(), b.getInstanceId()) || !Objects.equals(a.getHost(), b.getHost())
+                    || a.getPort() != b.getPort() || isCanary(a) != isCanary(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isCanary(ServiceInstance instance) {
+        Map<String, String> metadata = instance.getMetadata();
+        return metadata != null && properties.getMetadataValue().equalsIgnoreCase(metadata.get(properties.getMetadataKey()));
+    }
+
+    private static String keyOf(ServiceInstance instance) {
+        return instance.getInstanceId() != null ? instance.getInstanceId() : instance.getHost() + ":" + instance.getPort();
+    }
+
+    private record Partition(List<ServiceInstance> source, List<ServiceInstance> canaries,
+                             List<ServiceInstance> baseline, List<String> canaryIds) {
+    }
+
+    private record Ejection(String reason, Instant at) {
+    }
+
+    private record Evaluation(Instant at, CanaryReport.CohortStats canary, CanaryReport.CohortStats baseline) {
+    }
+
+    private static final class Cohort {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+
+    private static final class ServiceCanary {
+        private final String serviceId;
+        private volatile Partition partition;
+        private volatile Cohort canary = new Cohort();
+        private volatile Cohort baseline = new Cohort();
+        private volatile Ejection ejection;
+        private volatile Evaluation lastEvaluation;
+
+        private ServiceCanary(String serviceId) {
+            this.serviceId = serviceId;
+        }
+
+        private void refresh(Partition next) {
+            Partition previous = partition;
+            partition = next;
+            if (previous != null && !previous.canaryIds.equals(next.canaryIds)) {
+                log.info("~~> canary instances of {} changed to {}", serviceId, next.canaryIds);
+                reset();
+            }
+        }
+
+        private void reset() {
+            canary = new Cohort();
+            baseline = new Cohort();
+            ejection = null;
+            lastEvaluation = null;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package edu.hcmute.service;
+
+import edu.hcmute.commons.config.InternalEndpointProperties;
+import edu.hcmute.config.PushProperties;
+import edu.hcmute.dto.ChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class ChangeEventSubscriber implements SmartLifecycle {
+    private static final ParameterizedTypeReference<ServerSentEvent<ChangeEvent>> EVENT_TYPE = new ParameterizedTypeReference<>() {
+    };
+    private final PushProperties properties;
+    private final PushHub pushHub;
+    private final ReactiveDiscoveryClient discoveryClient;
+    private final WebClient webClient;
+    private final Map<String, Disposable> streams = new ConcurrentHashMap<>();
+    private volatile Disposable discovery;
+
+    public ChangeEventSubscriber(PushProperties properties,
+                                 PushHub pushHub,
+                                 ReactiveDiscoveryClient discoveryClient,
+                                 InternalEndpointProperties internalEndpointProperties,
+                                 WebClient.Builder webClientBuilder) {
+        this.properties = properties;
+        this.pushHub = pushHub;
+        this.discoveryClient = discoveryClient;
+        this.webClient = webClientBuilder
+                .defaultHeader(internalEndpointProperties.getHeader(), internalEndpointProperties.getToken())
+                .build();
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        log.info("### Subscribing to change events from {} ###", properties.getSources());
+        discovery = Flux.interval(Duration.ZERO, properties.getDiscoveryInterval())
+                .concatMap(tick -> Flux.fromIterable(properties.getSources())
+                        .flatMap(serviceId -> discoveryClient.getInstances(serviceId)
+                                .onErrorResume(ex -> {
+                                    log.warn("~~> change event source {} discovery failed: {}", serviceId, ex.getMessage());
+                                    return Mono.empty();
+                                }))
+                        .collectList())
+                .subscribe(instances -> reconcile(instances.stream()
+                        .collect(Collectors.toMap(ChangeEventSubscriber::keyOf, instance -> instance, (a, b) -> a))));
+    }
+
+    @Override
+    public void stop() {
+        if (discovery != null) {
+            discovery.dispose();
+        }
+        streams.values().forEach(Disposable::dispose);
+        streams.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return discovery != null && !discovery.isDisposed();
+    }
+
+    private void reconcile(Map<String, ServiceInstance> instances) {
+        Set<String> gone = streams.keySet().stream()
+                .filter(key -> !instances.containsKey(key))
+                .collect(Collectors.toSet());
+        gone.forEach(key -> {
+            log.info("~~> change event source {} left, closing stream", key);
+            streams.remove(key).dispose();
+        });
+        instances.forEach((key, instance) -> streams.computeIfAbsent(key, k -> connect(instance)));
+    }
+
+    private Disposable connect(ServiceInstance instance) {
+        log.info("~~> opening change event stream to {}", keyOf(instance));
+        return webClient.get()
+                .uri(instance.getUri() + properties.getStreamPath())
+                .retrieve()
+                .bodyToFlux(EVENT_TYPE)
+                .filter(event -> event.data() != null)
+                .concatWith(Mono.error(() -> new IllegalStateException("stream closed by server")))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.getReconnectBackoff())
+                        .maxBackoff(properties.getDiscoveryInterval())
+                        .transientErrors(true)
+                        .doBeforeRetry(signal -> log.warn("~~> change event stream to {} dropped: {}",
+                                keyOf(instance), signal.failure().getMessage())))
+                .subscribe(event -> pushHub.publish(event.data()));
+    }
+
+    private static String keyOf(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+}
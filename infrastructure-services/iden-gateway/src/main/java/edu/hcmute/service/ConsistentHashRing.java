@@ -0,0 +1,48 @@
+package edu.hcmute.service;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+public class ConsistentHashRing {
+    private final TreeMap<Long, ServiceInstance> ring = new TreeMap<>();
+    private final Set<String> members;
+
+    public ConsistentHashRing(List<ServiceInstance> instances, int virtualNodes) {
+        this.members = instances.stream().map(ConsistentHashRing::keyOf).collect(Collectors.toUnmodifiableSet());
+        for (ServiceInstance instance : instances) {
+            String key = keyOf(instance);
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(Hashing.hash64(key + '#' + i), instance);
+            }
+        }
+    }
+
+    public boolean hasSameMembers(List<ServiceInstance> instances) {
+        if (instances.size() != members.size()) {
+            return false;
+        }
+        for (ServiceInstance instance : instances) {
+            if (!members.contains(keyOf(instance))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public ServiceInstance locate(String key) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, ServiceInstance> entry = ring.ceilingEntry(Hashing.hash64(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    private static String keyOf(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+}
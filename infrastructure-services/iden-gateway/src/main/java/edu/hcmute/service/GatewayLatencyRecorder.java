@@ -0,0 +1,73 @@
+package edu.hcmute.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import edu.hcmute.filter.RequestTimings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class GatewayLatencyRecorder {
+    private static final String METRIC_NAME = "gateway.latency";
+    private static final String UNKNOWN = "none";
+    static final long MAX_TIMERS = 5_000;
+    static final Duration IDLE_EXPIRY = Duration.ofMinutes(10);
+    private final MeterRegistry meterRegistry;
+    private final Cache<TimerKey, Timer> timers;
+
+    @Autowired
+    public GatewayLatencyRecorder(MeterRegistry meterRegistry) {
+        this(meterRegistry, Ticker.systemTicker());
+    }
+
+    // Instances come and go with every deployment, so idle timers are dropped from the registry as well.
+    GatewayLatencyRecorder(MeterRegistry meterRegistry, Ticker ticker) {
+        this.meterRegistry = meterRegistry;
+        this.timers = Caffeine.newBuilder()
+                .maximumSize(MAX_TIMERS)
+                .expireAfterAccess(IDLE_EXPIRY)
+                .ticker(ticker)
+                .evictionListener((TimerKey key, Timer timer, RemovalCause cause) -> meterRegistry.remove(timer))
+                .build();
+    }
+
+    public void record(String routeId, int status, RequestTimings timings) {
+        String route = routeId != null ? routeId : UNKNOWN;
+        String instance = timings.instance() != null ? timings.instance() : UNKNOWN;
+        record(route, "total", status, instance, System.nanoTime() - timings.startNanos());
+        record(route, "security", status, instance, timings.securityNanos());
+        record(route, "authorization", status, instance, timings.authorizationNanos());
+        record(route, "loadbalancer", status, instance, timings.loadBalancerNanos());
+        record(route, "connect", status, instance, timings.connectNanos());
+        record(route, "ttfb", status, instance, timings.firstByteNanos());
+    }
+
+    void cleanUp() {
+        timers.cleanUp();
+    }
+
+    private void record(String route, String phase, int status, String instance, long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        timers.get(new TimerKey(route, phase, status, instance), key -> Timer.builder(METRIC_NAME)
+                        .description("Gateway request latency broken down by processing phase")
+                        .tag("route", key.route())
+                        .tag("phase", key.phase())
+                        .tag("status", String.valueOf(key.status()))
+                        .tag("instance", key.instance())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private record TimerKey(String route, String phase, int status, String instance) {
+    }
+}
@@ -0,0 +1,86 @@
+package edu.hcmute.service;
+
+import java.util.Arrays;
+
+public class HyperLogLog {
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public static HyperLogLog fromBytes(byte[] registers) {
+        int precision = Integer.numberOfTrailingZeros(registers.length);
+        if (registers.length != 1 << precision) {
+            throw new IllegalArgumentException("register count must be a power of two");
+        }
+        HyperLogLog sketch = new HyperLogLog(precision);
+        System.arraycopy(registers, 0, sketch.registers, 0, registers.length);
+        return sketch;
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    public void add(long hash) {
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+        if (rank > registers[index]) {
+            synchronized (this) {
+                if (rank > registers[index]) {
+                    registers[index] = rank;
+                }
+            }
+        }
+    }
+
+    public synchronized void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("cannot merge sketches of precision " + other.precision + " into " + precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        byte[] snapshot = toBytes();
+        int m = snapshot.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : snapshot) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public synchronized byte[] toBytes() {
+        return Arrays.copyOf(registers, registers.length);
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package edu.hcmute.service;
+
+import edu.hcmute.dto.CachedResponse;
+import edu.hcmute.dto.IdempotencyRecord;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+public interface IdempotencyStore {
+    Mono<IdempotencyRecord> reserve(String key, String requestDigest, Duration inFlightTimeout);
+
+    Mono<Void> complete(String key, String requestDigest, CachedResponse response, Duration ttl);
+
+    Mono<Void> release(String key);
+}
@@ -0,0 +1,64 @@
+package edu.hcmute.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import edu.hcmute.dto.CachedResponse;
+import edu.hcmute.dto.IdempotencyRecord;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Slf4j
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    private final Cache<String, IdempotencyRecord> records;
+
+    public InMemoryIdempotencyStore(long maxEntries, MeterRegistry meterRegistry) {
+        this.records = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new RecordExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, records, "gateway.idempotency");
+        log.info("~~> in-memory idempotency store enabled with maxEntries={}", maxEntries);
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> reserve(String key, String requestDigest, Duration inFlightTimeout) {
+        return Mono.fromSupplier(() -> records.asMap()
+                .putIfAbsent(key, new IdempotencyRecord(null, requestDigest, Instant.now().plus(inFlightTimeout))));
+    }
+
+    @Override
+    public Mono<Void> complete(String key, String requestDigest, CachedResponse response, Duration ttl) {
+        return Mono.fromRunnable(() -> records.put(key,
+                new IdempotencyRecord(response, requestDigest, Instant.now().plus(ttl))));
+    }
+
+    @Override
+    public Mono<Void> release(String key) {
+        return Mono.fromRunnable(() -> records.asMap().computeIfPresent(key,
+                (k, current) -> current.inFlight() ? null : current));
+    }
+
+    private static final class RecordExpiry implements Expiry<String, IdempotencyRecord> {
+        @Override
+        public long expireAfterCreate(String key, IdempotencyRecord value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, IdempotencyRecord value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, IdempotencyRecord value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package edu.hcmute.service;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import edu.hcmute.config.JwksProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+public class JwksKeyManager implements SmartLifecycle {
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private final String jwkSetUri;
+    private final JwksProperties properties;
+    private final WebClient webClient;
+    private final Timer fetchSuccess;
+    private final Timer fetchFailure;
+    private final AtomicReference<JWKSet> keys = new AtomicReference<>();
+    private final AtomicReference<Mono<JWKSet>> inFlight = new AtomicReference<>();
+    private final AtomicReference<Disposable> scheduled = new AtomicReference<>();
+    private volatile long lastSuccessNanos;
+    private volatile long lastAttemptNanos;
+    private volatile int consecutiveFailures;
+    private volatile boolean running;
+
+    public JwksKeyManager(String jwkSetUri, JwksProperties properties, WebClient.Builder webClientBuilder,
+                          MeterRegistry meterRegistry) {
+        this.jwkSetUri = jwkSetUri;
+        this.properties = properties;
+        this.webClient = webClientBuilder.build();
+        this.fetchSuccess = Timer.builder("gateway.jwks.fetch")
+                .tag("outcome", "success")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.fetchFailure = Timer.builder("gateway.jwks.fetch")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        meterRegistry.gauge("gateway.jwks.staleness.seconds", this, JwksKeyManager::stalenessSeconds);
+        meterRegistry.gauge("gateway.jwks.keys", this, manager -> {
+            JWKSet current = manager.keys.get();
+            return current != null ? current.size() : 0;
+        });
+    }
+
+    public Flux<JWK> keysFor(SignedJWT signedJwt) {
+        JWKSelector selector = new JWKSelector(JWKMatcher.forJWSHeader(signedJwt.getHeader()));
+        JWKSet current = keys.get();
+        if (current != null) {
+            List<JWK> matched = selector.select(current);
+            if (!matched.isEmpty() || !refreshAllowed()) {
+                return Flux.fromIterable(matched);
+            }
+            log.info("~~> no JWK matches kid={}, refreshing key set", signedJwt.getHeader().getKeyID());
+        }
+        return refresh()
+                .onErrorResume(ex -> Mono.justOrEmpty(keys.get()))
+                .flatMapIterable(selector::select);
+    }
+
+    public boolean isLoaded() {
+        return keys.get() != null;
+    }
+
+    public boolean isStale() {
+        return stalenessSeconds() > properties.getMaxStaleness().toSeconds();
+    }
+
+    public double stalenessSeconds() {
+        long last = lastSuccessNanos;
+        return last == 0L ? -1 : (double) TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - last);
+    }
+
+    public int consecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    @Override
+    public void start() {
+        log.info("### Prefetching JWKS from {} ###", jwkSetUri);
+        running = true;
+        try {
+            refresh().block(properties.getStartupWait());
+        } catch (RuntimeException ex) {
+            log.warn("~~> JWKS not available at startup, verification will retry in background: {}", ex.getMessage());
+            if (!isLoaded()) {
+                scheduleRefresh(nextRetryDelay());
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Disposable task = scheduled.getAndSet(null);
+        if (task != null) {
+            task.dispose();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private boolean refreshAllowed() {
+        return System.nanoTime() - lastAttemptNanos >= properties.getMinRefreshInterval().toNanos();
+    }
+
+    private Mono<JWKSet> refresh() {
+        while (true) {
+            Mono<JWKSet> current = inFlight.get();
+            if (current != null) {
+                return current;
+            }
+            Mono<JWKSet> fetch = fetch()
+                    .doFinally(signal -> inFlight.set(null))
+                    .cache();
+            if (inFlight.compareAndSet(null, fetch)) {
+                return fetch;
+            }
+        }
+    }
+
+    private Mono<JWKSet> fetch() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            lastAttemptNanos = start;
+            return webClient.get()
+                    .uri(jwkSetUri)
+                    .retrieve()
+                    .toEntity(String.class)
+                    .timeout(properties.getFetchTimeout())
+                    .flatMap(response -> Mono.fromCallable(() -> JWKSet.parse(response.getBody()))
+                            .doOnNext(jwkSet -> onFetched(jwkSet, response, start)))
+                    .doOnError(ex -> onFetchFailed(ex, start));
+        });
+    }
+
+    private void onFetched(JWKSet jwkSet, ResponseEntity<String> response, long start) {
+        fetchSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        keys.set(jwkSet);
+        lastSuccessNanos = System.nanoTime();
+        consecutiveFailures = 0;
+        log.info("~~> loaded {} JWKs from {}", jwkSet.size(), jwkSetUri);
+        scheduleRefresh(nextRefreshDelay(response.getHeaders()));
+    }
+
+    private void onFetchFailed(Throwable ex, long start) {
+        fetchFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        consecutiveFailures++;
+        Duration delay = nextRetryDelay();
+        log.warn("~~> JWKS fetch failed ({} in a row), keeping last known keys, retrying in {}: {}",
+                consecutiveFailures, delay, ex.getMessage());
+        scheduleRefresh(delay);
+    }
+
+    private Duration nextRefreshDelay(HttpHeaders headers) {
+        Duration interval = properties.getRefreshInterval();
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null) {
+            Matcher matcher = MAX_AGE.matcher(cacheControl);
+            if (matcher.find()) {
+                Duration refreshBeforeExpiry = Duration.ofSeconds(Long.parseLong(matcher.group(1))).multipliedBy(4).dividedBy(5);
+                if (refreshBeforeExpiry.compareTo(properties.getMinRefreshInterval()) > 0
+                        && refreshBeforeExpiry.compareTo(interval) < 0) {
+                    return refreshBeforeExpiry;
+                }
+            }
+        }
+        return interval;
+    }
+
+    private Duration nextRetryDelay() {
+        Duration backoff = properties.getRetryBackoff().multipliedBy(1L << Math.min(consecutiveFailures, 6));
+        return backoff.compareTo(properties.getMaxRetryBackoff()) > 0 ? properties.getMaxRetryBackoff() : backoff;
+    }
+
+    private void scheduleRefresh(Duration delay) {
+        if (!running) {
+            return;
+        }
+        Disposable next = Mono.delay(delay)
+                .flatMap(tick -> refresh())
+                .subscribe(jwkSet -> {
+                }, ex -> {
+                });
+        Disposable previous = scheduled.getAndSet(next);
+        if (previous != null && previous != next) {
+            previous.dispose();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package edu.hcmute.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import edu.hcmute.config.DashboardProperties;
+import edu.hcmute.dto.OwnerDashboardDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Service
+@Slf4j
+public class OwnerDashboardService {
+    private static final ParameterizedTypeReference<List<JsonNode>> JSON_LIST = new ParameterizedTypeReference<>() {
+    };
+    private final DashboardProperties properties;
+    private final WebClient webClient;
+
+    public OwnerDashboardService(DashboardProperties properties,
+                                 WebClient.Builder webClientBuilder,
+                                 ReactorLoadBalancerExchangeFilterFunction loadBalancerFilter) {
+        this.properties = properties;
+        this.webClient = webClientBuilder.clone().filter(loadBalancerFilter).build();
+    }
+
+    public Mono<OwnerDashboardDto> getDashboard(String userId, String bearerToken) {
+        log.info("### Building owner dashboard for user {} ###", userId);
+        List<String> unavailable = new CopyOnWriteArrayList<>();
+        Mono<List<JsonNode>> propertiesSection = section("properties",
+                fetchList(properties.getPropertyServiceUri() + "/property-info/user/{userId}", bearerToken, userId),
+                properties.getPropertiesTimeout(), List.of(), unavailable);
+        Mono<List<JsonNode>> leadsSection = section("leads",
+                fetchList(properties.getLeadServiceUri() + "/property-lead/user/{userId}", bearerToken, userId),
+                properties.getLeadsTimeout(), List.of(), unavailable)
+                .cache();
+        Mono<Map<Integer, List<JsonNode>>> quotesSection = leadsSection
+                .flatMap(leads -> section("quotes", fetchQuotes(leadIds(leads), bearerToken),
+                        properties.getQuotesTimeout(), Map.of(), unavailable));
+        return Mono.zip(propertiesSection, leadsSection, quotesSection)
+                .map(sections -> new OwnerDashboardDto(userId, sections.getT1(), sections.getT2(), sections.getT3(),
+                        List.copyOf(unavailable)))
+                .doOnNext(dashboard -> log.info("~~> dashboard for user {}: {} properties, {} leads, unavailable={}",
+                        userId, dashboard.properties().size(), dashboard.leads().size(), dashboard.unavailableSections()));
+    }
+
+    private Mono<Map<Integer, List<JsonNode>>> fetchQuotes(List<Integer> leadIds, String bearerToken) {
+        if (leadIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return Flux.fromIterable(leadIds)
+                .buffer(properties.getQuoteBatchSize())
+                .flatMap(batch -> webClient.get()
+                        .uri(properties.getQuoteServiceUri() + "/property-quote/leads?leadIds={leadIds}",
+                                String.join(",", batch.stream().map(String::valueOf).toList()))
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .retrieve()
+                        .bodyToMono(JSON_LIST), properties.getQuoteBatchConcurrency())
+                .flatMapIterable(quotes -> quotes)
+                .collect(() -> quotesByLead(leadIds), (byLead, quote) -> byLead
+                        .computeIfAbsent(quote.path("leadId").asInt(), id -> new ArrayList<>())
+                        .add(quote));
+    }
+
+    private Mono<List<JsonNode>> fetchList(String uri, String bearerToken, Object... uriVariables) {
+        return webClient.get()
+                .uri(uri, uriVariables)
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .retrieve()
+                .bodyToMono(JSON_LIST)
+                .defaultIfEmpty(List.of());
+    }
+
+    private <T> Mono<T> section(String name, Mono<T> source, Duration timeout, T fallback, List<String> unavailable) {
+        return source
+                .timeout(timeout)
+                .onErrorResume(ex -> {
+                    log.warn("~~> dashboard section {} unavailable: {}", name, ex.toString());
+                    unavailable.add(name);
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(fallback);
+    }
+
+    private static List<Integer> leadIds(List<JsonNode> leads) {
+        return leads.stream()
+                .map(lead -> lead.path("id"))
+                .filter(JsonNode::canConvertToInt)
+                .map(JsonNode::asInt)
+                .toList();
+    }
+
+    private static Map<Integer, List<JsonNode>> quotesByLead(List<Integer> leadIds) {
+        Map<Integer, List<JsonNode>> byLead = new LinkedHashMap<>();
+        leadIds.forEach(leadId -> byLead.put(leadId, new ArrayList<>()));
+        return byLead;
+    }
+}
@@ -0,0 +1,119 @@
+package edu.hcmute.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.hcmute.dto.CachedResponse;
+import edu.hcmute.dto.IdempotencyRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+public class PostgresIdempotencyStore implements IdempotencyStore {
+    private static final TypeReference<Map<String, List<String>>> HEADERS_TYPE = new TypeReference<>() {
+    };
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public PostgresIdempotencyStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS gateway_idempotency (
+                    idempotency_key VARCHAR(512) PRIMARY KEY,
+                    request_digest VARCHAR(64),
+                    status INTEGER,
+                    headers TEXT,
+                    body BYTEA,
+                    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+                )""");
+        jdbcTemplate.execute("ALTER TABLE gateway_idempotency ADD COLUMN IF NOT EXISTS request_digest VARCHAR(64)");
+        log.info("~~> postgres idempotency store enabled");
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> reserve(String key, String requestDigest, Duration inFlightTimeout) {
+        return Mono.fromCallable(() -> {
+            Timestamp expiresAt = Timestamp.from(Instant.now().plus(inFlightTimeout));
+            int inserted = jdbcTemplate.update("""
+                    INSERT INTO gateway_idempotency (idempotency_key, request_digest, expires_at) VALUES (?, ?, ?)
+                    ON CONFLICT (idempotency_key) DO UPDATE
+                        SET request_digest = EXCLUDED.request_digest, status = NULL, headers = NULL, body = NULL,
+                            expires_at = EXCLUDED.expires_at
+                        WHERE gateway_idempotency.expires_at < now()""", key, requestDigest, expiresAt);
+            if (inserted > 0) {
+                return null;
+            }
+            return jdbcTemplate.query("""
+                            SELECT request_digest, status, headers, body, expires_at
+                            FROM gateway_idempotency WHERE idempotency_key = ?""",
+                    rs -> rs.next() ? toRecord(rs.getString("request_digest"), rs.getObject("status", Integer.class),
+                            rs.getString("headers"), rs.getBytes("body"), rs.getTimestamp("expires_at").toInstant())
+                            : null, key);
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Void> complete(String key, String requestDigest, CachedResponse response, Duration ttl) {
+        return Mono.fromRunnable(() -> jdbcTemplate.update("""
+                        UPDATE gateway_idempotency
+                        SET request_digest = ?, status = ?, headers = ?, body = ?, expires_at = ?
+                        WHERE idempotency_key = ?""",
+                        requestDigest, response.status().value(), writeHeaders(response.headers()), response.body(),
+                        Timestamp.from(Instant.now().plus(ttl)), key))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    @Override
+    public Mono<Void> release(String key) {
+        return Mono.fromRunnable(() -> jdbcTemplate.update(
+                        "DELETE FROM gateway_idempotency WHERE idempotency_key = ? AND status IS NULL", key))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("DELETE FROM gateway_idempotency WHERE expires_at < now()");
+        if (purged > 0) {
+            log.info("~~> purged {} expired idempotency records", purged);
+        }
+    }
+
+    private IdempotencyRecord toRecord(String requestDigest, Integer status, String headers, byte[] body,
+                                       Instant expiresAt) {
+        if (status == null) {
+            return new IdempotencyRecord(null, requestDigest, expiresAt);
+        }
+        HttpHeaders httpHeaders = new HttpHeaders();
+        try {
+            httpHeaders.putAll(objectMapper.readValue(headers, HEADERS_TYPE));
+        } catch (JsonProcessingException e) {
+            log.error("~~> unreadable stored idempotency headers: {}", e.getMessage());
+        }
+        return new IdempotencyRecord(new CachedResponse(HttpStatusCode.valueOf(status),
+                HttpHeaders.readOnlyHttpHeaders(httpHeaders), body != null ? body : new byte[0]), requestDigest,
+                expiresAt);
+    }
+
+    private String writeHeaders(HttpHeaders headers) {
+        Map<String, List<String>> values = new LinkedHashMap<>();
+        headers.forEach(values::put);
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
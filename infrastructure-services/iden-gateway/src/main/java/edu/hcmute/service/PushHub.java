@@ -0,0 +1,261 @@
+package edu.hcmute.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.hcmute.config.PushProperties;
+import edu.hcmute.dto.ChangeEvent;
+import edu.hcmute.dto.PushCommand;
+import edu.hcmute.dto.PushMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+@Service
+@Slf4j
+public class PushHub implements SmartLifecycle {
+    public static final String ZIP = "zip";
+    public static final String LEAD = "lead";
+    public static final String AGENT = "agent";
+    private static final Pattern TOPIC = Pattern.compile("(zip|lead|agent):[A-Za-z0-9_-]{1,64}");
+    private static final String ROLE_ADMIN = "ADMIN";
+    private static final String ROLE_AGENT = "AGENT";
+    private static final String ROLE_OWNER = "OWNER";
+    private final PushProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Set<Connection>> topics = new ConcurrentHashMap<>();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+    private final MeterRegistry meterRegistry;
+    private final Counter delivered;
+    private final Counter slowConsumers;
+    private volatile Disposable heartbeat;
+
+    public PushHub(PushProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.push.connections", connectionCount, AtomicInteger::get)
+                .description("Open push connections")
+                .register(meterRegistry);
+        Gauge.builder("gateway.push.subscriptions", subscriptionCount, AtomicInteger::get)
+                .description("Topic subscriptions across open push connections")
+                .register(meterRegistry);
+        this.delivered = Counter.builder("gateway.push.delivered")
+                .description("Change events queued to push connections")
+                .register(meterRegistry);
+        this.slowConsumers = Counter.builder("gateway.push.disconnected")
+                .description("Push connections closed because their send buffer overflowed")
+                .tag("reason", "slow-consumer")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String message = write(new PushMessage(PushMessage.HEARTBEAT, null, null, null));
+        heartbeat = Flux.interval(properties.getHeartbeatInterval(), properties.getHeartbeatInterval())
+                .subscribe(tick -> connections.forEach(connection -> offer(connection, message)));
+    }
+
+    @Override
+    public void stop() {
+        if (heartbeat != null) {
+            heartbeat.dispose();
+        }
+        connections.forEach(connection -> disconnect(connection, CloseStatus.GOING_AWAY));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return heartbeat != null && !heartbeat.isDisposed();
+    }
+
+    public Connection open(WebSocketSession session, String userId, Set<String> roles) {
+        if (connectionCount.incrementAndGet() > properties.getMaxConnections()) {
+            connectionCount.decrementAndGet();
+            reject("capacity");
+            return null;
+        }
+        Connection connection = new Connection(session, userId, roles,
+                Sinks.many().unicast().onBackpressureBuffer(Queues.<String>get(properties.getSendBufferSize()).get()));
+        connections.add(connection);
+        return connection;
+    }
+
+    public void close(Connection connection) {
+        if (!connections.remove(connection)) {
+            return;
+        }
+        connectionCount.decrementAndGet();
+        connection.topics.forEach(topic -> unregister(topic, connection));
+        connection.topics.clear();
+        connection.sink.tryEmitComplete();
+    }
+
+    public void handle(Connection connection, String text) {
+        PushCommand command;
+        try {
+            command = objectMapper.readValue(text, PushCommand.class);
+        } catch (JsonProcessingException e) {
+            reply(connection, PushMessage.ERROR, null, "malformed command");
+            return;
+        }
+        String topic = command.topic();
+        if (topic == null || !TOPIC.matcher(topic).matches()) {
+            reply(connection, PushMessage.ERROR, topic, "unknown topic");
+            return;
+        }
+        if (PushCommand.UNSUBSCRIBE.equals(command.action())) {
+            if (connection.topics.remove(topic)) {
+                unregister(topic, connection);
+            }
+            reply(connection, PushMessage.UNSUBSCRIBED, topic, null);
+        } else if (PushCommand.SUBSCRIBE.equals(command.action())) {
+            subscribe(connection, topic);
+        } else {
+            reply(connection, PushMessage.ERROR, topic, "unknown action");
+        }
+    }
+
+    public void publish(ChangeEvent event) {
+        if (event.zipCode() != null) {
+            deliver(ZIP + ':' + event.zipCode(), event);
+        }
+        if (event.leadId() != null) {
+            deliver(LEAD + ':' + event.leadId(), event);
+        }
+        if (event.agentId() != null) {
+            deliver(AGENT + ':' + event.agentId(), event);
+        }
+    }
+
+    private void subscribe(Connection connection, String topic) {
+        if (!permits(connection, topic)) {
+            reject("forbidden");
+            reply(connection, PushMessage.ERROR, topic, "forbidden");
+            return;
+        }
+        if (!connection.topics.contains(topic) && connection.topics.size() >= properties.getMaxTopicsPerConnection()) {
+            reject("topic-limit");
+            reply(connection, PushMessage.ERROR, topic, "too many topics");
+            return;
+        }
+        if (connection.topics.add(topic)) {
+            topics.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(connection);
+            subscriptionCount.incrementAndGet();
+            if (!connections.contains(connection)) {
+                unregister(topic, connection);
+            }
+        }
+        reply(connection, PushMessage.SUBSCRIBED, topic, null);
+    }
+
+    private void unregister(String topic, Connection connection) {
+        topics.computeIfPresent(topic, (key, subscribers) -> {
+            if (subscribers.remove(connection)) {
+                subscriptionCount.decrementAndGet();
+            }
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private boolean permits(Connection connection, String topic) {
+        if (connection.roles.contains(ROLE_ADMIN)) {
+            return true;
+        }
+        String kind = topic.substring(0, topic.indexOf(':'));
+        String value = topic.substring(kind.length() + 1);
+        if (connection.roles.contains(ROLE_AGENT)) {
+            return !AGENT.equals(kind) || value.equals(connection.userId);
+        }
+        return connection.roles.contains(ROLE_OWNER) && LEAD.equals(kind);
+    }
+
+    private void deliver(String topic, ChangeEvent event) {
+        Set<Connection> subscribers = topics.get(topic);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        String message = write(new PushMessage(PushMessage.EVENT, topic, null, event));
+        for (Connection connection : subscribers) {
+            if (connection.receives(event) && offer(connection, message)) {
+                delivered.increment();
+            }
+        }
+    }
+
+    private void reply(Connection connection, String type, String topic, String reason) {
+        offer(connection, write(new PushMessage(type, topic, reason, null)));
+    }
+
+    private boolean offer(Connection connection, String message) {
+        Sinks.EmitResult result;
+        synchronized (connection) {
+            result = connection.sink.tryEmitNext(message);
+        }
+        if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+            slowConsumers.increment();
+            log.warn("~~> push connection for {} overflowed its send buffer, disconnecting", connection.userId);
+            disconnect(connection, CloseStatus.SERVICE_OVERLOAD.withReason("slow consumer"));
+        }
+        return result.isSuccess();
+    }
+
+    public void disconnect(Connection connection, CloseStatus status) {
+        connection.session.close(status).subscribe();
+        close(connection);
+    }
+
+    private void reject(String reason) {
+        meterRegistry.counter("gateway.push.rejected", "reason", reason).increment();
+    }
+
+    private String write(PushMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize push message", e);
+        }
+    }
+
+    public static final class Connection {
+        private final WebSocketSession session;
+        private final String userId;
+        private final Set<String> roles;
+        private final Sinks.Many<String> sink;
+        private final Set<String> topics = ConcurrentHashMap.newKeySet();
+
+        private Connection(WebSocketSession session, String userId, Set<String> roles, Sinks.Many<String> sink) {
+            this.session = session;
+            this.userId = userId;
+            this.roles = roles;
+            this.sink = sink;
+        }
+
+        public Flux<String> outbound() {
+            return sink.asFlux();
+        }
+
+        private boolean receives(ChangeEvent event) {
+            return roles.contains(ROLE_ADMIN) || roles.contains(ROLE_AGENT) || userId.equals(event.userId());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package edu.hcmute.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+public class RingBuffer<E> {
+    private final Object[] entries;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public RingBuffer(int capacity, Supplier<E> factory) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.entries = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            entries[i] = factory.get();
+            sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+        return entries.length;
+    }
+
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, entries.length));
+    }
+
+    public long tryClaim() {
+        long position = tail.get();
+        while (true) {
+            long difference = sequences.getAcquire(index(position)) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (difference < 0) {
+                return -1L;
+            }
+            position = tail.get();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[index(sequence)];
+    }
+
+    public void publish(long sequence) {
+        sequences.setRelease(index(sequence), sequence + 1);
+    }
+
+    public boolean discardOldest() {
+        long position = claimHead();
+        if (position < 0) {
+            return false;
+        }
+        sequences.setRelease(index(position), position + entries.length);
+        return true;
+    }
+
+    public int drain(Consumer<E> handler, int max) {
+        int drained = 0;
+        while (drained < max) {
+            long position = claimHead();
+            if (position < 0) {
+                break;
+            }
+            try {
+                handler.accept(get(position));
+            } finally {
+                sequences.setRelease(index(position), position + entries.length);
+            }
+            drained++;
+        }
+        return drained;
+    }
+
+    private long claimHead() {
+        long position = head.get();
+        while (true) {
+            long difference = sequences.getAcquire(index(position)) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (difference < 0) {
+                return -1L;
+            }
+            position = head.get();
+        }
+    }
+
+    private int index(long sequence) {
+        return (int) sequence & mask;
+    }
+}
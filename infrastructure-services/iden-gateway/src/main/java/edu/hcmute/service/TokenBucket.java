@@ -0,0 +1,31 @@
+package edu.hcmute.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenBucket {
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(long capacity, double refillPerSecond) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity must be >= 1 and refillPerSecond must be > 0");
+        }
+        this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+    }
+
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long start = tat == Long.MIN_VALUE ? nowNanos : Math.max(tat, nowNanos);
+            long waitNanos = start - burstToleranceNanos - nowNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(tat, start + emissionIntervalNanos)) {
+                return 0L;
+            }
+        }
+    }
+}
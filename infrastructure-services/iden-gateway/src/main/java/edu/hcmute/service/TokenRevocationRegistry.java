@@ -0,0 +1,113 @@
+package edu.hcmute.service;
+
+import edu.hcmute.config.RevocationProperties;
+import edu.hcmute.dto.RevocationEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@Service
+@Slf4j
+public class TokenRevocationRegistry {
+    private final RevocationProperties properties;
+    private final Clock clock;
+    private final long partitionSeconds;
+    private final ConcurrentSkipListMap<Long, Partition> partitions = new ConcurrentSkipListMap<>();
+    private final Counter rejected;
+
+    @Autowired
+    public TokenRevocationRegistry(RevocationProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Clock.systemUTC());
+    }
+
+    TokenRevocationRegistry(RevocationProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.partitionSeconds = Math.max(1, properties.getPartitionSize().toSeconds());
+        this.rejected = Counter.builder("gateway.revocation.rejected")
+                .description("Requests rejected because their token or session was revoked")
+                .register(meterRegistry);
+        Gauge.builder("gateway.revocation.entries", this, TokenRevocationRegistry::size)
+                .description("Revoked token ids and sessions currently tracked")
+                .register(meterRegistry);
+        Gauge.builder("gateway.revocation.partitions", partitions, Map::size)
+                .register(meterRegistry);
+    }
+
+    public void revoke(RevocationEvent event) {
+        long now = clock.instant().getEpochSecond();
+        if (event.expiresAt() <= now) {
+            return;
+        }
+        long latest = now + properties.getMaxTokenLifetime().toSeconds();
+        long bucket = Math.min(event.expiresAt(), latest) / partitionSeconds;
+        partitions.computeIfAbsent(bucket, key -> new Partition(properties.getExpectedEntriesPerPartition(),
+                        properties.getFalsePositiveRate()))
+                .add(event.type() + ':' + event.value());
+        evictExpired(now);
+    }
+
+    public boolean isRevoked(String jti, String sid) {
+        if (partitions.isEmpty()) {
+            return false;
+        }
+        long now = clock.instant().getEpochSecond();
+        long currentBucket = now / partitionSeconds;
+        if (partitions.firstKey() < currentBucket) {
+            evictExpired(now);
+        }
+        boolean revoked = contains(RevocationEvent.JTI, jti, currentBucket) || contains(RevocationEvent.SID, sid, currentBucket);
+        if (revoked) {
+            rejected.increment();
+        }
+        return revoked;
+    }
+
+    public int size() {
+        return partitions.values().stream().mapToInt(partition -> partition.exact.size()).sum();
+    }
+
+    private boolean contains(String type, String value, long currentBucket) {
+        if (value == null) {
+            return false;
+        }
+        String key = type + ':' + value;
+        for (Partition partition : partitions.tailMap(currentBucket, true).values()) {
+            if (partition.bloom.mightContain(key) && partition.exact.contains(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void evictExpired(long now) {
+        Map<Long, Partition> expired = partitions.headMap(now / partitionSeconds);
+        if (!expired.isEmpty()) {
+            log.info("~~> dropping {} expired revocation partitions", expired.size());
+            expired.clear();
+        }
+    }
+
+    private static final class Partition {
+        private final BloomFilter bloom;
+        private final Set<String> exact = ConcurrentHashMap.newKeySet();
+
+        private Partition(int expectedEntries, double falsePositiveRate) {
+            this.bloom = new BloomFilter(expectedEntries, falsePositiveRate);
+        }
+
+        private void add(String key) {
+            exact.add(key);
+            bloom.add(key);
+        }
+    }
+}
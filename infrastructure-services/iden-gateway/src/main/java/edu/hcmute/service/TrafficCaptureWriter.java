@@ -0,0 +1,237 @@
+package edu.hcmute.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import edu.hcmute.config.TrafficCaptureProperties;
+import edu.hcmute.dto.CapturedExchange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class TrafficCaptureWriter implements SmartLifecycle {
+    private static final int BATCH_SIZE = 256;
+    private static final TextNode REDACTED = TextNode.valueOf("[REDACTED]");
+    private final TrafficCaptureProperties properties;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<CapturedExchange> queue;
+    private final Set<String> redactFields;
+    private final Counter written;
+    private final Counter dropped;
+    private volatile Thread writerThread;
+    private volatile boolean running;
+    private OutputStream out;
+    private long fileSize;
+
+    public TrafficCaptureWriter(TrafficCaptureProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.redactFields = properties.getRedactFields().stream()
+                .map(TrafficCaptureWriter::normalize)
+                .collect(Collectors.toUnmodifiableSet());
+        this.written = Counter.builder("gateway.capture.written").register(meterRegistry);
+        this.dropped = Counter.builder("gateway.capture.dropped")
+                .description("Captured exchanges dropped because the capture queue was full")
+                .register(meterRegistry);
+    }
+
+    public void submit(CapturedExchange exchange) {
+        if (!queue.offer(exchange)) {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        log.info("### Capturing {}% of gateway traffic to {} ###", properties.getSampleRate() * 100, properties.getFile());
+        running = true;
+        writerThread = new Thread(this::drain, "gateway-capture-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain() {
+        List<CapturedExchange> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                CapturedExchange first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (IOException e) {
+                log.error("~~> failed to write traffic capture: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+        closeQuietly();
+    }
+
+    private void write(List<CapturedExchange> batch) throws IOException {
+        for (CapturedExchange exchange : batch) {
+            byte[] line = objectMapper.writeValueAsBytes(redactBodies(exchange));
+            if (out == null) {
+                open();
+            }
+            if (fileSize > 0 && fileSize + line.length + 1 > properties.getMaxFileSize().toBytes()) {
+                rotate();
+            }
+            out.write(line);
+            out.write('\n');
+            fileSize += line.length + 1;
+        }
+        out.flush();
+        written.increment(batch.size());
+    }
+
+    CapturedExchange redactBodies(CapturedExchange exchange) {
+        if (exchange.requestBody() == null && exchange.responseBody() == null) {
+            return exchange;
+        }
+        return new CapturedExchange(
+                exchange.timestamp(),
+                exchange.route(),
+                exchange.method(),
+                exchange.path(),
+                exchange.query(),
+                exchange.requestHeaders(),
+                redactBody(exchange.requestBody(), exchange.requestHeaders()),
+                exchange.status(),
+                exchange.responseHeaders(),
+                redactBody(exchange.responseBody(), exchange.responseHeaders()),
+                exchange.latencyMicros());
+    }
+
+    private byte[] redactBody(byte[] body, Map<String, List<String>> headers) {
+        if (body == null || body.length == 0) {
+            return body;
+        }
+        if (!isJson(headers)) {
+            return null;
+        }
+        try {
+            JsonNode root = objectMapper.readTree(body);
+            return redact(root) ? objectMapper.writeValueAsBytes(root) : body;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private boolean redact(JsonNode node) {
+        boolean redacted = false;
+        if (node instanceof ObjectNode object) {
+            for (Map.Entry<String, JsonNode> field : object.properties()) {
+                if (redactFields.contains(normalize(field.getKey()))) {
+                    field.setValue(REDACTED);
+                    redacted = true;
+                } else {
+                    redacted |= redact(field.getValue());
+                }
+            }
+        } else if (node instanceof ArrayNode array) {
+            for (JsonNode element : array) {
+                redacted |= redact(element);
+            }
+        }
+        return redacted;
+    }
+
+    private static boolean isJson(Map<String, List<String>> headers) {
+        return headers.entrySet().stream()
+                .filter(header -> HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty())
+                .map(header -> header.getValue().get(0))
+                .anyMatch(contentType -> {
+                    try {
+                        MediaType mediaType = MediaType.parseMediaType(contentType);
+                        return mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)
+                                || (mediaType.getSubtype() != null && mediaType.getSubtype().endsWith("+json"));
+                    } catch (InvalidMediaTypeException e) {
+                        return false;
+                    }
+                });
+    }
+
+    private static String normalize(String field) {
+        return field.replace("_", "").replace("-", "").toLowerCase(Locale.ROOT);
+    }
+
+    private void open() throws IOException {
+        Path file = Path.of(properties.getFile()).toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        fileSize = Files.size(file);
+    }
+
+    private void rotate() throws IOException {
+        closeQuietly();
+        Path file = Path.of(properties.getFile()).toAbsolutePath();
+        Path rotated = file.resolveSibling(file.getFileName() + "." + System.currentTimeMillis());
+        Files.move(file, rotated);
+        log.info("~~> rotated traffic capture to {}", rotated);
+        open();
+    }
+
+    private void closeQuietly() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.warn("~~> failed to close traffic capture: {}", e.getMessage());
+            }
+            out = null;
+        }
+    }
+}
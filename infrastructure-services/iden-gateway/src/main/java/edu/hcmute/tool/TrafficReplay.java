@@ -0,0 +1,227 @@
+package edu.hcmute.tool;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.hcmute.dto.CapturedExchange;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TrafficReplay {
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            "host", "connection", "content-length", "expect", "upgrade", "transfer-encoding", "keep-alive");
+    private static final String REDACTED = "[REDACTED]";
+    private static final int MAX_REPORTED_DIFFS = 20;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Map<String, RouteStats> stats = new TreeMap<>();
+    private final List<String> diffs = Collections.synchronizedList(new ArrayList<>());
+    private final String target;
+    private final double speed;
+    private final int concurrency;
+    private final Semaphore permits;
+    private final Map<String, String> extraHeaders;
+    private final Set<String> ignoredFields;
+
+    public TrafficReplay(String target, double speed, int concurrency, Map<String, String> extraHeaders, Set<String> ignoredFields) {
+        this.target = target.endsWith("/") ? target.substring(0, target.length() - 1) : target;
+        this.speed = speed;
+        this.concurrency = concurrency;
+        this.permits = new Semaphore(concurrency);
+        this.extraHeaders = extraHeaders;
+        this.ignoredFields = ignoredFields;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if ("--header".equals(args[i])) {
+                String[] header = args[i + 1].split("=", 2);
+                headers.put(header[0], header.length > 1 ? header[1] : "");
+            } else {
+                options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+            }
+        }
+        if (!options.containsKey("file") || !options.containsKey("target")) {
+            System.err.println("usage: TrafficReplay --file <capture.jsonl> --target <http://host:port> [--speed 1.0]"
+                    + " [--concurrency 64] [--header Name=Value]... [--ignore-fields id,createdDate]");
+            System.exit(2);
+        }
+        Set<String> ignored = options.containsKey("ignore-fields")
+                ? Set.copyOf(Arrays.asList(options.get("ignore-fields").split(","))) : Set.of();
+        TrafficReplay replay = new TrafficReplay(options.get("target"),
+                Double.parseDouble(options.getOrDefault("speed", "1.0")),
+                Integer.parseInt(options.getOrDefault("concurrency", "64")),
+                headers, ignored);
+        replay.run(Path.of(options.get("file")));
+        replay.report();
+    }
+
+    public void run(Path file) throws IOException, InterruptedException {
+        long firstTimestamp = -1;
+        long replayStart = System.nanoTime();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                CapturedExchange captured = objectMapper.readValue(line, CapturedExchange.class);
+                if (firstTimestamp < 0) {
+                    firstTimestamp = captured.timestamp();
+                }
+                if (speed > 0) {
+                    long dueNanos = (long) (TimeUnit.MILLISECONDS.toNanos(captured.timestamp() - firstTimestamp) / speed);
+                    long waitNanos = dueNanos - (System.nanoTime() - replayStart);
+                    if (waitNanos > 0) {
+                        TimeUnit.NANOSECONDS.sleep(waitNanos);
+                    }
+                }
+                permits.acquire();
+                send(captured);
+            }
+        }
+        permits.acquire(concurrency);
+    }
+
+    private void send(CapturedExchange captured) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(target + captured.path() + (captured.query() != null ? "?" + captured.query() : "")))
+                .timeout(Duration.ofSeconds(30))
+                .method(captured.method(), captured.requestBody() != null && captured.requestBody().length > 0
+                        ? HttpRequest.BodyPublishers.ofByteArray(captured.requestBody())
+                        : HttpRequest.BodyPublishers.noBody());
+        captured.requestHeaders().forEach((name, values) -> {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase()) && !extraHeaders.containsKey(name)) {
+                values.stream().filter(value -> !REDACTED.equals(value)).forEach(value -> builder.header(name, value));
+            }
+        });
+        extraHeaders.forEach(builder::header);
+        long start = System.nanoTime();
+        httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    try {
+                        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                        record(captured, response, error, latencyMicros);
+                    } finally {
+                        permits.release();
+                    }
+                });
+    }
+
+    private void record(CapturedExchange captured, HttpResponse<byte[]> response, Throwable error, long latencyMicros) {
+        RouteStats routeStats;
+        synchronized (stats) {
+            routeStats = stats.computeIfAbsent(captured.route(), route -> new RouteStats());
+        }
+        if (error != null) {
+            routeStats.errors.incrementAndGet();
+            addDiff(captured, "error: " + error.getMessage());
+            return;
+        }
+        routeStats.record(latencyMicros, captured.latencyMicros());
+        if (response.statusCode() != captured.status()) {
+            routeStats.statusDiffs.incrementAndGet();
+            addDiff(captured, "status " + captured.status() + " -> " + response.statusCode());
+        } else if (captured.responseBody() != null && !sameBody(captured.responseBody(), response.body())) {
+            routeStats.bodyDiffs.incrementAndGet();
+            addDiff(captured, "body differs (" + captured.responseBody().length + " -> " + response.body().length + " bytes)");
+        }
+    }
+
+    private boolean sameBody(byte[] expected, byte[] actual) {
+        if (Arrays.equals(expected, actual)) {
+            return true;
+        }
+        try {
+            return strip(objectMapper.readTree(expected)).equals(strip(objectMapper.readTree(actual)));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private JsonNode strip(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            object.remove(ignoredFields);
+            object.forEach(this::strip);
+        } else if (node != null && node.isArray()) {
+            node.forEach(this::strip);
+        }
+        return node;
+    }
+
+    private void addDiff(CapturedExchange captured, String message) {
+        if (diffs.size() < MAX_REPORTED_DIFFS) {
+            diffs.add(captured.method() + " " + captured.path() + ": " + message);
+        }
+    }
+
+    public void report() {
+        System.out.printf("%-26s %7s %9s %9s %9s %9s %11s %7s %7s %7s%n",
+                "route", "count", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)", "orig p99", "status", "body", "errors");
+        stats.forEach((route, routeStats) -> System.out.printf("%-26s %7d %9.1f %9.1f %9.1f %9.1f %11.1f %7d %7d %7d%n",
+                route, routeStats.count(), routeStats.percentile(0.5), routeStats.percentile(0.9),
+                routeStats.percentile(0.99), routeStats.percentile(1.0), routeStats.originalPercentile(0.99),
+                routeStats.statusDiffs.get(), routeStats.bodyDiffs.get(), routeStats.errors.get()));
+        if (!diffs.isEmpty()) {
+            System.out.println();
+            System.out.println("first differences:");
+            diffs.forEach(diff -> System.out.println("  " + diff));
+        }
+    }
+
+    private static final class RouteStats {
+        private final List<Long> latencies = new ArrayList<>();
+        private final List<Long> originalLatencies = new ArrayList<>();
+        private final AtomicLong statusDiffs = new AtomicLong();
+        private final AtomicLong bodyDiffs = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        private synchronized void record(long latencyMicros, long originalLatencyMicros) {
+            latencies.add(latencyMicros);
+            originalLatencies.add(originalLatencyMicros);
+        }
+
+        private synchronized int count() {
+            return latencies.size();
+        }
+
+        private synchronized double percentile(double quantile) {
+            return percentile(latencies, quantile);
+        }
+
+        private synchronized double originalPercentile(double quantile) {
+            return percentile(originalLatencies, quantile);
+        }
+
+        private static double percentile(List<Long> values, double quantile) {
+            if (values.isEmpty()) {
+                return 0;
+            }
+            List<Long> sorted = new ArrayList<>(values);
+            Collections.sort(sorted);
+            int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+            return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1))) / 1000.0;
+        }
+    }
+}
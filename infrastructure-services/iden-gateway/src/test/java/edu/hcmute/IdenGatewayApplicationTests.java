@@ -3,7 +3,7 @@ package edu.hcmute;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "picma.internal.token=test-internal-token")
 class IdenGatewayApplicationTests {
     @Test
     void contextLoads() {
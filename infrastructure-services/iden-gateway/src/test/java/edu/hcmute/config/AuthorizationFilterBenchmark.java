@@ -0,0 +1,73 @@
+package edu.hcmute.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorizationFilterBenchmark {
+    @Param({"/picma/admin/quotes/42/accept", "/picma/properties/user/abc", "/picma/owner/dashboard"})
+    private String path;
+    private Collection<GrantedAuthority> authorities;
+    private RouteAuthorizationTable table;
+    private long roleMask;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuthorizationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        authorities = List.of(new SimpleGrantedAuthority("ROLE_OFFLINE_ACCESS"),
+                new SimpleGrantedAuthority("ROLE_UMA_AUTHORIZATION"),
+                new SimpleGrantedAuthority("ROLE_OWNER"));
+        table = new RouteAuthorizationTable();
+        roleMask = table.roleMask(authorities);
+    }
+
+    @Benchmark
+    public boolean legacyMapScan() {
+        for (Map.Entry<String, String> entry : RouteAuthorizationTable.PATH_ROLE_MAP.entrySet()) {
+            if (path.startsWith(entry.getKey())) {
+                String requiredRole = entry.getValue();
+                boolean granted = authorities.stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .anyMatch(a -> a.endsWith(requiredRole) || a.equalsIgnoreCase(requiredRole));
+                if (!granted) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Benchmark
+    public boolean trieBitset() {
+        return RouteAuthorizationTable.isGranted(roleMask, table.requiredMask(path));
+    }
+}
@@ -0,0 +1,103 @@
+package edu.hcmute.config;
+
+import edu.hcmute.filter.StreamConnectionFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedMultiValueMap;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashLoadBalancerTests {
+    private static final String SERVICE_ID = "PROPERTY-LEAD-SERVICE";
+    private final ServiceInstance fallback = new DefaultServiceInstance("fallback", SERVICE_ID, "10.0.0.99", 8099, false);
+    private final ReactorLoadBalancer<ServiceInstance> delegate = request -> Mono.just(new DefaultResponse(fallback));
+    private final List<ServiceInstance> instances = new ArrayList<>(List.of(
+            instance(1), instance(2), instance(3)));
+
+    @Test
+    void routesTheSameHashKeyToTheSameInstance() {
+        ConsistentHashLoadBalancer loadBalancer = loadBalancer();
+
+        for (int i = 0; i < 100; i++) {
+            ServiceInstance first = choose(loadBalancer, "user-" + i);
+            for (int repeat = 0; repeat < 3; repeat++) {
+                assertThat(choose(loadBalancer, "user-" + i)).isEqualTo(first);
+            }
+            assertThat(first).isNotEqualTo(fallback);
+        }
+    }
+
+    @Test
+    void keepsUnaffectedKeysStickyWhenMembershipChanges() {
+        Map<String, ServiceInstance> before = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            before.put("user-" + i, choose(loadBalancer(), "user-" + i));
+        }
+        instances.add(instance(4));
+        ConsistentHashLoadBalancer grown = loadBalancer();
+
+        before.forEach((key, owner) -> {
+            ServiceInstance now = choose(grown, key);
+            assertThat(now).isIn(owner, instance(4));
+        });
+    }
+
+    @Test
+    void delegatesRequestsWithoutAHashKey() {
+        Response<ServiceInstance> response = loadBalancer().choose(request(null)).block();
+
+        assertThat(response.getServer()).isEqualTo(fallback);
+    }
+
+    @Test
+    void delegatesWhenNoInstancesAreAvailable() {
+        instances.clear();
+
+        assertThat(choose(loadBalancer(), "user-1")).isEqualTo(fallback);
+    }
+
+    private ConsistentHashLoadBalancer loadBalancer() {
+        ServiceInstanceListSupplier supplier = ServiceInstanceListSuppliers.from(SERVICE_ID,
+                instances.toArray(ServiceInstance[]::new));
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("supplier", supplier));
+        return new ConsistentHashLoadBalancer(beanFactory.getBeanProvider(ServiceInstanceListSupplier.class), delegate, 128);
+    }
+
+    private static ServiceInstance choose(ConsistentHashLoadBalancer loadBalancer, String hashKey) {
+        return loadBalancer.choose(request(hashKey)).block().getServer();
+    }
+
+    private static Request<RequestDataContext> request(String hashKey) {
+        Map<String, Object> attributes = new HashMap<>();
+        if (hashKey != null) {
+            attributes.put(StreamConnectionFilter.HASH_KEY_ATTR, hashKey);
+        }
+        RequestData requestData = new RequestData(HttpMethod.GET, URI.create("lb://" + SERVICE_ID + "/internal/events/stream"),
+                new HttpHeaders(), new LinkedMultiValueMap<>(), attributes);
+        return new DefaultRequest<>(new RequestDataContext(requestData));
+    }
+
+    private static ServiceInstance instance(int id) {
+        return new DefaultServiceInstance("lead-" + id, SERVICE_ID, "10.0.0." + id, 8080 + id, false);
+    }
+}
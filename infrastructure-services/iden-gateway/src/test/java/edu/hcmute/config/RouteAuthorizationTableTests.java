@@ -0,0 +1,100 @@
+package edu.hcmute.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RouteAuthorizationTableTests {
+    private final RouteAuthorizationTable table = new RouteAuthorizationTable();
+
+    @Test
+    void unprotectedPathsRequireNothing() {
+        assertThat(table.requiredMask("/picma/properties/user/abc")).isZero();
+        assertThat(table.requiredMask("/picma/admin")).isZero();
+        assertThat(table.requiredMask("/picma/administrators/1")).isZero();
+        assertThat(table.requiredMask("")).isZero();
+        assertThat(RouteAuthorizationTable.isGranted(0L, table.requiredMask("/auth/login"))).isTrue();
+    }
+
+    @Test
+    void grantsOnlyTheRoleOwningThePrefix() {
+        long required = table.requiredMask("/picma/admin/quotes/42/accept");
+
+        assertThat(RouteAuthorizationTable.isGranted(table.roleMask(authorities("ROLE_ADMIN")), required)).isTrue();
+        assertThat(RouteAuthorizationTable.isGranted(table.roleMask(authorities("ROLE_OWNER", "ROLE_AGENT")), required)).isFalse();
+        assertThat(RouteAuthorizationTable.isGranted(0L, required)).isFalse();
+    }
+
+    @Test
+    void roleMaskMatchesPrefixedAndCaseInsensitiveAuthorities() {
+        assertThat(table.roleMask(authorities("ROLE_OWNER"))).isEqualTo(table.roleMask(authorities("owner")));
+        assertThat(table.roleMask(authorities("ROLE_OFFLINE_ACCESS", "ROLE_UMA_AUTHORIZATION"))).isZero();
+    }
+
+    @Test
+    void nestedPrefixesRequireEveryMatchedRole() {
+        Map<String, String> pathRoles = new LinkedHashMap<>();
+        pathRoles.put("/reports/", "ANALYST");
+        pathRoles.put("/reports/finance/", "FINANCE");
+        RouteAuthorizationTable nested = new RouteAuthorizationTable(pathRoles);
+        long required = nested.requiredMask("/reports/finance/q3");
+
+        assertThat(RouteAuthorizationTable.isGranted(nested.roleMask(authorities("ROLE_FINANCE")), required)).isFalse();
+        assertThat(RouteAuthorizationTable.isGranted(nested.roleMask(authorities("ROLE_ANALYST", "ROLE_FINANCE")), required)).isTrue();
+        assertThat(RouteAuthorizationTable.isGranted(nested.roleMask(authorities("ROLE_ANALYST")),
+                nested.requiredMask("/reports/sales"))).isTrue();
+    }
+
+    @Test
+    void agreesWithPrefixScanOfThePathRoleMap() {
+        List<String> paths = List.of("/picma/admin/quotes/42/accept", "/picma/agent/leads", "/picma/owner/dashboard",
+                "/picma/properties/user/abc", "/picma/admin", "/picma/ownerx/1", "/auth/login");
+        List<List<String>> roleSets = List.of(List.of(), List.of("ROLE_ADMIN"), List.of("ROLE_AGENT"),
+                List.of("ROLE_OWNER", "ROLE_OFFLINE_ACCESS"), List.of("ROLE_ADMIN", "ROLE_AGENT", "ROLE_OWNER"));
+        for (String path : paths) {
+            for (List<String> roles : roleSets) {
+                List<GrantedAuthority> granted = authorities(roles.toArray(String[]::new));
+                assertThat(RouteAuthorizationTable.isGranted(table.roleMask(granted), table.requiredMask(path)))
+                        .as("%s with %s", path, roles)
+                        .isEqualTo(prefixScan(path, granted));
+            }
+        }
+    }
+
+    @Test
+    void rejectsMoreRolesThanFitInTheMask() {
+        Map<String, String> pathRoles = new LinkedHashMap<>();
+        for (int i = 0; i <= Long.SIZE; i++) {
+            pathRoles.put("/r" + i + "/", "ROLE" + i);
+        }
+
+        assertThatThrownBy(() -> new RouteAuthorizationTable(pathRoles)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static boolean prefixScan(String path, List<GrantedAuthority> authorities) {
+        for (Map.Entry<String, String> entry : RouteAuthorizationTable.PATH_ROLE_MAP.entrySet()) {
+            if (path.startsWith(entry.getKey()) && authorities.stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .noneMatch(a -> a.endsWith(entry.getValue()) || a.equalsIgnoreCase(entry.getValue()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<GrantedAuthority> authorities(String... names) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (String name : names) {
+            authorities.add(new SimpleGrantedAuthority(name));
+        }
+        return authorities;
+    }
+}
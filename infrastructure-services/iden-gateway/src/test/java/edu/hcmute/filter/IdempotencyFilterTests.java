@@ -0,0 +1,195 @@
+package edu.hcmute.filter;
+
+import edu.hcmute.config.IdempotencyProperties;
+import edu.hcmute.service.Hashing;
+import edu.hcmute.service.InMemoryIdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTests {
+    private static final String ROUTE_ID = "property-quote-service";
+    private static final String BODY = "{\"leadId\":7}";
+    private final Route route = Route.async()
+            .id(ROUTE_ID)
+            .uri("lb://PROPERTY-QUOTE-SERVICE")
+            .predicate(exchange -> true)
+            .build();
+    private final AtomicInteger forwarded = new AtomicInteger();
+    private IdempotencyProperties properties;
+    private InMemoryIdempotencyStore store;
+    private MeterRegistry meterRegistry;
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new IdempotencyProperties();
+        properties.setRoutes(List.of(ROUTE_ID));
+        meterRegistry = new SimpleMeterRegistry();
+        store = new InMemoryIdempotencyStore(100, meterRegistry);
+        filter = new IdempotencyFilter(properties, store, meterRegistry);
+    }
+
+    @Test
+    void replaysTheStoredResponseForARepeatedKey() {
+        MockServerWebExchange first = post("/picma/quotes", "key-1");
+        filter.filter(first, respondWith(HttpStatus.CREATED)).block();
+        MockServerWebExchange retry = post("/picma/quotes", "key-1");
+        filter.filter(retry, respondWith(HttpStatus.CREATED)).block();
+
+        assertThat(forwarded).hasValue(1);
+        assertThat(retry.getResponse().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getResponse().getBodyAsString().block()).isEqualTo("quote-1");
+        assertThat(retry.getResponse().getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(meterRegistry.get("gateway.idempotency.replays").tag("route", ROUTE_ID).counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void forwardsDistinctKeysAndPathsSeparately() {
+        filter.filter(post("/picma/quotes", "key-1"), respondWith(HttpStatus.CREATED)).block();
+        filter.filter(post("/picma/quotes", "key-2"), respondWith(HttpStatus.CREATED)).block();
+        filter.filter(post("/picma/quotes/7/accept", "key-1"), respondWith(HttpStatus.OK)).block();
+
+        assertThat(forwarded).hasValue(3);
+    }
+
+    @Test
+    void rejectsConcurrentDuplicateWhileTheFirstIsInFlight() {
+        String key = IdempotencyFilter.storageKey(ROUTE_ID, "", "POST", "/picma/quotes", "key-1");
+        store.reserve(key, Hashing.sha256(BODY.getBytes(StandardCharsets.UTF_8)), Duration.ofSeconds(30)).block();
+        MockServerWebExchange duplicate = post("/picma/quotes", "key-1");
+
+        filter.filter(duplicate, respondWith(HttpStatus.CREATED)).block();
+
+        assertThat(forwarded).hasValue(0);
+        assertThat(duplicate.getResponse().getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(duplicate.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    @Test
+    void rejectsAReplayWithADifferentBody() {
+        filter.filter(post("/picma/quotes", "key-1"), respondWith(HttpStatus.CREATED)).block();
+        MockServerWebExchange changed = post("/picma/quotes", "key-1", "{\"leadId\":8}");
+
+        filter.filter(changed, respondWith(HttpStatus.CREATED)).block();
+
+        assertThat(forwarded).hasValue(1);
+        assertThat(changed.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(meterRegistry.get("gateway.idempotency.mismatches").tag("route", ROUTE_ID).counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void forwardsTheBufferedBodyUpstream() {
+        AtomicReference<String> upstreamBody = new AtomicReference<>();
+        GatewayFilterChain chain = exchange -> DataBufferUtils.join(exchange.getRequest().getBody())
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .doOnNext(upstreamBody::set)
+                .then(respondWith(HttpStatus.CREATED).filter(exchange));
+
+        filter.filter(post("/picma/quotes", "key-1"), chain).block();
+
+        assertThat(upstreamBody).hasValue(BODY);
+    }
+
+    @Test
+    void rejectsRequestBodiesAboveTheLimit() {
+        properties.setMaxRequestBodySize(DataSize.ofBytes(8));
+        MockServerWebExchange exchange = post("/picma/quotes", "key-1");
+
+        filter.filter(exchange, respondWith(HttpStatus.CREATED)).block();
+
+        assertThat(forwarded).hasValue(0);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @Test
+    void storageKeyHasAFixedLength() {
+        String shortKey = IdempotencyFilter.storageKey(ROUTE_ID, "u", "POST", "/q", "k");
+        String longKey = IdempotencyFilter.storageKey(ROUTE_ID, "user-".repeat(50), "POST",
+                "/picma/quotes/" + "7/".repeat(300), "k".repeat(properties.getMaxKeyLength()));
+
+        assertThat(shortKey).hasSize(43);
+        assertThat(longKey).hasSize(43).isNotEqualTo(shortKey);
+    }
+
+    @Test
+    void releasesTheKeyAfterAServerError() {
+        filter.filter(post("/picma/quotes", "key-1"), respondWith(HttpStatus.SERVICE_UNAVAILABLE)).block();
+        MockServerWebExchange retry = post("/picma/quotes", "key-1");
+        filter.filter(retry, respondWith(HttpStatus.CREATED)).block();
+
+        assertThat(forwarded).hasValue(2);
+        assertThat(retry.getResponse().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getResponse().getHeaders().containsKey("Idempotent-Replayed")).isFalse();
+    }
+
+    @Test
+    void rejectsBlankAndOversizedKeys() {
+        MockServerWebExchange blank = post("/picma/quotes", " ");
+        filter.filter(blank, respondWith(HttpStatus.CREATED)).block();
+        MockServerWebExchange oversized = post("/picma/quotes", "k".repeat(properties.getMaxKeyLength() + 1));
+        filter.filter(oversized, respondWith(HttpStatus.CREATED)).block();
+
+        assertThat(forwarded).hasValue(0);
+        assertThat(blank.getResponse().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(oversized.getResponse().getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void ignoresMethodsThatAreNotConfigured() {
+        for (int i = 0; i < 2; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/picma/quotes/7")
+                    .header(IdempotencyProperties.HEADER, "key-1"));
+            exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+            filter.filter(exchange, respondWith(HttpStatus.OK)).block();
+        }
+
+        assertThat(forwarded).hasValue(2);
+    }
+
+    private GatewayFilterChain respondWith(HttpStatus status) {
+        return exchange -> {
+            int call = forwarded.incrementAndGet();
+            exchange.getResponse().setStatusCode(status);
+            exchange.getResponse().getHeaders().setContentType(MediaType.TEXT_PLAIN);
+            DataBuffer body = exchange.getResponse().bufferFactory()
+                    .wrap(("quote-" + call).getBytes(StandardCharsets.UTF_8));
+            return exchange.getResponse().writeWith(Mono.just(body));
+        };
+    }
+
+    private MockServerWebExchange post(String path, String idempotencyKey) {
+        return post(path, idempotencyKey, BODY);
+    }
+
+    private MockServerWebExchange post(String path, String idempotencyKey, String body) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post(path)
+                .header(IdempotencyProperties.HEADER, idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+}
@@ -0,0 +1,132 @@
+package edu.hcmute.filter;
+
+import edu.hcmute.config.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTests {
+    private static final String ROUTE_ID = "property-lead-service";
+    private static final String PROXY = "10.0.0.1";
+    private final Route route = Route.async()
+            .id(ROUTE_ID)
+            .uri("lb://PROPERTY-LEAD-SERVICE")
+            .predicate(exchange -> true)
+            .build();
+    private final AtomicInteger forwarded = new AtomicInteger();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.incrementAndGet();
+        return Mono.empty();
+    };
+    private RateLimitProperties properties;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        RateLimitProperties.Limit anonymous = new RateLimitProperties.Limit();
+        anonymous.setCapacity(1);
+        anonymous.setRefillPerSecond(0.001);
+        properties.getRoles().put(RateLimitProperties.ANONYMOUS, anonymous);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void rejectsAnonymousCallerOverLimitWithRetryAfter() {
+        RateLimitFilter filter = new RateLimitFilter(properties, null, meterRegistry);
+        filter.filter(exchange("203.0.113.7", null), chain).block();
+        MockServerWebExchange rejected = exchange("203.0.113.7", null);
+        filter.filter(rejected, chain).block();
+
+        assertThat(forwarded).hasValue(1);
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotNull();
+    }
+
+    @Test
+    void keysAnonymousCallersOnForwardedAddressBehindTrustedProxy() {
+        properties.setTrustedProxyHops(1);
+        RateLimitFilter filter = new RateLimitFilter(properties, null, meterRegistry);
+        filter.filter(exchange(PROXY, "198.51.100.1"), chain).block();
+        filter.filter(exchange(PROXY, "198.51.100.2"), chain).block();
+        MockServerWebExchange repeated = exchange(PROXY, "198.51.100.1");
+        filter.filter(repeated, chain).block();
+
+        assertThat(forwarded).hasValue(2);
+        assertThat(repeated.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void onlyTrustsTheConfiguredNumberOfHops() {
+        properties.setTrustedProxyHops(1);
+        RateLimitFilter filter = new RateLimitFilter(properties, null, meterRegistry);
+        filter.filter(exchange(PROXY, "192.0.2.66, 198.51.100.1"), chain).block();
+        MockServerWebExchange spoofed = exchange(PROXY, "192.0.2.99, 198.51.100.1");
+        filter.filter(spoofed, chain).block();
+
+        assertThat(forwarded).hasValue(1);
+        assertThat(spoofed.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void ignoresForwardedHeaderWithoutTrustedProxies() {
+        RateLimitFilter filter = new RateLimitFilter(properties, null, meterRegistry);
+        filter.filter(exchange(PROXY, "198.51.100.1"), chain).block();
+        MockServerWebExchange spoofed = exchange(PROXY, "198.51.100.2");
+        filter.filter(spoofed, chain).block();
+
+        assertThat(forwarded).hasValue(1);
+        assertThat(spoofed.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void countsRejectionsOnOneMeterPerRouteAndRole() {
+        RateLimitFilter filter = new RateLimitFilter(properties, null, meterRegistry);
+        for (int i = 0; i < 4; i++) {
+            filter.filter(exchange("203.0.113.7", null), chain).block();
+        }
+
+        assertThat(meterRegistry.find("gateway.ratelimit.rejected").counters()).hasSize(1);
+        assertThat(meterRegistry.get("gateway.ratelimit.rejected")
+                .tag("route", ROUTE_ID)
+                .tag("role", RateLimitProperties.ANONYMOUS)
+                .counter()
+                .count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void passesThroughWhenDisabled() {
+        properties.setEnabled(false);
+        RateLimitFilter filter = new RateLimitFilter(properties, null, meterRegistry);
+        for (int i = 0; i < 3; i++) {
+            filter.filter(exchange("203.0.113.7", null), chain).block();
+        }
+
+        assertThat(forwarded).hasValue(3);
+    }
+
+    private MockServerWebExchange exchange(String remoteAddress, String forwardedFor) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/property-lead/stats")
+                .remoteAddress(new InetSocketAddress(remoteAddress, 40000));
+        if (forwardedFor != null) {
+            request.header("X-Forwarded-For", forwardedFor);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+}
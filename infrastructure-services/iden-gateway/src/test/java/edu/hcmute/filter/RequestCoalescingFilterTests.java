@@ -0,0 +1,157 @@
+package edu.hcmute.filter;
+
+import edu.hcmute.config.RequestCoalescingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescingFilterTests {
+    private static final String ROUTE_ID = "property-lead-service";
+    private final Route route = Route.async()
+            .id(ROUTE_ID)
+            .uri("lb://PROPERTY-LEAD-SERVICE")
+            .predicate(exchange -> true)
+            .build();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Sinks.Empty<Void> upstreamGate = Sinks.empty();
+    private RequestCoalescingProperties.RoutePolicy policy;
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RequestCoalescingProperties properties = new RequestCoalescingProperties();
+        policy = new RequestCoalescingProperties.RoutePolicy();
+        policy.setScope(RequestCoalescingProperties.Scope.ROLE);
+        properties.getRoutes().put(ROUTE_ID, policy);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RequestCoalescingFilter(properties, meterRegistry);
+    }
+
+    @Test
+    void concurrentIdenticalGetsShareOneUpstreamCall() {
+        List<MockServerWebExchange> exchanges = new ArrayList<>();
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            MockServerWebExchange exchange = get("/picma/leads?zip=70000");
+            exchanges.add(exchange);
+            pending.add(send(exchange, "agent-" + i, "ROLE_AGENT"));
+        }
+
+        releaseUpstream(pending);
+
+        assertThat(upstreamCalls).hasValue(1);
+        for (MockServerWebExchange exchange : exchanges) {
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("leads-1");
+        }
+        assertThat(meterRegistry.get("gateway.coalescing.saved").tag("route", ROUTE_ID).counter().count())
+                .isEqualTo(7.0);
+        assertThat(meterRegistry.get("gateway.coalescing.in.flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void differentRoleScopesAreNotCoalesced() {
+        MockServerWebExchange agent = get("/picma/leads?zip=70000");
+        MockServerWebExchange owner = get("/picma/leads?zip=70000");
+        List<CompletableFuture<Void>> pending = List.of(
+                send(agent, "agent-1", "ROLE_AGENT"),
+                send(owner, "owner-1", "ROLE_OWNER"));
+
+        releaseUpstream(pending);
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(List.of(agent.getResponse().getBodyAsString().block(), owner.getResponse().getBodyAsString().block()))
+                .containsExactlyInAnyOrder("leads-1", "leads-2");
+    }
+
+    @Test
+    void differentQueryStringsAreNotCoalesced() {
+        List<CompletableFuture<Void>> pending = List.of(
+                send(get("/picma/leads?zip=70000"), "agent-1", "ROLE_AGENT"),
+                send(get("/picma/leads?zip=70001"), "agent-2", "ROLE_AGENT"),
+                send(get("/picma/leads"), "agent-3", "ROLE_AGENT"));
+
+        releaseUpstream(pending);
+
+        assertThat(upstreamCalls).hasValue(3);
+    }
+
+    @Test
+    void userScopeDoesNotShareResponsesBetweenUsers() {
+        policy.setScope(RequestCoalescingProperties.Scope.USER);
+        List<CompletableFuture<Void>> pending = List.of(
+                send(get("/picma/leads/7"), "agent-1", "ROLE_AGENT"),
+                send(get("/picma/leads/7"), "agent-2", "ROLE_AGENT"),
+                send(get("/picma/leads/7"), "agent-1", "ROLE_AGENT"));
+
+        releaseUpstream(pending);
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void completedCallsAreNotReusedByLaterRequests() {
+        releaseUpstream(List.of());
+        send(get("/picma/leads/7"), "agent-1", "ROLE_AGENT").join();
+        MockServerWebExchange later = get("/picma/leads/7");
+        send(later, "agent-2", "ROLE_AGENT").join();
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(later.getResponse().getBodyAsString().block()).isEqualTo("leads-2");
+    }
+
+    private CompletableFuture<Void> send(MockServerWebExchange exchange, String user, String role) {
+        return filter.filter(exchange, upstream())
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                        new TestingAuthenticationToken(user, null, role)))
+                .toFuture();
+    }
+
+    private void releaseUpstream(List<CompletableFuture<Void>> pending) {
+        upstreamGate.tryEmitEmpty();
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private GatewayFilterChain upstream() {
+        return exchange -> {
+            int call = upstreamCalls.incrementAndGet();
+            return upstreamGate.asMono()
+                    .timeout(Duration.ofSeconds(5))
+                    .then(Mono.defer(() -> {
+                        exchange.getResponse().setStatusCode(HttpStatus.OK);
+                        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                        DataBuffer body = exchange.getResponse().bufferFactory()
+                                .wrap(("leads-" + call).getBytes(StandardCharsets.UTF_8));
+                        return exchange.getResponse().writeWith(Mono.just(body));
+                    }));
+        };
+    }
+
+    private MockServerWebExchange get(String uri) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+}
@@ -0,0 +1,169 @@
+package edu.hcmute.filter;
+
+import edu.hcmute.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheFilterTests {
+    private static final String ROUTE_ID = "property-lead-service";
+    private final Route route = Route.async()
+            .id(ROUTE_ID)
+            .uri("lb://PROPERTY-LEAD-SERVICE")
+            .predicate(exchange -> true)
+            .build();
+    private final List<String> upstreamCalls = new ArrayList<>();
+    private ResponseCacheProperties.RoutePolicy policy;
+    private String upstreamCacheControl;
+    private ResponseCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        policy = new ResponseCacheProperties.RoutePolicy();
+        properties.getRoutes().put(ROUTE_ID, policy);
+        filter = new ResponseCacheFilter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void servesRepeatedGetsFromTheCache() {
+        MockServerWebExchange first = send(MockServerHttpRequest.get("/picma/leads/7"), "agent-1");
+        MockServerWebExchange second = send(MockServerHttpRequest.get("/picma/leads/7"), "agent-1");
+
+        assertThat(upstreamCalls).containsExactly("GET /picma/leads/7");
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getResponse().getBodyAsString().block())
+                .isEqualTo(first.getResponse().getBodyAsString().block())
+                .isEqualTo("body-1");
+        assertThat(second.getResponse().getHeaders().getFirst(HttpHeaders.AGE)).isEqualTo("0");
+    }
+
+    @Test
+    void keepsQueryStringsApart() {
+        send(MockServerHttpRequest.get("/picma/leads?zip=70000"), "agent-1");
+        send(MockServerHttpRequest.get("/picma/leads?zip=70001"), "agent-1");
+        send(MockServerHttpRequest.get("/picma/leads?zip=70000"), "agent-1");
+
+        assertThat(upstreamCalls).hasSize(2);
+    }
+
+    @Test
+    void entriesExpireAfterTheirTtl() throws InterruptedException {
+        policy.setTtl(Duration.ofMillis(100));
+        send(MockServerHttpRequest.get("/picma/leads/7"), "agent-1");
+        send(MockServerHttpRequest.get("/picma/leads/7"), "agent-1");
+
+        Thread.sleep(150);
+        MockServerWebExchange expired = send(MockServerHttpRequest.get("/picma/leads/7"), "agent-1");
+
+        assertThat(upstreamCalls).hasSize(2);
+        assertThat(expired.getResponse().getBodyAsString().block()).isEqualTo("body-2");
+    }
+
+    @Test
+    void upstreamMaxAgeShortensTheTtl() {
+        upstreamCacheControl = "max-age=0";
+        send(MockServerHttpRequest.get("/picma/leads/7"), "agent-1");
+        send(MockServerHttpRequest.get("/picma/leads/7"), "agent-1");
+
+        assertThat(upstreamCalls).hasSize(2);
+    }
+
+    @Test
+    void writeInvalidatesThePathAndItsAncestors() {
+        send(MockServerHttpRequest.get("/picma/leads"), "agent-1");
+        send(MockServerHttpRequest.get("/picma/leads/7"), "agent-1");
+        send(MockServerHttpRequest.get("/picma/leads/8"), "agent-1");
+
+        send(MockServerHttpRequest.put("/picma/leads/7"), "agent-1");
+        upstreamCalls.clear();
+        send(MockServerHttpRequest.get("/picma/leads"), "agent-1");
+        send(MockServerHttpRequest.get("/picma/leads/7"), "agent-1");
+        send(MockServerHttpRequest.get("/picma/leads/8"), "agent-1");
+
+        assertThat(upstreamCalls).containsExactly("GET /picma/leads", "GET /picma/leads/7");
+    }
+
+    @Test
+    void postInvalidatesTheCollection() {
+        send(MockServerHttpRequest.get("/picma/leads?zip=70000"), "agent-1");
+
+        send(MockServerHttpRequest.post("/picma/leads"), "agent-1");
+        upstreamCalls.clear();
+        send(MockServerHttpRequest.get("/picma/leads?zip=70000"), "agent-1");
+
+        assertThat(upstreamCalls).containsExactly("GET /picma/leads");
+    }
+
+    @Test
+    void entriesAreCachedAgainAfterAnInvalidation() {
+        send(MockServerHttpRequest.get("/picma/leads/7"), "agent-1");
+        send(MockServerHttpRequest.delete("/picma/leads/7"), "agent-1");
+        send(MockServerHttpRequest.get("/picma/leads/7"), "agent-1");
+        send(MockServerHttpRequest.get("/picma/leads/7"), "agent-1");
+
+        assertThat(upstreamCalls).containsExactly("GET /picma/leads/7", "DELETE /picma/leads/7", "GET /picma/leads/7");
+    }
+
+    @Test
+    void varyByUserKeepsUsersApart() {
+        policy.setVaryByUser(true);
+        send(MockServerHttpRequest.get("/picma/leads/7"), "agent-1");
+        MockServerWebExchange other = send(MockServerHttpRequest.get("/picma/leads/7"), "agent-2");
+        send(MockServerHttpRequest.get("/picma/leads/7"), "agent-1");
+
+        assertThat(upstreamCalls).hasSize(2);
+        assertThat(other.getResponse().getBodyAsString().block()).isEqualTo("body-2");
+    }
+
+    @Test
+    void noCacheRequestBypassesTheCache() {
+        send(MockServerHttpRequest.get("/picma/leads/7"), "agent-1");
+        send(MockServerHttpRequest.get("/picma/leads/7").header(HttpHeaders.CACHE_CONTROL, "no-cache"), "agent-1");
+
+        assertThat(upstreamCalls).hasSize(2);
+    }
+
+    private MockServerWebExchange send(MockServerHttpRequest.BaseBuilder<?> request, String user) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        filter.filter(exchange, upstream())
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+                        new TestingAuthenticationToken(user, null, "ROLE_AGENT")))
+                .block();
+        return exchange;
+    }
+
+    private GatewayFilterChain upstream() {
+        return exchange -> {
+            upstreamCalls.add(exchange.getRequest().getMethod().name() + ' ' + exchange.getRequest().getURI().getRawPath());
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            if (upstreamCacheControl != null) {
+                exchange.getResponse().getHeaders().setCacheControl(upstreamCacheControl);
+            }
+            DataBuffer body = exchange.getResponse().bufferFactory()
+                    .wrap(("body-" + upstreamCalls.size()).getBytes(StandardCharsets.UTF_8));
+            return exchange.getResponse().writeWith(Mono.just(body));
+        };
+    }
+}
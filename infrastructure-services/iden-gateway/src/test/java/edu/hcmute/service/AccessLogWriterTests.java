@@ -0,0 +1,103 @@
+package edu.hcmute.service;
+
+import edu.hcmute.config.AccessLogProperties;
+import edu.hcmute.filter.RequestTimings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogWriterTests {
+    private static final int CAPACITY = 4;
+    private final ServerHttpRequest request = MockServerHttpRequest.get("/picma/leads").build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AccessLogWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void dropNewestCountsTheEventsThatDidNotFit() throws InterruptedException {
+        writer = startIdle(AccessLogProperties.OverflowPolicy.DROP_NEWEST);
+
+        publish(10);
+
+        assertThat(backlog()).isEqualTo(CAPACITY);
+        assertThat(dropped("drop_newest")).isEqualTo(6.0);
+        assertThat(dropped("drop_oldest")).isZero();
+        writer.stop();
+        assertThat(meterRegistry.get("gateway.access.log.written").counter().count()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void dropOldestCountsTheEventsItEvicted() throws InterruptedException {
+        writer = startIdle(AccessLogProperties.OverflowPolicy.DROP_OLDEST);
+
+        publish(10);
+
+        assertThat(backlog()).isEqualTo(CAPACITY);
+        assertThat(dropped("drop_oldest")).isEqualTo(6.0);
+        assertThat(dropped("drop_newest")).isZero();
+        writer.stop();
+        assertThat(meterRegistry.get("gateway.access.log.written").counter().count()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void ignoresEventsWhileStopped() {
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setEnabled(false);
+        writer = new AccessLogWriter(properties, meterRegistry);
+        writer.start();
+
+        publish(3);
+
+        assertThat(backlog()).isZero();
+        assertThat(dropped("drop_newest")).isZero();
+    }
+
+    // Parks the writer thread for longer than the test runs so the buffer fills deterministically; stop() wakes it.
+    private AccessLogWriter startIdle(AccessLogProperties.OverflowPolicy policy) throws InterruptedException {
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setCapacity(CAPACITY);
+        properties.setOverflowPolicy(policy);
+        properties.setIdleWait(Duration.ofMinutes(1));
+        AccessLogWriter started = new AccessLogWriter(properties, meterRegistry);
+        started.start();
+        Thread thread = writerThread();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (thread.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        return started;
+    }
+
+    private void publish(int count) {
+        for (int i = 0; i < count; i++) {
+            writer.publish(request, "property-lead-service", 200, new RequestTimings());
+        }
+    }
+
+    private double backlog() {
+        return meterRegistry.get("gateway.access.log.backlog").gauge().value();
+    }
+
+    private double dropped(String policy) {
+        return meterRegistry.get("gateway.access.log.dropped").tag("policy", policy).counter().count();
+    }
+
+    private static Thread writerThread() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("gateway-access-log-writer") && thread.isAlive())
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,128 @@
+package edu.hcmute.service;
+
+import edu.hcmute.config.ConcurrencyLimitProperties;
+import edu.hcmute.service.AdaptiveConcurrencyLimiter.Admission;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTests {
+    private static final Duration LONG_WAIT = Duration.ofMinutes(1);
+    private final List<String> admissions = new ArrayList<>();
+
+    @Test
+    void admitsImmediatelyBelowTheLimitAndQueuesAboveIt() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2);
+
+        assertThat(limiter.admit(1, 10, LONG_WAIT).block()).isEqualTo(Admission.ADMITTED);
+        assertThat(limiter.admit(1, 10, LONG_WAIT).block()).isEqualTo(Admission.ADMITTED);
+        AtomicReference<Admission> third = subscribe(limiter.admit(1, 10, LONG_WAIT));
+
+        assertThat(third.get()).isNull();
+        assertThat(limiter.queued()).isEqualTo(1);
+        assertThat(limiter.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void grantsReleasedPermitsToTheHighestPriorityFirstThenInArrivalOrder() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1);
+        limiter.admit(1, 10, LONG_WAIT).block();
+        track(limiter.admit(0, 10, LONG_WAIT), "background");
+        track(limiter.admit(2, 10, LONG_WAIT), "checkout-1");
+        track(limiter.admit(1, 10, LONG_WAIT), "standard");
+        track(limiter.admit(2, 10, LONG_WAIT), "checkout-2");
+
+        for (int i = 0; i < 4; i++) {
+            limiter.cancel();
+        }
+
+        assertThat(admissions).containsExactly("checkout-1", "checkout-2", "standard", "background");
+        assertThat(limiter.queued()).isZero();
+    }
+
+    @Test
+    void higherPriorityArrivalEvictsTheNewestLowestPriorityWaiterFromAFullQueue() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1);
+        limiter.admit(1, 2, LONG_WAIT).block();
+        AtomicReference<Admission> olderBackground = subscribe(limiter.admit(0, 2, LONG_WAIT));
+        AtomicReference<Admission> newerBackground = subscribe(limiter.admit(0, 2, LONG_WAIT));
+
+        AtomicReference<Admission> checkout = subscribe(limiter.admit(2, 2, LONG_WAIT));
+
+        assertThat(newerBackground.get()).isEqualTo(Admission.EVICTED);
+        assertThat(olderBackground.get()).isNull();
+        assertThat(checkout.get()).isNull();
+        assertThat(limiter.queued()).isEqualTo(2);
+        limiter.cancel();
+        assertThat(checkout.get()).isEqualTo(Admission.ADMITTED);
+    }
+
+    @Test
+    void rejectsArrivalsThatCannotOutrankAFullQueue() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1);
+        limiter.admit(1, 1, LONG_WAIT).block();
+        subscribe(limiter.admit(1, 1, LONG_WAIT));
+
+        assertThat(limiter.admit(1, 1, LONG_WAIT).block()).isEqualTo(Admission.QUEUE_FULL);
+        assertThat(limiter.admit(0, 1, LONG_WAIT).block()).isEqualTo(Admission.QUEUE_FULL);
+        assertThat(limiter.dropped()).isEqualTo(2);
+    }
+
+    @Test
+    void timesOutWaitersAndRemovesThemFromTheQueue() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1);
+        limiter.admit(1, 10, LONG_WAIT).block();
+
+        assertThat(limiter.admit(1, 10, Duration.ofMillis(20)).block()).isEqualTo(Admission.TIMED_OUT);
+        assertThat(limiter.queued()).isZero();
+        limiter.cancel();
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void backsOffOnOverloadButNotBelowTheMinimum() {
+        ConcurrencyLimitProperties.Limit settings = settings(10);
+        settings.setMinLimit(8);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(settings);
+
+        limiter.admit(1, 10, LONG_WAIT).block();
+        limiter.release(1_000_000L, true);
+        assertThat(limiter.limit()).isEqualTo(9);
+        for (int i = 0; i < 5; i++) {
+            limiter.admit(1, 10, LONG_WAIT).block();
+            limiter.release(1_000_000L, true);
+        }
+        assertThat(limiter.limit()).isEqualTo(8);
+    }
+
+    private void track(Mono<Admission> admission, String name) {
+        admission.subscribe(result -> {
+            if (result == Admission.ADMITTED) {
+                admissions.add(name);
+            }
+        });
+    }
+
+    private static AtomicReference<Admission> subscribe(Mono<Admission> admission) {
+        AtomicReference<Admission> result = new AtomicReference<>();
+        admission.subscribe(result::set);
+        return result;
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(int limit) {
+        return new AdaptiveConcurrencyLimiter(settings(limit));
+    }
+
+    private static ConcurrencyLimitProperties.Limit settings(int limit) {
+        ConcurrencyLimitProperties.Limit settings = new ConcurrencyLimitProperties.Limit();
+        settings.setInitialLimit(limit);
+        settings.setMinLimit(1);
+        return settings;
+    }
+}
@@ -0,0 +1,56 @@
+package edu.hcmute.service;
+
+import edu.hcmute.config.AdmissionProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionClassifierTests {
+    private final AdmissionClassifier classifier = new AdmissionClassifier(properties());
+
+    @Test
+    void classifiesByFirstMatchingRule() {
+        assertThat(classifier.classify("property-quote-service", "POST", "/picma/quotes/7/accept", "OWNER").name())
+                .isEqualTo("transactional");
+        assertThat(classifier.classify("property-quote-service", "GET", "/picma/quotes/7/accept", "OWNER").name())
+                .isEqualTo("standard");
+        assertThat(classifier.classify("deep-research-service", "POST", "/picma/research", "ADMIN").name())
+                .isEqualTo("background");
+    }
+
+    @Test
+    void treatsMissingRoleAsAnonymous() {
+        assertThat(classifier.classify("property-mgmt-service", "GET", "/picma/properties", null).name())
+                .isEqualTo("anonymous");
+    }
+
+    @Test
+    void fallsBackToTheDefaultTier() {
+        AdmissionClassifier.AdmissionTier tier = classifier.classify("property-lead-service", "GET", "/picma/leads", "AGENT");
+
+        assertThat(tier).isEqualTo(new AdmissionClassifier.AdmissionTier("standard", 1));
+    }
+
+    private static AdmissionProperties properties() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setTiers(List.of(
+                tier("transactional", 3, List.of(), List.of("/picma/quotes/*/accept"), List.of("POST"), List.of()),
+                tier("background", 0, List.of("deep-research-service"), List.of(), List.of(), List.of()),
+                tier("anonymous", 0, List.of(), List.of(), List.of(), List.of("anonymous"))));
+        return properties;
+    }
+
+    private static AdmissionProperties.Tier tier(String name, int priority, List<String> routes, List<String> paths,
+                                                 List<String> methods, List<String> roles) {
+        AdmissionProperties.Tier tier = new AdmissionProperties.Tier();
+        tier.setName(name);
+        tier.setPriority(priority);
+        tier.setRoutes(routes);
+        tier.setPaths(paths);
+        tier.setMethods(methods);
+        tier.setRoles(roles);
+        return tier;
+    }
+}
@@ -0,0 +1,36 @@
+package edu.hcmute.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTests {
+    @Test
+    void neverReportsAnAddedValueAsAbsent() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        IntStream.range(0, 1_000).forEach(i -> filter.add("jti:" + i));
+
+        assertThat(IntStream.range(0, 1_000)).allMatch(i -> filter.mightContain("jti:" + i));
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        assertThat(IntStream.range(0, 1_000)).noneMatch(i -> filter.mightContain("jti:" + i));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("jti:" + i));
+
+        long falsePositives = IntStream.range(10_000, 110_000)
+                .filter(i -> filter.mightContain("jti:" + i))
+                .count();
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+}
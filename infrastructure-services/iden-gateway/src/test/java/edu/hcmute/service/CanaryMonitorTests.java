@@ -0,0 +1,161 @@
+package edu.hcmute.service;
+
+import edu.hcmute.config.CanaryProperties;
+import edu.hcmute.dto.CanaryReport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CanaryMonitorTests {
+    private static final String SERVICE_ID = "PROPERTY-QUOTE-SERVICE";
+    private static final String ROUTE_ID = "property-quote-service";
+    private static final int SAMPLES = 100;
+    private final ServiceInstance canary = instance("quote-canary", 1, true);
+    private final ServiceInstance baseline = instance("quote-1", 2, false);
+    private final List<ServiceInstance> instances = List.of(canary, baseline);
+    private CanaryProperties properties;
+    private MeterRegistry meterRegistry;
+    private CanaryMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CanaryProperties();
+        properties.setMinSamples(SAMPLES);
+        properties.setRoutes(Map.of(ROUTE_ID, 100));
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new CanaryMonitor(properties, meterRegistry);
+        monitor.select(ROUTE_ID, instances, false);
+    }
+
+    @Test
+    void ejectsCanaryWhoseTailLatencyExceedsRatioAndTolerance() {
+        recordCohort(canary, 60, 0);
+        recordCohort(baseline, 20, 0);
+
+        monitor.evaluateAll();
+
+        CanaryReport report = monitor.reports().get(SERVICE_ID);
+        assertThat(report.state()).isEqualTo(CanaryMonitor.EJECTED);
+        assertThat(report.reason()).contains("latency");
+        assertThat(monitor.select(ROUTE_ID, instances, false)).containsExactly(baseline);
+        assertThat(monitor.select(ROUTE_ID, instances, true)).containsExactly(baseline);
+        assertThat(meterRegistry.get("gateway.canary.ejections").tag("service", SERVICE_ID).counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void keepsCanaryWhenLatencyRatioIsExceededWithinTheAbsoluteTolerance() {
+        recordCohort(canary, 10, 0);
+        recordCohort(baseline, 4, 0);
+
+        monitor.evaluateAll();
+
+        assertThat(monitor.reports().get(SERVICE_ID).state()).isEqualTo(CanaryMonitor.OBSERVING);
+        assertThat(monitor.reports().get(SERVICE_ID).evaluatedAt()).isNotNull();
+    }
+
+    @Test
+    void ejectsCanaryWhoseErrorRateRisesBeyondTheAllowedIncrease() {
+        recordCohort(canary, 20, 5);
+        recordCohort(baseline, 20, 1);
+
+        monitor.evaluateAll();
+
+        CanaryReport report = monitor.reports().get(SERVICE_ID);
+        assertThat(report.state()).isEqualTo(CanaryMonitor.EJECTED);
+        assertThat(report.reason()).contains("error rate");
+    }
+
+    @Test
+    void toleratesErrorRateIncreaseWithinTheThreshold() {
+        recordCohort(canary, 20, 2);
+        recordCohort(baseline, 20, 1);
+
+        monitor.evaluateAll();
+
+        assertThat(monitor.reports().get(SERVICE_ID).state()).isEqualTo(CanaryMonitor.OBSERVING);
+    }
+
+    @Test
+    void waitsForMinimumSamplesInBothCohorts() {
+        recordCohort(canary, 500, 50);
+        for (int i = 0; i < SAMPLES - 1; i++) {
+            monitor.record(baseline, TimeUnit.MILLISECONDS.toNanos(20), false);
+        }
+
+        monitor.evaluateAll();
+
+        CanaryReport report = monitor.reports().get(SERVICE_ID);
+        assertThat(report.state()).isEqualTo(CanaryMonitor.OBSERVING);
+        assertThat(report.evaluatedAt()).isNull();
+    }
+
+    @Test
+    void reinstatedCanaryReceivesTrafficAgain() {
+        recordCohort(canary, 60, 0);
+        recordCohort(baseline, 20, 0);
+        monitor.evaluateAll();
+
+        assertThat(monitor.reinstate(SERVICE_ID)).isTrue();
+        assertThat(monitor.reports().get(SERVICE_ID).state()).isEqualTo(CanaryMonitor.OBSERVING);
+        assertThat(monitor.select(ROUTE_ID, instances, false)).containsExactly(canary);
+        assertThat(monitor.reinstate(SERVICE_ID)).isFalse();
+    }
+
+    @Test
+    void routesByConfiguredPercentage() {
+        assertThat(monitor.select(ROUTE_ID, instances, false)).containsExactly(canary);
+        assertThat(monitor.select("property-lead-service", instances, false)).containsExactly(baseline);
+        assertThat(monitor.select(ROUTE_ID, instances, true)).isSameAs(instances);
+    }
+
+    @Test
+    void reusesThePartitionForAnEquivalentInstanceList() {
+        properties.setRoutes(Map.of(ROUTE_ID, 0));
+        List<ServiceInstance> first = monitor.select(ROUTE_ID, List.of(canary, baseline), false);
+
+        List<ServiceInstance> refetched = List.of(instance("quote-canary", 1, true), instance("quote-1", 2, false));
+
+        assertThat(monitor.select(ROUTE_ID, refetched, false)).isSameAs(first);
+    }
+
+    @Test
+    void repartitionsWhenCanaryMetadataChanges() {
+        recordCohort(canary, 20, 0);
+        List<ServiceInstance> promoted = List.of(instance("quote-canary", 1, false), baseline);
+
+        assertThat(monitor.select(ROUTE_ID, promoted, false)).isSameAs(promoted);
+        CanaryReport report = monitor.reports().get(SERVICE_ID);
+        assertThat(report.canaries()).isEmpty();
+        assertThat(report.canary().requests()).isZero();
+    }
+
+    @Test
+    void repartitionsWhenAnInstanceMoves() {
+        ServiceInstance moved = instance("quote-1", 3, false);
+
+        monitor.select(ROUTE_ID, List.of(canary, moved), false);
+        properties.setRoutes(Map.of(ROUTE_ID, 0));
+
+        assertThat(monitor.select(ROUTE_ID, List.of(canary, moved), false)).containsExactly(moved);
+    }
+
+    private void recordCohort(ServiceInstance instance, long millis, int failures) {
+        for (int i = 0; i < SAMPLES; i++) {
+            monitor.record(instance, TimeUnit.MILLISECONDS.toNanos(millis), i < failures);
+        }
+    }
+
+    private static ServiceInstance instance(String id, int host, boolean canary) {
+        return new DefaultServiceInstance(id, SERVICE_ID, "10.0.0." + host, 8080, false,
+                canary ? Map.of("canary", "true") : Map.of());
+    }
+}
@@ -0,0 +1,105 @@
+package edu.hcmute.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTests {
+    private static final int VIRTUAL_NODES = 128;
+    private static final int KEYS = 10_000;
+
+    @Test
+    void mapsAKeyToTheSameInstanceRegardlessOfListOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(instances(1, 2, 3), VIRTUAL_NODES);
+        ConsistentHashRing reordered = new ConsistentHashRing(instances(3, 1, 2), VIRTUAL_NODES);
+
+        for (int i = 0; i < KEYS; i++) {
+            String key = "user-" + i;
+            assertThat(port(reordered.locate(key))).isEqualTo(port(ring.locate(key)));
+            assertThat(port(ring.locate(key))).isEqualTo(port(ring.locate(key)));
+        }
+    }
+
+    @Test
+    void addingAnInstanceOnlyMovesKeysToTheNewInstance() {
+        Map<String, Integer> before = assignments(new ConsistentHashRing(instances(1, 2, 3), VIRTUAL_NODES));
+        Map<String, Integer> after = assignments(new ConsistentHashRing(instances(1, 2, 3, 4), VIRTUAL_NODES));
+
+        int moved = 0;
+        for (Map.Entry<String, Integer> entry : before.entrySet()) {
+            int now = after.get(entry.getKey());
+            if (now != entry.getValue()) {
+                assertThat(now).isEqualTo(port(4));
+                moved++;
+            }
+        }
+        assertThat(moved).isBetween(KEYS / 4 - KEYS / 10, KEYS / 4 + KEYS / 10);
+    }
+
+    @Test
+    void removingAnInstanceOnlyMovesTheKeysItOwned() {
+        Map<String, Integer> before = assignments(new ConsistentHashRing(instances(1, 2, 3, 4), VIRTUAL_NODES));
+        Map<String, Integer> after = assignments(new ConsistentHashRing(instances(1, 2, 4), VIRTUAL_NODES));
+
+        before.forEach((key, owner) -> {
+            if (owner != port(3)) {
+                assertThat(after.get(key)).isEqualTo(owner);
+            }
+        });
+    }
+
+    @Test
+    void spreadsKeysAcrossInstances() {
+        Map<Integer, Integer> load = new HashMap<>();
+        assignments(new ConsistentHashRing(instances(1, 2, 3, 4), VIRTUAL_NODES))
+                .values().forEach(owner -> load.merge(owner, 1, Integer::sum));
+
+        assertThat(load).hasSize(4);
+        assertThat(load.values()).allSatisfy(count -> assertThat(count).isBetween(KEYS / 4 / 2, KEYS / 4 * 2));
+    }
+
+    @Test
+    void comparesMembershipByHostAndPort() {
+        ConsistentHashRing ring = new ConsistentHashRing(instances(1, 2), VIRTUAL_NODES);
+
+        assertThat(ring.hasSameMembers(instances(2, 1))).isTrue();
+        assertThat(ring.hasSameMembers(instances(1))).isFalse();
+        assertThat(ring.hasSameMembers(instances(1, 3))).isFalse();
+    }
+
+    @Test
+    void locatesNothingOnAnEmptyRing() {
+        assertThat(new ConsistentHashRing(List.of(), VIRTUAL_NODES).locate("user-1")).isNull();
+    }
+
+    private static Map<String, Integer> assignments(ConsistentHashRing ring) {
+        Map<String, Integer> assignments = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            assignments.put("user-" + i, ring.locate("user-" + i).getPort());
+        }
+        return assignments;
+    }
+
+    private static List<ServiceInstance> instances(int... ids) {
+        List<ServiceInstance> instances = new ArrayList<>();
+        for (int id : ids) {
+            instances.add(new DefaultServiceInstance("push-" + id, "PROPERTY-LEAD-SERVICE", "10.0.0." + id, port(id), false));
+        }
+        return instances;
+    }
+
+    private static int port(int id) {
+        return 8080 + id;
+    }
+
+    private static int port(ServiceInstance instance) {
+        return instance.getPort();
+    }
+}
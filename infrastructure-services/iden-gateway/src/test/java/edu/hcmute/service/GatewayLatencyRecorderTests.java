@@ -0,0 +1,61 @@
+package edu.hcmute.service;
+
+import edu.hcmute.filter.RequestTimings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayLatencyRecorderTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong();
+    private final GatewayLatencyRecorder recorder = new GatewayLatencyRecorder(meterRegistry, nanos::get);
+
+    @Test
+    void publishesHistogramBucketsRatherThanClientSidePercentiles() {
+        PrometheusMeterRegistry prometheus = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        new GatewayLatencyRecorder(prometheus).record("property-lead-service", 200, timings("lead-1"));
+
+        String scrape = prometheus.scrape();
+        assertThat(scrape).contains("gateway_latency_seconds_bucket{");
+        assertThat(scrape).doesNotContain("quantile=");
+    }
+
+    @Test
+    void removesTimersForInstancesThatStoppedReceivingTraffic() {
+        recorder.record("property-lead-service", 200, timings("lead-1"));
+        nanos.addAndGet(GatewayLatencyRecorder.IDLE_EXPIRY.minusMinutes(1).toNanos());
+        recorder.record("property-lead-service", 200, timings("lead-2"));
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        recorder.cleanUp();
+
+        assertThat(meterRegistry.find("gateway.latency").tag("instance", "lead-1").timers()).isEmpty();
+        assertThat(meterRegistry.find("gateway.latency").tag("instance", "lead-2").timers()).isNotEmpty();
+    }
+
+    @Test
+    void recordingAgainAfterExpiryRegistersAFreshTimer() {
+        recorder.record("property-lead-service", 200, timings("lead-1"));
+        nanos.addAndGet(GatewayLatencyRecorder.IDLE_EXPIRY.plusMinutes(1).toNanos());
+        recorder.cleanUp();
+
+        recorder.record("property-lead-service", 200, timings("lead-1"));
+
+        assertThat(meterRegistry.get("gateway.latency").tag("phase", "total").tag("instance", "lead-1").timer().count())
+                .isEqualTo(1);
+    }
+
+    private static RequestTimings timings(String instance) {
+        RequestTimings timings = new RequestTimings();
+        timings.markGatewayStart();
+        timings.markLoadBalancerStart();
+        timings.markLoadBalancerEnd(instance);
+        return timings;
+    }
+}
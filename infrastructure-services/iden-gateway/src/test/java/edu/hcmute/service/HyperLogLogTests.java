@@ -0,0 +1,117 @@
+package edu.hcmute.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTests {
+    private static final int PRECISION = 12;
+    // 1.04 / sqrt(2^12) is roughly 1.6%; allow three standard errors.
+    private static final double ERROR_BOUND = 3 * 1.04 / Math.sqrt(1 << PRECISION);
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertThat(new HyperLogLog(PRECISION).estimate()).isZero();
+    }
+
+    @Test
+    void linearCountingRangeIsNearlyExact() {
+        HyperLogLog sketch = sketchOf("user-", 0, 200);
+
+        assertThat(sketch.estimate()).isCloseTo(200L, within(4L));
+    }
+
+    @Test
+    void duplicatesDoNotInflateTheEstimate() {
+        HyperLogLog sketch = sketchOf("user-", 0, 500);
+        for (int i = 0; i < 500; i++) {
+            sketch.add(Hashing.hash64("user-" + i));
+        }
+
+        assertThat(sketch.estimate()).isCloseTo(500L, within(10L));
+    }
+
+    @Test
+    void smallCardinalityStaysWithinErrorBound() {
+        long estimate = sketchOf("user-", 0, 5_000).estimate();
+
+        assertThat(relativeError(estimate, 5_000)).isLessThan(ERROR_BOUND);
+    }
+
+    @Test
+    void largeCardinalityStaysWithinErrorBound() {
+        long estimate = sketchOf("user-", 0, 1_000_000).estimate();
+
+        assertThat(relativeError(estimate, 1_000_000)).isLessThan(ERROR_BOUND);
+    }
+
+    @Test
+    void mergeEstimatesTheUnion() {
+        HyperLogLog left = sketchOf("user-", 0, 60_000);
+        HyperLogLog right = sketchOf("user-", 40_000, 100_000);
+
+        left.merge(right);
+
+        assertThat(relativeError(left.estimate(), 100_000)).isLessThan(ERROR_BOUND);
+    }
+
+    @Test
+    void mergeMatchesASketchBuiltFromTheWholeStream() {
+        HyperLogLog left = sketchOf("user-", 0, 30_000);
+        left.merge(sketchOf("user-", 30_000, 70_000));
+
+        assertThat(left.toBytes()).isEqualTo(sketchOf("user-", 0, 70_000).toBytes());
+    }
+
+    @Test
+    void mergeIsIdempotent() {
+        HyperLogLog sketch = sketchOf("user-", 0, 20_000);
+        long before = sketch.estimate();
+
+        sketch.merge(HyperLogLog.fromBytes(sketch.toBytes()));
+
+        assertThat(sketch.estimate()).isEqualTo(before);
+    }
+
+    @Test
+    void rejectsMergingDifferentPrecisions() {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+
+        assertThatThrownBy(() -> sketch.merge(new HyperLogLog(PRECISION + 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void roundTripsThroughBytes() {
+        HyperLogLog sketch = sketchOf("user-", 0, 10_000);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertThat(restored.precision()).isEqualTo(PRECISION);
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void rejectsInvalidPrecisionAndRegisterCounts() {
+        assertThatThrownBy(() -> new HyperLogLog(HyperLogLog.MIN_PRECISION - 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HyperLogLog(HyperLogLog.MAX_PRECISION + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[100]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static HyperLogLog sketchOf(String prefix, int from, int to) {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        for (int i = from; i < to; i++) {
+            sketch.add(Hashing.hash64(prefix + i));
+        }
+        return sketch;
+    }
+
+    private static double relativeError(long estimate, long actual) {
+        return Math.abs(estimate - actual) / (double) actual;
+    }
+}
@@ -0,0 +1,279 @@
+package edu.hcmute.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.hcmute.config.PushProperties;
+import edu.hcmute.dto.ChangeEvent;
+import edu.hcmute.dto.PushMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.HandshakeInfo;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class PushHubTests {
+    private static final int SEND_BUFFER = 16;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private PushHub hub;
+
+    @BeforeEach
+    void setUp() {
+        PushProperties properties = new PushProperties();
+        properties.setSendBufferSize(SEND_BUFFER);
+        properties.setMaxTopicsPerConnection(2);
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new PushHub(properties, objectMapper, meterRegistry);
+    }
+
+    @Test
+    void slowConsumerIsDisconnectedWhenItsBufferOverflows() {
+        StubSession session = new StubSession();
+        PushHub.Connection connection = hub.open(session, "agent-1", Set.of("AGENT"));
+        Outbound outbound = new Outbound(connection);
+        hub.handle(connection, subscribe("zip:70000"));
+
+        for (int i = 0; i < 30; i++) {
+            hub.publish(event(i, "70000", "owner-1"));
+        }
+
+        List<PushMessage> received = outbound.drain();
+        assertThat(session.closeStatus).isNotNull();
+        assertThat(session.closeStatus.getCode()).isEqualTo(CloseStatus.SERVICE_OVERLOAD.getCode());
+        assertThat(received).hasSize(SEND_BUFFER);
+        assertThat(received.get(0).type()).isEqualTo(PushMessage.SUBSCRIBED);
+        assertThat(received.subList(1, SEND_BUFFER)).extracting(message -> message.event().id())
+                .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14);
+        assertThat(meterRegistry.get("gateway.push.disconnected").tag("reason", "slow-consumer").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("gateway.push.delivered").counter().count()).isEqualTo(SEND_BUFFER - 1);
+        assertThat(meterRegistry.get("gateway.push.subscriptions").gauge().value()).isZero();
+        assertThat(meterRegistry.get("gateway.push.connections").gauge().value()).isZero();
+    }
+
+    @Test
+    void overflowOnOneConnectionDoesNotAffectOthers() {
+        StubSession slowSession = new StubSession();
+        PushHub.Connection slow = hub.open(slowSession, "agent-1", Set.of("AGENT"));
+        new Outbound(slow);
+        hub.handle(slow, subscribe("zip:70000"));
+        StubSession fastSession = new StubSession();
+        PushHub.Connection fast = hub.open(fastSession, "agent-2", Set.of("AGENT"));
+        Outbound fastOutbound = new Outbound(fast);
+        fastOutbound.requestUnbounded();
+        hub.handle(fast, subscribe("zip:70000"));
+
+        for (int i = 0; i < 30; i++) {
+            hub.publish(event(i, "70000", "owner-1"));
+        }
+
+        assertThat(slowSession.closeStatus).isNotNull();
+        assertThat(fastSession.closeStatus).isNull();
+        assertThat(fastOutbound.received).hasSize(31);
+        assertThat(meterRegistry.get("gateway.push.connections").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void adminMaySubscribeToAnyTopic() {
+        PushHub.Connection connection = hub.open(new StubSession(), "admin-1", Set.of("ADMIN"));
+        Outbound outbound = new Outbound(connection);
+
+        hub.handle(connection, subscribe("agent:agent-9"));
+        hub.handle(connection, subscribe("zip:70000"));
+
+        assertThat(outbound.drain()).extracting(PushMessage::type)
+                .containsExactly(PushMessage.SUBSCRIBED, PushMessage.SUBSCRIBED);
+    }
+
+    @Test
+    void agentMayOnlySubscribeToItsOwnAgentTopic() {
+        PushHub.Connection connection = hub.open(new StubSession(), "agent-1", Set.of("AGENT"));
+        Outbound outbound = new Outbound(connection);
+
+        hub.handle(connection, subscribe("agent:agent-1"));
+        hub.handle(connection, subscribe("agent:agent-2"));
+        hub.handle(connection, subscribe("lead:42"));
+
+        assertThat(outbound.drain()).extracting(PushMessage::type, PushMessage::reason).containsExactly(
+                tuple(PushMessage.SUBSCRIBED, null),
+                tuple(PushMessage.ERROR, "forbidden"),
+                tuple(PushMessage.SUBSCRIBED, null));
+        assertThat(meterRegistry.get("gateway.push.rejected").tag("reason", "forbidden").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void ownerMayOnlySubscribeToLeadTopics() {
+        PushHub.Connection connection = hub.open(new StubSession(), "owner-1", Set.of("OWNER"));
+        Outbound outbound = new Outbound(connection);
+
+        hub.handle(connection, subscribe("lead:42"));
+        hub.handle(connection, subscribe("zip:70000"));
+        hub.handle(connection, subscribe("agent:owner-1"));
+
+        assertThat(outbound.drain()).extracting(PushMessage::type)
+                .containsExactly(PushMessage.SUBSCRIBED, PushMessage.ERROR, PushMessage.ERROR);
+    }
+
+    @Test
+    void ownerOnlyReceivesEventsForTheirOwnLeads() {
+        PushHub.Connection connection = hub.open(new StubSession(), "owner-1", Set.of("OWNER"));
+        Outbound outbound = new Outbound(connection);
+        hub.handle(connection, subscribe("lead:42"));
+
+        hub.publish(event(42, null, "owner-2"));
+        hub.publish(event(42, null, "owner-1"));
+
+        List<PushMessage> received = outbound.drain();
+        assertThat(received).extracting(PushMessage::type).containsExactly(PushMessage.SUBSCRIBED, PushMessage.EVENT);
+        assertThat(received.get(1).event().userId()).isEqualTo("owner-1");
+    }
+
+    @Test
+    void enforcesTheTopicLimitPerConnection() {
+        PushHub.Connection connection = hub.open(new StubSession(), "admin-1", Set.of("ADMIN"));
+        Outbound outbound = new Outbound(connection);
+
+        hub.handle(connection, subscribe("zip:1"));
+        hub.handle(connection, subscribe("zip:2"));
+        hub.handle(connection, subscribe("zip:3"));
+
+        assertThat(outbound.drain()).extracting(PushMessage::reason).containsExactly(null, null, "too many topics");
+    }
+
+    private PushMessage read(String text) {
+        try {
+            return objectMapper.readValue(text, PushMessage.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Subscribes like the WebSocket send does, but requests nothing until drained so the buffer can fill.
+    private final class Outbound extends BaseSubscriber<String> {
+        private final PushHub.Connection connection;
+        private final List<PushMessage> received = new CopyOnWriteArrayList<>();
+
+        private Outbound(PushHub.Connection connection) {
+            this.connection = connection;
+            connection.outbound().subscribe(this);
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+        }
+
+        @Override
+        protected void hookOnNext(String value) {
+            received.add(read(value));
+        }
+
+        private List<PushMessage> drain() {
+            hub.close(connection);
+            requestUnbounded();
+            return received;
+        }
+    }
+
+    private static String subscribe(String topic) {
+        return "{\"action\":\"subscribe\",\"topic\":\"" + topic + "\"}";
+    }
+
+    private static ChangeEvent event(int leadId, String zipCode, String userId) {
+        return new ChangeEvent("lead", "updated", leadId, leadId, zipCode, userId, null, "OPEN", 0L);
+    }
+
+    private static final class StubSession implements WebSocketSession {
+        private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+        private volatile CloseStatus closeStatus;
+
+        @Override
+        public String getId() {
+            return "stub";
+        }
+
+        @Override
+        public HandshakeInfo getHandshakeInfo() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public DataBufferFactory bufferFactory() {
+            return DefaultDataBufferFactory.sharedInstance;
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public Flux<WebSocketMessage> receive() {
+            return Flux.never();
+        }
+
+        @Override
+        public Mono<Void> send(Publisher<WebSocketMessage> messages) {
+            return Flux.from(messages).then();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return closeStatus == null;
+        }
+
+        @Override
+        public Mono<Void> close(CloseStatus status) {
+            return Mono.fromRunnable(() -> closeStatus = status);
+        }
+
+        @Override
+        public Mono<CloseStatus> closeStatus() {
+            return Mono.justOrEmpty(closeStatus);
+        }
+
+        @Override
+        public WebSocketMessage textMessage(String payload) {
+            return message(WebSocketMessage.Type.TEXT, factory -> factory.wrap(payload.getBytes()));
+        }
+
+        @Override
+        public WebSocketMessage binaryMessage(Function<DataBufferFactory, DataBuffer> payloadFactory) {
+            return message(WebSocketMessage.Type.BINARY, payloadFactory);
+        }
+
+        @Override
+        public WebSocketMessage pingMessage(Function<DataBufferFactory, DataBuffer> payloadFactory) {
+            return message(WebSocketMessage.Type.PING, payloadFactory);
+        }
+
+        @Override
+        public WebSocketMessage pongMessage(Function<DataBufferFactory, DataBuffer> payloadFactory) {
+            return message(WebSocketMessage.Type.PONG, payloadFactory);
+        }
+
+        private WebSocketMessage message(WebSocketMessage.Type type, Function<DataBufferFactory, DataBuffer> payload) {
+            return new WebSocketMessage(type, payload.apply(bufferFactory()));
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package edu.hcmute.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RingBufferTests {
+    private static final int PRODUCERS = 4;
+    private static final int EVENTS_PER_PRODUCER = 100_000;
+
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertThat(new RingBuffer<>(1, Slot::new).capacity()).isEqualTo(2);
+        assertThat(new RingBuffer<>(2, Slot::new).capacity()).isEqualTo(2);
+        assertThat(new RingBuffer<>(3, Slot::new).capacity()).isEqualTo(4);
+        assertThat(new RingBuffer<>(4, Slot::new).capacity()).isEqualTo(4);
+        assertThat(new RingBuffer<>(5, Slot::new).capacity()).isEqualTo(8);
+        assertThat(new RingBuffer<>(16_384, Slot::new).capacity()).isEqualTo(16_384);
+    }
+
+    @Test
+    void preservesOrderAcrossWraparound() {
+        RingBuffer<Slot> buffer = new RingBuffer<>(4, Slot::new);
+        List<Long> drained = new ArrayList<>();
+
+        long next = 0;
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertThat(offer(buffer, next++)).isTrue();
+            }
+            assertThat(buffer.size()).isEqualTo(3);
+            buffer.drain(slot -> drained.add(slot.value), Integer.MAX_VALUE);
+            assertThat(buffer.size()).isZero();
+        }
+
+        assertThat(drained).hasSize(30);
+        for (int i = 0; i < drained.size(); i++) {
+            assertThat(drained.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void drainHonoursTheBatchLimit() {
+        RingBuffer<Slot> buffer = new RingBuffer<>(8, Slot::new);
+        for (long i = 0; i < 5; i++) {
+            offer(buffer, i);
+        }
+
+        assertThat(buffer.drain(slot -> {
+        }, 2)).isEqualTo(2);
+        assertThat(buffer.size()).isEqualTo(3);
+    }
+
+    @Test
+    void dropNewestRejectsClaimsWhenFullAndKeepsTheQueuedEvents() {
+        RingBuffer<Slot> buffer = new RingBuffer<>(4, Slot::new);
+        for (long i = 0; i < 4; i++) {
+            assertThat(offer(buffer, i)).isTrue();
+        }
+
+        assertThat(buffer.tryClaim()).isEqualTo(-1L);
+        assertThat(offer(buffer, 99)).isFalse();
+
+        assertThat(drainAll(buffer)).containsExactly(0L, 1L, 2L, 3L);
+    }
+
+    @Test
+    void dropOldestDiscardsTheHeadToMakeRoom() {
+        RingBuffer<Slot> buffer = new RingBuffer<>(4, Slot::new);
+        for (long i = 0; i < 4; i++) {
+            offer(buffer, i);
+        }
+
+        for (long i = 4; i < 6; i++) {
+            assertThat(buffer.discardOldest()).isTrue();
+            assertThat(offer(buffer, i)).isTrue();
+        }
+
+        assertThat(drainAll(buffer)).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(buffer.discardOldest()).isFalse();
+    }
+
+    @Test
+    void unpublishedClaimsAreNotVisibleToTheConsumer() {
+        RingBuffer<Slot> buffer = new RingBuffer<>(4, Slot::new);
+        long first = buffer.tryClaim();
+        offer(buffer, 1);
+
+        assertThat(drainAll(buffer)).isEmpty();
+
+        buffer.get(first).value = 0;
+        buffer.publish(first);
+        assertThat(drainAll(buffer)).containsExactly(0L, 1L);
+    }
+
+    @Test
+    void concurrentProducersNeitherLoseNorDuplicateDropNewest() throws Exception {
+        assertNoLossOrDuplication(false);
+    }
+
+    @Test
+    void concurrentProducersNeitherLoseNorDuplicateDropOldest() throws Exception {
+        assertNoLossOrDuplication(true);
+    }
+
+    private void assertNoLossOrDuplication(boolean dropOldest) throws Exception {
+        RingBuffer<Slot> buffer = new RingBuffer<>(1024, Slot::new);
+        int total = PRODUCERS * EVENTS_PER_PRODUCER;
+        BitSet seen = new BitSet(total);
+        AtomicLong duplicates = new AtomicLong();
+        AtomicLong received = new AtomicLong();
+        AtomicLong dropped = new AtomicLong();
+        AtomicBoolean producing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS + 1);
+        try {
+            Future<?> consumer = executor.submit(() -> {
+                while (producing.get() || buffer.size() > 0) {
+                    buffer.drain(slot -> {
+                        int value = (int) slot.value;
+                        if (seen.get(value)) {
+                            duplicates.incrementAndGet();
+                        }
+                        seen.set(value);
+                        received.incrementAndGet();
+                    }, 256);
+                }
+            });
+            List<Future<?>> producers = new ArrayList<>();
+            for (int p = 0; p < PRODUCERS; p++) {
+                long base = (long) p * EVENTS_PER_PRODUCER;
+                producers.add(executor.submit(() -> {
+                    start.await();
+                    for (long i = base; i < base + EVENTS_PER_PRODUCER; i++) {
+                        long sequence = buffer.tryClaim();
+                        if (sequence < 0 && dropOldest && buffer.discardOldest()) {
+                            dropped.incrementAndGet();
+                            sequence = buffer.tryClaim();
+                        }
+                        if (sequence < 0) {
+                            dropped.incrementAndGet();
+                            continue;
+                        }
+                        buffer.get(sequence).value = i;
+                        buffer.publish(sequence);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> producer : producers) {
+                producer.get(30, TimeUnit.SECONDS);
+            }
+            producing.set(false);
+            consumer.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(duplicates).hasValue(0);
+        assertThat(received.get() + dropped.get()).isEqualTo(total);
+        assertThat(seen.cardinality()).isEqualTo((int) received.get());
+        assertThat(buffer.size()).isZero();
+    }
+
+    private static boolean offer(RingBuffer<Slot> buffer, long value) {
+        long sequence = buffer.tryClaim();
+        if (sequence < 0) {
+            return false;
+        }
+        buffer.get(sequence).value = value;
+        buffer.publish(sequence);
+        return true;
+    }
+
+    private static List<Long> drainAll(RingBuffer<Slot> buffer) {
+        List<Long> drained = new ArrayList<>();
+        buffer.drain(slot -> drained.add(slot.value), Integer.MAX_VALUE);
+        return drained;
+    }
+
+    private static final class Slot {
+        private long value;
+    }
+}
@@ -0,0 +1,47 @@
+package edu.hcmute.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTests {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        TokenBucket bucket = new TokenBucket(3, 1);
+        long now = 0L;
+        assertThat(bucket.tryConsume(now)).isZero();
+        assertThat(bucket.tryConsume(now)).isZero();
+        assertThat(bucket.tryConsume(now)).isZero();
+        assertThat(bucket.tryConsume(now)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void refillsOneTokenPerEmissionInterval() {
+        TokenBucket bucket = new TokenBucket(1, 2);
+        assertThat(bucket.tryConsume(0L)).isZero();
+        assertThat(bucket.tryConsume(SECOND / 4)).isEqualTo(SECOND / 4);
+        assertThat(bucket.tryConsume(SECOND / 2)).isZero();
+        assertThat(bucket.tryConsume(SECOND / 2)).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    void idleTimeDoesNotAccumulateBeyondCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 10);
+        bucket.tryConsume(0L);
+        long later = 60 * SECOND;
+        assertThat(bucket.tryConsume(later)).isZero();
+        assertThat(bucket.tryConsume(later)).isZero();
+        assertThat(bucket.tryConsume(later)).isPositive();
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,148 @@
+package edu.hcmute.service;
+
+import edu.hcmute.config.RevocationProperties;
+import edu.hcmute.dto.RevocationEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationRegistryTests {
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+    private final MutableClock clock = new MutableClock(START);
+    private final RevocationProperties properties = new RevocationProperties();
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties.setPartitionSize(Duration.ofMinutes(5));
+        properties.setMaxTokenLifetime(Duration.ofHours(1));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void rejectsRevokedTokenId() {
+        TokenRevocationRegistry registry = registry();
+        registry.revoke(new RevocationEvent(RevocationEvent.JTI, "token-1", expiresIn(Duration.ofMinutes(10))));
+
+        assertThat(registry.isRevoked("token-1", "session-1")).isTrue();
+        assertThat(registry.isRevoked("token-2", "session-1")).isFalse();
+        assertThat(meterRegistry.get("gateway.revocation.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void rejectsEveryTokenOfARevokedSession() {
+        TokenRevocationRegistry registry = registry();
+        registry.revoke(new RevocationEvent(RevocationEvent.SID, "session-1", expiresIn(Duration.ofMinutes(10))));
+
+        assertThat(registry.isRevoked("token-1", "session-1")).isTrue();
+        assertThat(registry.isRevoked("token-2", "session-1")).isTrue();
+        assertThat(registry.isRevoked("token-3", "session-2")).isFalse();
+        assertThat(registry.isRevoked("token-1", null)).isFalse();
+    }
+
+    @Test
+    void doesNotConfuseTokenIdsWithSessionIds() {
+        TokenRevocationRegistry registry = registry();
+        registry.revoke(new RevocationEvent(RevocationEvent.JTI, "shared", expiresIn(Duration.ofMinutes(10))));
+
+        assertThat(registry.isRevoked("other", "shared")).isFalse();
+    }
+
+    @Test
+    void ignoresAlreadyExpiredRevocations() {
+        TokenRevocationRegistry registry = registry();
+        registry.revoke(new RevocationEvent(RevocationEvent.JTI, "token-1", START.getEpochSecond()));
+
+        assertThat(registry.size()).isZero();
+        assertThat(registry.isRevoked("token-1", null)).isFalse();
+    }
+
+    @Test
+    void dropsPartitionOnceItsTokensHaveExpired() {
+        TokenRevocationRegistry registry = registry();
+        registry.revoke(new RevocationEvent(RevocationEvent.JTI, "short", expiresIn(Duration.ofMinutes(3))));
+        registry.revoke(new RevocationEvent(RevocationEvent.JTI, "long", expiresIn(Duration.ofMinutes(30))));
+        assertThat(registry.size()).isEqualTo(2);
+
+        clock.advance(Duration.ofMinutes(10));
+
+        assertThat(registry.isRevoked("short", null)).isFalse();
+        assertThat(registry.isRevoked("long", null)).isTrue();
+        assertThat(registry.size()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.revocation.partitions").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void capsRetentionAtTheMaximumTokenLifetime() {
+        TokenRevocationRegistry registry = registry();
+        registry.revoke(new RevocationEvent(RevocationEvent.JTI, "token-1", expiresIn(Duration.ofDays(30))));
+
+        clock.advance(Duration.ofHours(1).plusMinutes(10));
+
+        assertThat(registry.isRevoked("token-1", null)).isFalse();
+        assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    void bloomFalsePositiveFallsThroughToTheExactSet() {
+        properties.setExpectedEntriesPerPartition(1);
+        properties.setFalsePositiveRate(0.5);
+        TokenRevocationRegistry registry = registry();
+        long expiresAt = expiresIn(Duration.ofMinutes(2));
+        for (int i = 0; i < 200; i++) {
+            registry.revoke(new RevocationEvent(RevocationEvent.JTI, "token-" + i, expiresAt));
+        }
+        BloomFilter saturated = new BloomFilter(1, 0.5);
+        for (int i = 0; i < 200; i++) {
+            saturated.add("jti:token-" + i);
+        }
+        String innocent = "never-revoked";
+        assertThat(saturated.mightContain("jti:" + innocent)).isTrue();
+
+        assertThat(registry.isRevoked(innocent, null)).isFalse();
+        assertThat(registry.isRevoked("token-42", null)).isTrue();
+    }
+
+    private TokenRevocationRegistry registry() {
+        return new TokenRevocationRegistry(properties, meterRegistry, clock);
+    }
+
+    private long expiresIn(Duration duration) {
+        return clock.instant().plus(duration).getEpochSecond();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
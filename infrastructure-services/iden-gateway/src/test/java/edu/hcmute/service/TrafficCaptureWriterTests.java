@@ -0,0 +1,66 @@
+package edu.hcmute.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.hcmute.config.TrafficCaptureProperties;
+import edu.hcmute.dto.CapturedExchange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrafficCaptureWriterTests {
+    private static final Map<String, List<String>> JSON = Map.of("Content-Type", List.of("application/json;charset=UTF-8"));
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TrafficCaptureWriter writer =
+            new TrafficCaptureWriter(new TrafficCaptureProperties(), objectMapper, new SimpleMeterRegistry());
+
+    @Test
+    void redactsDenylistedFieldsAtAnyDepth() throws Exception {
+        CapturedExchange redacted = writer.redactBodies(exchange(JSON,
+                "{\"username\":\"bob\",\"password\":\"hunter2\",\"profile\":{\"Email\":\"bob@example.com\"},"
+                        + "\"sessions\":[{\"refresh_token\":\"abc\",\"device\":\"web\"}]}",
+                JSON, "{\"access_token\":\"eyJ\",\"expires_in\":300}"));
+
+        JsonNode request = objectMapper.readTree(redacted.requestBody());
+        assertThat(request.path("username").asText()).isEqualTo("bob");
+        assertThat(request.path("password").asText()).isEqualTo("[REDACTED]");
+        assertThat(request.path("profile").path("Email").asText()).isEqualTo("[REDACTED]");
+        assertThat(request.path("sessions").path(0).path("refresh_token").asText()).isEqualTo("[REDACTED]");
+        assertThat(request.path("sessions").path(0).path("device").asText()).isEqualTo("web");
+        JsonNode response = objectMapper.readTree(redacted.responseBody());
+        assertThat(response.path("access_token").asText()).isEqualTo("[REDACTED]");
+        assertThat(response.path("expires_in").asInt()).isEqualTo(300);
+    }
+
+    @Test
+    void keepsBodiesWithoutSensitiveFieldsUntouched() {
+        CapturedExchange original = exchange(JSON, "{ \"status\" : \"NEW\" }", Map.of(), null);
+
+        assertThat(writer.redactBodies(original).requestBody()).isSameAs(original.requestBody());
+    }
+
+    @Test
+    void dropsBodiesThatCannotBeRedacted() {
+        Map<String, List<String>> form = Map.of("content-type", List.of("application/x-www-form-urlencoded"));
+        CapturedExchange redacted = writer.redactBodies(exchange(form, "username=bob&password=hunter2",
+                JSON, "{not json"));
+
+        assertThat(redacted.requestBody()).isNull();
+        assertThat(redacted.responseBody()).isNull();
+    }
+
+    private static CapturedExchange exchange(Map<String, List<String>> requestHeaders, String requestBody,
+                                             Map<String, List<String>> responseHeaders, String responseBody) {
+        return new CapturedExchange(0L, "user-authnz-service", "POST", "/auth/login", null,
+                requestHeaders, bytes(requestBody), 200, responseHeaders, bytes(responseBody), 1L);
+    }
+
+    private static byte[] bytes(String body) {
+        return body != null ? body.getBytes(StandardCharsets.UTF_8) : null;
+    }
+}
@@ -3,9 +3,11 @@ package edu.hcmute;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.netflix.eureka.server.EnableEurekaServer;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableEurekaServer
+@EnableScheduling
 public class RegistryServerApplication {
     public static void main(String[] args) {
         SpringApplication.run(RegistryServerApplication.class, args);
@@ -0,0 +1,21 @@
+package edu.hcmute.controller;
+
+import edu.hcmute.service.InstanceDeltaPublisher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RequestMapping("/registry/deltas")
+@RestController
+@RequiredArgsConstructor
+public class InstanceDeltaController {
+    private final InstanceDeltaPublisher instanceDeltaPublisher;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return instanceDeltaPublisher.subscribe();
+    }
+}
@@ -0,0 +1,18 @@
+package edu.hcmute.dto;
+
+import java.util.Map;
+
+public record InstanceDelta(
+        String type,
+        String app,
+        String instanceId,
+        String host,
+        int port,
+        boolean secure,
+        String status,
+        Map<String, String> metadata,
+        long timestamp
+) {
+    public static final String REGISTERED = "REGISTERED";
+    public static final String CANCELLED = "CANCELLED";
+}
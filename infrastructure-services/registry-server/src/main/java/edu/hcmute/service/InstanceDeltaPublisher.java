@@ -0,0 +1,112 @@
+package edu.hcmute.service;
+
+import com.netflix.appinfo.InstanceInfo;
+import edu.hcmute.dto.InstanceDelta;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class InstanceDeltaPublisher {
+    private static final String EVENT_NAME = "delta";
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor dispatcher;
+
+    public InstanceDeltaPublisher(MeterRegistry meterRegistry,
+                                  @Value("${picma.registry.push.dispatch-queue-size:4096}") int dispatchQueueSize) {
+        this.meterRegistry = meterRegistry;
+        this.dispatcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(dispatchQueueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "instance-delta-dispatcher");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> {
+                    meterRegistry.counter("registry.push.dropped").increment();
+                    log.warn("~~> instance delta dispatch queue full, dropping delta");
+                });
+        Gauge.builder("registry.push.subscribers", subscribers, List::size)
+                .description("Clients subscribed to instance deltas")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(ex -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        log.info("~~> instance delta subscriber connected, {} subscribers", subscribers.size());
+        return emitter;
+    }
+
+    @EventListener
+    public void onRegistered(EurekaInstanceRegisteredEvent event) {
+        InstanceInfo info = event.getInstanceInfo();
+        boolean secure = info.isPortEnabled(InstanceInfo.PortType.SECURE);
+        Map<String, String> metadata = info.getMetadata() != null ? Map.copyOf(info.getMetadata()) : Map.of();
+        publish(new InstanceDelta(InstanceDelta.REGISTERED, info.getAppName(), info.getId(),
+                info.getHostName(),
+                secure ? info.getSecurePort() : info.getPort(), secure,
+                String.valueOf(info.getStatus()), metadata, System.currentTimeMillis()));
+    }
+
+    @EventListener
+    public void onCanceled(EurekaInstanceCanceledEvent event) {
+        publish(new InstanceDelta(InstanceDelta.CANCELLED, event.getAppName(), event.getServerId(),
+                null, 0, false, String.valueOf(InstanceInfo.InstanceStatus.DOWN), Map.of(), System.currentTimeMillis()));
+    }
+
+    @Scheduled(fixedDelayString = "${picma.registry.push.heartbeat-interval:15s}")
+    public void heartbeat() {
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event().comment("keepalive"));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(emitter);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    private void publish(InstanceDelta delta) {
+        meterRegistry.counter("registry.push.deltas", "type", delta.type()).increment();
+        log.info("~~> {} {} {} {}", delta.type(), delta.app(), delta.instanceId(), delta.status());
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> {
+            for (SseEmitter emitter : subscribers) {
+                try {
+                    emitter.send(SseEmitter.event().name(EVENT_NAME).data(delta));
+                } catch (IOException | IllegalStateException e) {
+                    subscribers.remove(emitter);
+                }
+            }
+        });
+    }
+}
@@ -1,15 +1,18 @@
 package edu.hcmute;
 
+import edu.hcmute.commons.config.InternalEndpointConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableFeignClients
 @EnableScheduling
+@Import(InternalEndpointConfiguration.class)
 public class UserAuthnzServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(UserAuthnzServiceApplication.class, args);
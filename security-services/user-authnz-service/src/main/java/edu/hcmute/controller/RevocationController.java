@@ -0,0 +1,23 @@
+package edu.hcmute.controller;
+
+import edu.hcmute.service.TokenRevocationService;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RequestMapping("/internal/revocations")
+@RestController
+@RequiredArgsConstructor
+public class RevocationController {
+    private final TokenRevocationService tokenRevocationService;
+
+    @Operation(summary = "Revocation stream", description = "Streams revoked token ids and sessions to gateway instances.")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return tokenRevocationService.subscribe();
+    }
+}
@@ -1,6 +1,7 @@
 package edu.hcmute.controller;
 
 import edu.hcmute.dto.LoginRequest;
+import edu.hcmute.dto.LogoutRequest;
 import edu.hcmute.dto.RegisterRequest;
 import edu.hcmute.dto.TokenResponse;
 import edu.hcmute.service.UserAuthnzService;
@@ -10,9 +11,11 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -40,11 +43,12 @@ public class UserAuthnzController {
         return ResponseEntity.ok(Map.of("message", "User registered successfully"));
     }
 
-    @Operation(summary = "Logout", description = "Logs out the user.")
+    @Operation(summary = "Logout", description = "Logs out the user and revokes the presented token and its session.")
     @ApiResponse(responseCode = "200", description = "Logged out successfully")
     @PostMapping("/logout")
-    public ResponseEntity<Map<String, String>> logout() {
-        userAuthnzService.logout();
+    public ResponseEntity<Map<String, String>> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                                      @RequestBody(required = false) LogoutRequest logoutRequest) {
+        userAuthnzService.logout(authorization, logoutRequest);
         return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
     }
 }
\ No newline at end of file
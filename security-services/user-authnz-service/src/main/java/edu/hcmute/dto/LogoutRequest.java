@@ -0,0 +1,8 @@
+package edu.hcmute.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record LogoutRequest(
+        @JsonProperty String refreshToken
+) {
+}
@@ -0,0 +1,10 @@
+package edu.hcmute.dto;
+
+public record RevocationEvent(
+        String type,
+        String value,
+        long expiresAt
+) {
+    public static final String JTI = "jti";
+    public static final String SID = "sid";
+}
@@ -0,0 +1,157 @@
+package edu.hcmute.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.hcmute.dto.RevocationEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TokenRevocationService {
+    private static final String EVENT_NAME = "revocation";
+    private final Map<String, RevocationEvent> revocations = new ConcurrentHashMap<>();
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private final ObjectMapper objectMapper;
+    @Value("${picma.revocation.session-ttl:1h}")
+    private Duration sessionTtl;
+    @Value("${picma.revocation.store:revocations.jsonl}")
+    private Path store;
+
+    @PostConstruct
+    public void restore() {
+        if (!Files.exists(store)) {
+            return;
+        }
+        long now = Instant.now().getEpochSecond();
+        try {
+            for (String line : Files.readAllLines(store, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                RevocationEvent event = objectMapper.readValue(line, RevocationEvent.class);
+                if (event.expiresAt() > now) {
+                    remember(event);
+                }
+            }
+            log.info("### restored {} revocations from {} ###", revocations.size(), store.toAbsolutePath());
+        } catch (IOException e) {
+            log.warn("~~> could not restore revocations from {}: {}", store.toAbsolutePath(), e.toString());
+            return;
+        }
+        compact();
+    }
+
+    public void revoke(String jti, String sid, Instant tokenExpiresAt) {
+        if (jti != null && tokenExpiresAt != null) {
+            publish(new RevocationEvent(RevocationEvent.JTI, jti, tokenExpiresAt.getEpochSecond()));
+        }
+        if (sid != null) {
+            publish(new RevocationEvent(RevocationEvent.SID, sid, Instant.now().plus(sessionTtl).getEpochSecond()));
+        }
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(ex -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        long now = Instant.now().getEpochSecond();
+        for (RevocationEvent event : revocations.values()) {
+            if (event.expiresAt() > now && !send(emitter, event)) {
+                break;
+            }
+        }
+        log.info("~~> revocation subscriber connected, replayed {} entries, {} subscribers", revocations.size(), subscribers.size());
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${picma.revocation.heartbeat-interval:15s}")
+    public void heartbeat() {
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event().comment("keepalive"));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(emitter);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${picma.revocation.purge-interval:1m}")
+    public void purgeExpired() {
+        long now = Instant.now().getEpochSecond();
+        int before = revocations.size();
+        revocations.values().removeIf(event -> event.expiresAt() <= now);
+        if (before != revocations.size()) {
+            log.info("~~> purged {} expired revocations", before - revocations.size());
+            compact();
+        }
+    }
+
+    private void publish(RevocationEvent event) {
+        remember(event);
+        append(event);
+        log.info("~~> revoked {} {} until {}", event.type(), event.value(), Instant.ofEpochSecond(event.expiresAt()));
+        for (SseEmitter emitter : subscribers) {
+            send(emitter, event);
+        }
+    }
+
+    private void remember(RevocationEvent event) {
+        revocations.merge(event.type() + ':' + event.value(), event,
+                (current, next) -> next.expiresAt() > current.expiresAt() ? next : current);
+    }
+
+    private synchronized void append(RevocationEvent event) {
+        try {
+            Files.writeString(store, objectMapper.writeValueAsString(event) + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.warn("~~> could not persist revocation {} {}: {}", event.type(), event.value(), e.toString());
+        }
+    }
+
+    private synchronized void compact() {
+        try {
+            List<String> lines = new ArrayList<>(revocations.size());
+            for (RevocationEvent event : revocations.values()) {
+                lines.add(objectMapper.writeValueAsString(event));
+            }
+            Path compacted = store.resolveSibling(store.getFileName() + ".tmp");
+            Files.write(compacted, lines, StandardCharsets.UTF_8);
+            Files.move(compacted, store, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("~~> could not compact revocation store {}: {}", store.toAbsolutePath(), e.toString());
+        }
+    }
+
+    private boolean send(SseEmitter emitter, RevocationEvent event) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(event));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(emitter);
+            return false;
+        }
+    }
+}
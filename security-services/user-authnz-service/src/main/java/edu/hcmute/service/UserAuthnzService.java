@@ -1,13 +1,14 @@
 package edu.hcmute.service;
 
 import edu.hcmute.dto.LoginRequest;
+import edu.hcmute.dto.LogoutRequest;
 import edu.hcmute.dto.RegisterRequest;
 import edu.hcmute.dto.TokenResponse;
 
 public interface UserAuthnzService {
     TokenResponse login(LoginRequest request);
 
-    void logout();
+    void logout(String authorization, LogoutRequest request);
 
     void register(RegisterRequest request);
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package edu.hcmute.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.hcmute.client.KeycloakAdminClient;
 import edu.hcmute.client.KeycloakAuthClient;
 import edu.hcmute.dto.LoginRequest;
+import edu.hcmute.dto.LogoutRequest;
 import edu.hcmute.dto.RegisterRequest;
 import edu.hcmute.dto.TokenResponse;
+import feign.FeignException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,7 +19,10 @@ import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.net.URI;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -29,8 +36,13 @@ public class UserAuthnzServiceImpl implements UserAuthnzService {
     private static final String CLIENT_SECRET = "client_secret";
     private static final String PASSWORD = "password";
     private static final String GRANT_TYPE = "grant_type";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final TypeReference<Map<String, Object>> CLAIMS_TYPE = new TypeReference<>() {
+    };
     private final KeycloakAuthClient keycloakAuthClient;
     private final KeycloakAdminClient keycloakAdminClient;
+    private final TokenRevocationService tokenRevocationService;
+    private final ObjectMapper objectMapper;
     @Value("${keycloak.resource}")
     private String resource;
     @Value("${keycloak.credentials.secret}")
@@ -58,8 +70,45 @@ public class UserAuthnzServiceImpl implements UserAuthnzService {
     }
 
     @Override
-    public void logout() {
+    public void logout(String authorization, LogoutRequest request) {
         log.info("### Logging out user ###");
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing bearer token");
+        }
+        try {
+            keycloakAuthClient.getUserInfo(authorization);
+        } catch (FeignException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token is not active");
+        }
+        Map<String, Object> claims = decodeClaims(authorization.substring(BEARER_PREFIX.length()));
+        String jti = (String) claims.get("jti");
+        String sid = (String) claims.get("sid");
+        Instant expiresAt = claims.get("exp") instanceof Number exp ? Instant.ofEpochSecond(exp.longValue()) : null;
+        tokenRevocationService.revoke(jti, sid, expiresAt);
+        if (request != null && request.refreshToken() != null) {
+            MultiValueMap<String, String> map = new LinkedMultiValueMap<>();
+            map.add(CLIENT_ID, resource);
+            map.add(CLIENT_SECRET, clientSecret);
+            map.add("refresh_token", request.refreshToken());
+            try {
+                keycloakAuthClient.logout(map);
+            } catch (FeignException e) {
+                log.error("~~> failed to end keycloak session {}: {}", sid, e.getMessage());
+            }
+        }
+        log.info("~~> user {} logged out, revoked jti={} sid={}", claims.get("preferred_username"), jti, sid);
+    }
+
+    private Map<String, Object> decodeClaims(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Malformed token");
+        }
+        try {
+            return objectMapper.readValue(Base64.getUrlDecoder().decode(parts[1]), CLAIMS_TYPE);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Malformed token");
+        }
     }
 
     @Override
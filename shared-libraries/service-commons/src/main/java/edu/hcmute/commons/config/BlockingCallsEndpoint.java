@@ -0,0 +1,26 @@
+package edu.hcmute.commons.config;
+
+import edu.hcmute.commons.dto.BlockingCallReport;
+import edu.hcmute.commons.service.BlockingCallRecorder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+import java.util.Map;
+
+@Endpoint(id = "blockingcalls")
+@RequiredArgsConstructor
+public class BlockingCallsEndpoint {
+    private final DiagnosticsProperties properties;
+    private final BlockingCallRecorder blockingCallRecorder;
+
+    @ReadOperation
+    public Map<String, Object> blockingCalls() {
+        List<BlockingCallReport> reports = blockingCallRecorder.reports();
+        return Map.of(
+                "detectionEnabled", properties.getBlocking().isEnabled(),
+                "untrackedSites", blockingCallRecorder.overflow(),
+                "sites", reports);
+    }
+}
@@ -0,0 +1,26 @@
+package edu.hcmute.commons.config;
+
+import edu.hcmute.commons.service.ChangeEventService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+@EnableScheduling
+@EnableConfigurationProperties(ChangeEventProperties.class)
+public class ChangeEventConfiguration {
+    @Bean
+    public ChangeEventService changeEventService(ChangeEventProperties properties) {
+        return new ChangeEventService(properties);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> changeEventRoutes(ChangeEventProperties properties,
+                                                            ChangeEventService changeEventService) {
+        return RouterFunctions.route()
+                .GET(properties.getStreamPath(), request -> changeEventService.subscribe())
+                .build();
+    }
+}
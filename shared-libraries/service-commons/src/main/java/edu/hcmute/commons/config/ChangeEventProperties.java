@@ -0,0 +1,14 @@
+package edu.hcmute.commons.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "picma.events")
+public class ChangeEventProperties {
+    private String streamPath = "/internal/events/stream";
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+    private int dispatchQueueSize = 4096;
+}
@@ -0,0 +1,32 @@
+package edu.hcmute.commons.config;
+
+import edu.hcmute.commons.service.BlockingCallDetector;
+import edu.hcmute.commons.service.BlockingCallRecorder;
+import edu.hcmute.commons.service.EventLoopMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+@EnableConfigurationProperties(DiagnosticsProperties.class)
+public class DiagnosticsConfiguration {
+    @Bean
+    public BlockingCallRecorder blockingCallRecorder(DiagnosticsProperties properties, MeterRegistry meterRegistry) {
+        return new BlockingCallRecorder(properties, meterRegistry);
+    }
+
+    @Bean
+    public BlockingCallDetector blockingCallDetector(DiagnosticsProperties properties, BlockingCallRecorder blockingCallRecorder) {
+        return new BlockingCallDetector(properties, blockingCallRecorder);
+    }
+
+    @Bean
+    public EventLoopMonitor eventLoopMonitor(DiagnosticsProperties properties, BlockingCallRecorder blockingCallRecorder,
+                                             MeterRegistry meterRegistry) {
+        return new EventLoopMonitor(properties, blockingCallRecorder, meterRegistry);
+    }
+
+    @Bean
+    public BlockingCallsEndpoint blockingCallsEndpoint(DiagnosticsProperties properties, BlockingCallRecorder blockingCallRecorder) {
+        return new BlockingCallsEndpoint(properties, blockingCallRecorder);
+    }
+}
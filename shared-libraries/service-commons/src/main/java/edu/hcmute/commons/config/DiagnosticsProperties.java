@@ -0,0 +1,31 @@
+package edu.hcmute.commons.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "picma.diagnostics")
+public class DiagnosticsProperties {
+    private Blocking blocking = new Blocking();
+    private EventLoop eventLoop = new EventLoop();
+
+    @Data
+    public static class Blocking {
+        private boolean enabled = false;
+        private boolean failOnBlocking = false;
+        private int maxStackDepth = 30;
+        private int maxSites = 200;
+        private List<String> allowed = new ArrayList<>(List.of("ch.qos.logback.core.OutputStreamAppender#writeBytes"));
+    }
+
+    @Data
+    public static class EventLoop {
+        private boolean enabled = true;
+        private Duration probeInterval = Duration.ofSeconds(1);
+        private Duration stallThreshold = Duration.ofMillis(500);
+    }
+}
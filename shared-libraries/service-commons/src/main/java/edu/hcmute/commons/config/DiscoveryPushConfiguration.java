@@ -0,0 +1,22 @@
+package edu.hcmute.commons.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.hcmute.commons.service.RegistryDeltaSubscriber;
+import edu.hcmute.commons.service.RegistryOverlay;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+@EnableConfigurationProperties(DiscoveryPushProperties.class)
+public class DiscoveryPushConfiguration {
+    @Bean
+    public RegistryOverlay registryOverlay(DiscoveryPushProperties properties, MeterRegistry meterRegistry) {
+        return new RegistryOverlay(properties, meterRegistry);
+    }
+
+    @Bean
+    public RegistryDeltaSubscriber registryDeltaSubscriber(DiscoveryPushProperties properties, RegistryOverlay registryOverlay,
+                                                           ObjectMapper objectMapper) {
+        return new RegistryDeltaSubscriber(properties, registryOverlay, objectMapper);
+    }
+}
@@ -0,0 +1,17 @@
+package edu.hcmute.commons.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "picma.discovery.push")
+public class DiscoveryPushProperties {
+    private boolean enabled = true;
+    private String registryUrl = "http://localhost:8761";
+    private String streamPath = "/registry/deltas/stream";
+    private Duration overlayTtl = Duration.ofMinutes(3);
+    private Duration reconnectBackoff = Duration.ofSeconds(2);
+    private Duration maxReconnectBackoff = Duration.ofSeconds(30);
+}
@@ -0,0 +1,19 @@
+package edu.hcmute.commons.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.discovery.EurekaClient;
+import edu.hcmute.commons.service.DiscoverySnapshotStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+@EnableConfigurationProperties(DiscoverySnapshotProperties.class)
+public class DiscoverySnapshotConfiguration {
+    @Bean
+    public DiscoverySnapshotStore discoverySnapshotStore(DiscoverySnapshotProperties properties,
+                                                         ObjectProvider<EurekaClient> eurekaClientProvider,
+                                                         ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new DiscoverySnapshotStore(properties, eurekaClientProvider, objectMapper, meterRegistry);
+    }
+}
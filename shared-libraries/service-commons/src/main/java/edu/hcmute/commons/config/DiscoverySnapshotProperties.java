@@ -0,0 +1,16 @@
+package edu.hcmute.commons.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "picma.discovery.snapshot")
+public class DiscoverySnapshotProperties {
+    private boolean enabled = true;
+    private Path path = Path.of(System.getProperty("java.io.tmpdir"), "discovery-snapshot.json");
+    private Duration writeInterval = Duration.ofSeconds(30);
+    private Duration maxAge = Duration.ofHours(1);
+}
@@ -0,0 +1,29 @@
+package edu.hcmute.commons.config;
+
+import edu.hcmute.commons.service.DiscoverySnapshotStore;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+public class DiscoverySnapshotServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+    private final DiscoverySnapshotStore snapshotStore;
+
+    public DiscoverySnapshotServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, DiscoverySnapshotStore snapshotStore) {
+        super(delegate);
+        this.snapshotStore = snapshotStore;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get().map(instances -> snapshotStore.fallback(getServiceId(), instances));
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get(Request request) {
+        return delegate.get(request).map(instances -> snapshotStore.fallback(getServiceId(), instances));
+    }
+}
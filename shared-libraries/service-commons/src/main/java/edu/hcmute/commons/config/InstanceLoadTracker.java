@@ -0,0 +1,131 @@
+package edu.hcmute.commons.config;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class InstanceLoadTracker implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+    private static final double MIN_LATENCY_NANOS = 1_000_000;
+    private static final double MIN_WARMTH = 0.1;
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long STALE_AFTER_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private final long slowStartNanos;
+    private final double decayNanos;
+    private final long failurePenaltyNanos;
+    private final Map<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+    private volatile boolean initialized;
+    private volatile long lastSweepNanos;
+
+    public InstanceLoadTracker(LoadBalancerProperties properties) {
+        this.slowStartNanos = properties.getSlowStart().toNanos();
+        this.decayNanos = properties.getDecayTime().toNanos();
+        this.failurePenaltyNanos = properties.getFailurePenalty().toNanos();
+    }
+
+    public void observe(List<ServiceInstance> instances) {
+        long now = System.nanoTime();
+        boolean warm = !initialized;
+        for (ServiceInstance instance : instances) {
+            loads.computeIfAbsent(keyOf(instance), k -> new InstanceLoad(warm ? now - slowStartNanos : now))
+                    .lastSeenNanos = now;
+        }
+        if (loads.size() > instances.size() && now - lastSweepNanos > SWEEP_INTERVAL_NANOS) {
+            lastSweepNanos = now;
+            loads.values().removeIf(load -> now - load.lastSeenNanos > STALE_AFTER_NANOS);
+        }
+        initialized = true;
+    }
+
+    public double cost(ServiceInstance instance, long now) {
+        InstanceLoad load = loads.get(keyOf(instance));
+        if (load == null) {
+            return MIN_LATENCY_NANOS;
+        }
+        double latency = Math.max(MIN_LATENCY_NANOS, load.decayedLatency(now, decayNanos));
+        double warmth = slowStartNanos <= 0 ? 1.0
+                : Math.max(MIN_WARMTH, Math.min(1.0, (double) (now - load.firstSeenNanos) / slowStartNanos));
+        return latency * (load.inFlight.get() + 1) / warmth;
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext context) {
+            context.setRequestStartTime(System.nanoTime());
+        }
+        InstanceLoad load = loads.get(keyOf(lbResponse.getServer()));
+        if (load != null) {
+            load.inFlight.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceLoad load = loads.get(keyOf(lbResponse.getServer()));
+        if (load == null) {
+            return;
+        }
+        load.inFlight.updateAndGet(current -> Math.max(0, current - 1));
+        if (completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext context
+                && context.getRequestStartTime() > 0) {
+            long now = System.nanoTime();
+            long rtt = now - context.getRequestStartTime();
+            if (completionContext.status() == CompletionContext.Status.FAILED) {
+                rtt = Math.max(rtt, failurePenaltyNanos);
+            }
+            load.record(rtt, now, decayNanos);
+        }
+    }
+
+    private static String keyOf(ServiceInstance instance) {
+        return instance.getInstanceId() != null ? instance.getInstanceId() : instance.getHost() + ":" + instance.getPort();
+    }
+
+    private static final class InstanceLoad {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final long firstSeenNanos;
+        private volatile long lastSeenNanos;
+        private double ewmaNanos;
+        private long lastSampleNanos;
+
+        private InstanceLoad(long firstSeenNanos) {
+            this.firstSeenNanos = firstSeenNanos;
+        }
+
+        private synchronized void record(long rttNanos, long now, double decayNanos) {
+            if (rttNanos > ewmaNanos) {
+                ewmaNanos = rttNanos;
+            } else {
+                double weight = Math.exp(-(now - lastSampleNanos) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + rttNanos * (1 - weight);
+            }
+            lastSampleNanos = now;
+        }
+
+        private synchronized double decayedLatency(long now, double decayNanos) {
+            if (lastSampleNanos == 0L) {
+                return 0;
+            }
+            return ewmaNanos * Math.exp(-(now - lastSampleNanos) / decayNanos);
+        }
+    }
+}
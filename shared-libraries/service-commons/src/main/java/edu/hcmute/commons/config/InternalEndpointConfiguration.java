@@ -0,0 +1,19 @@
+package edu.hcmute.commons.config;
+
+import edu.hcmute.commons.filter.InternalTokenFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+@EnableConfigurationProperties(InternalEndpointProperties.class)
+public class InternalEndpointConfiguration {
+    @Bean
+    public FilterRegistrationBean<InternalTokenFilter> internalTokenFilter(InternalEndpointProperties properties) {
+        FilterRegistrationBean<InternalTokenFilter> registration =
+                new FilterRegistrationBean<>(new InternalTokenFilter(properties.getHeader(), properties.getToken()));
+        registration.setUrlPatterns(properties.getPaths());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,25 @@
+package edu.hcmute.commons.config;
+
+import lombok.Data;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "picma.internal")
+public class InternalEndpointProperties implements InitializingBean {
+    private String token = "";
+    private String header = "X-Internal-Token";
+    private List<String> paths = new ArrayList<>(List.of("/internal/*"));
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!StringUtils.hasText(token)) {
+            throw new IllegalStateException(
+                    "picma.internal.token must be set (INTERNAL_SERVICE_TOKEN), internal streams are unusable without it");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package edu.hcmute.commons.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "picma.loadbalancer")
+public class LoadBalancerProperties {
+    private Duration slowStart = Duration.ofSeconds(30);
+    private Duration decayTime = Duration.ofSeconds(10);
+    private Duration failurePenalty = Duration.ofSeconds(1);
+}
@@ -0,0 +1,25 @@
+package edu.hcmute.commons.config;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+public class PowerOfTwoChoicesLoadBalancerConfiguration {
+    @Bean
+    public InstanceLoadTracker instanceLoadTracker(LoadBalancerProperties loadBalancerProperties) {
+        return new InstanceLoadTracker(loadBalancerProperties);
+    }
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(Environment environment,
+                                                                                   LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                                   InstanceLoadTracker instanceLoadTracker) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PowerOfTwoChoicesLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId, instanceLoadTracker);
+    }
+}
@@ -0,0 +1,21 @@
+package edu.hcmute.commons.config;
+
+import edu.hcmute.commons.service.DiscoverySnapshotStore;
+import edu.hcmute.commons.service.RegistryOverlay;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+public class RegistryOverlayLoadBalancerConfiguration {
+    @Bean
+    public ServiceInstanceListSupplier serviceInstanceListSupplier(ConfigurableApplicationContext context,
+                                                                   DiscoverySnapshotStore snapshotStore,
+                                                                   RegistryOverlay registryOverlay) {
+        return ServiceInstanceListSupplier.builder()
+                .withDiscoveryClient()
+                .withCaching()
+                .with((ctx, delegate) -> new DiscoverySnapshotServiceInstanceListSupplier(delegate, snapshotStore))
+                .with((ctx, delegate) -> new RegistryOverlayServiceInstanceListSupplier(delegate, registryOverlay))
+                .build(context);
+    }
+}
@@ -0,0 +1,29 @@
+package edu.hcmute.commons.config;
+
+import edu.hcmute.commons.service.RegistryOverlay;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+public class RegistryOverlayServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+    private final RegistryOverlay registryOverlay;
+
+    public RegistryOverlayServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, RegistryOverlay registryOverlay) {
+        super(delegate);
+        this.registryOverlay = registryOverlay;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get().map(instances -> registryOverlay.apply(getServiceId(), instances));
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get(Request request) {
+        return delegate.get(request).map(instances -> registryOverlay.apply(getServiceId(), instances));
+    }
+}
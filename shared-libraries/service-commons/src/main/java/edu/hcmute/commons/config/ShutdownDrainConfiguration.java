@@ -0,0 +1,35 @@
+package edu.hcmute.commons.config;
+
+import edu.hcmute.commons.filter.InFlightRequestFilter;
+import edu.hcmute.commons.service.ShutdownDrain;
+import edu.hcmute.commons.service.StreamingResponses;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cloud.netflix.eureka.serviceregistry.EurekaAutoServiceRegistration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+@EnableConfigurationProperties(ShutdownDrainProperties.class)
+public class ShutdownDrainConfiguration {
+    @Bean
+    public ShutdownDrain shutdownDrain(MeterRegistry meterRegistry) {
+        return new ShutdownDrain(meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<InFlightRequestFilter> inFlightRequestFilter(ShutdownDrain shutdownDrain) {
+        FilterRegistrationBean<InFlightRequestFilter> registration =
+                new FilterRegistrationBean<>(new InFlightRequestFilter(shutdownDrain));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public ShutdownDrain.Deregistration shutdownDeregistration(ShutdownDrain shutdownDrain, ShutdownDrainProperties properties,
+                                                               ObjectProvider<EurekaAutoServiceRegistration> registration,
+                                                               ObjectProvider<StreamingResponses> streamingResponses) {
+        return new ShutdownDrain.Deregistration(shutdownDrain, properties, registration, streamingResponses);
+    }
+}
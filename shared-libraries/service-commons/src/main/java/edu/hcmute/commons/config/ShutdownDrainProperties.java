@@ -0,0 +1,13 @@
+package edu.hcmute.commons.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "picma.shutdown")
+public class ShutdownDrainProperties {
+    private boolean enabled = true;
+    private Duration propagationWait = Duration.ofSeconds(15);
+}
@@ -0,0 +1,24 @@
+package edu.hcmute.commons.config;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import edu.hcmute.commons.service.WarmupRunner;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupConfiguration {
+    @Bean
+    public WarmupRunner warmupRunner(WarmupProperties properties, ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+                                     ObjectProvider<DataSource> dataSource, ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                                     ObjectProvider<LoadBalancerClientFactory> loadBalancerClientFactory,
+                                     MeterRegistry meterRegistry) {
+        return new WarmupRunner(properties, applicationInfoManager, dataSource, entityManagerFactory,
+                loadBalancerClientFactory, meterRegistry);
+    }
+}
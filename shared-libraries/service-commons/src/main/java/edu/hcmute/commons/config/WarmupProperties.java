@@ -0,0 +1,19 @@
+package edu.hcmute.commons.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "picma.warmup")
+public class WarmupProperties {
+    private boolean enabled = true;
+    private int poolConnections = 10;
+    private int iterations = 250;
+    private List<String> requests = new ArrayList<>();
+    private Duration requestTimeout = Duration.ofSeconds(5);
+    private Duration maxDuration = Duration.ofSeconds(60);
+}
@@ -0,0 +1,15 @@
+package edu.hcmute.commons.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record BlockingCallReport(
+        String type,
+        String operation,
+        String thread,
+        long count,
+        Instant firstSeen,
+        Instant lastSeen,
+        List<String> stackTrace
+) {
+}
@@ -0,0 +1,19 @@
+package edu.hcmute.commons.dto;
+
+public record ChangeEvent(
+        String entity,
+        String action,
+        Integer id,
+        Integer leadId,
+        String zipCode,
+        String userId,
+        String agentId,
+        String status,
+        long timestamp
+) {
+    public static final String LEAD = "lead";
+    public static final String QUOTE = "quote";
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+}
@@ -0,0 +1,9 @@
+package edu.hcmute.commons.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record DiscoverySnapshot(long writtenAt, Map<String, List<Instance>> services) {
+    public record Instance(String instanceId, String host, int port, boolean secure, Map<String, String> metadata) {
+    }
+}
@@ -0,0 +1,60 @@
+package edu.hcmute.commons.filter;
+
+import edu.hcmute.commons.service.ShutdownDrain;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class InFlightRequestFilter extends OncePerRequestFilter {
+    private final ShutdownDrain shutdownDrain;
+
+    public InFlightRequestFilter(ShutdownDrain shutdownDrain) {
+        this.shutdownDrain = shutdownDrain;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        shutdownDrain.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncCompletion());
+            } else {
+                shutdownDrain.end();
+            }
+        }
+    }
+
+    private final class AsyncCompletion implements AsyncListener {
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (ended.compareAndSet(false, true)) {
+                shutdownDrain.end();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
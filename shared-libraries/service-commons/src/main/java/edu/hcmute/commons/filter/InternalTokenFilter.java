@@ -0,0 +1,37 @@
+package edu.hcmute.commons.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+@Slf4j
+public class InternalTokenFilter extends OncePerRequestFilter {
+    private final String header;
+    private final byte[] token;
+
+    public InternalTokenFilter(String header, String token) {
+        this.header = header;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String presented = request.getHeader(header);
+        if (token.length == 0 || presented == null
+                || !MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("~~> rejected {} {} from {} without a valid service credential",
+                    request.getMethod(), request.getRequestURI(), request.getRemoteAddr());
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
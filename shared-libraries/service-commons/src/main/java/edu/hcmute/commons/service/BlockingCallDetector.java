@@ -0,0 +1,46 @@
+package edu.hcmute.commons.service;
+
+import edu.hcmute.commons.config.DiagnosticsProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+
+@Slf4j
+public class BlockingCallDetector implements InitializingBean {
+    private final DiagnosticsProperties properties;
+    private final BlockingCallRecorder blockingCallRecorder;
+
+    public BlockingCallDetector(DiagnosticsProperties properties, BlockingCallRecorder blockingCallRecorder) {
+        this.properties = properties;
+        this.blockingCallRecorder = blockingCallRecorder;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        DiagnosticsProperties.Blocking blocking = properties.getBlocking();
+        if (!blocking.isEnabled()) {
+            return;
+        }
+        log.info("### Installing blocking call detection (fail on blocking: {}) ###", blocking.isFailOnBlocking());
+        try {
+            BlockHound.install(builder -> {
+                for (String allowed : blocking.getAllowed()) {
+                    int separator = allowed.indexOf('#');
+                    if (separator > 0) {
+                        builder.allowBlockingCallsInside(allowed.substring(0, separator), allowed.substring(separator + 1));
+                    }
+                }
+                builder.blockingMethodCallback(method -> {
+                    blockingCallRecorder.recordBlockingCall(method);
+                    if (blocking.isFailOnBlocking()) {
+                        throw new BlockingOperationError(method);
+                    }
+                });
+            });
+        } catch (RuntimeException | LinkageError e) {
+            log.warn("~~> blocking call detection unavailable, start the JVM with -XX:+AllowRedefinitionToAddDeleteMethods: {}",
+                    e.getMessage());
+        }
+    }
+}
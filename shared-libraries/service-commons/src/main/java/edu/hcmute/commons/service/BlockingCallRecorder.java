@@ -0,0 +1,121 @@
+package edu.hcmute.commons.service;
+
+import edu.hcmute.commons.config.DiagnosticsProperties;
+import edu.hcmute.commons.dto.BlockingCallReport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.blockhound.BlockingMethod;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class BlockingCallRecorder {
+    public static final String BLOCKING_CALL = "blocking-call";
+    public static final String EVENT_LOOP_STALL = "event-loop-stall";
+    private final DiagnosticsProperties.Blocking properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+    private final AtomicLong overflow = new AtomicLong();
+
+    public BlockingCallRecorder(DiagnosticsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties.getBlocking();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordBlockingCall(BlockingMethod method) {
+        Thread thread = Thread.currentThread();
+        StackTraceElement[] stack = trimTo(new Throwable().getStackTrace(), method.getClassName(), method.getName());
+        record(BLOCKING_CALL, method.toString(), thread.getName(), stack);
+    }
+
+    public void recordStall(Thread thread, long stalledNanos) {
+        StackTraceElement[] stack = thread.getStackTrace();
+        String operation = stack.length > 0 ? stack[0].getClassName() + "." + stack[0].getMethodName() : "unknown";
+        log.warn("~~> event loop {} has not run a task for {} ms", thread.getName(), stalledNanos / 1_000_000);
+        record(EVENT_LOOP_STALL, operation, thread.getName(), stack);
+    }
+
+    public List<BlockingCallReport> reports() {
+        return sites.values().stream()
+                .map(Site::report)
+                .sorted(Comparator.comparingLong(BlockingCallReport::count).reversed())
+                .toList();
+    }
+
+    public long overflow() {
+        return overflow.get();
+    }
+
+    private void record(String type, String operation, String thread, StackTraceElement[] stack) {
+        List<String> frames = Arrays.stream(stack)
+                .limit(Math.max(1, properties.getMaxStackDepth()))
+                .map(StackTraceElement::toString)
+                .toList();
+        String caller = frames.size() > 1 ? frames.get(1) : "";
+        String key = type + '|' + operation + '|' + caller;
+        Counter.builder("diagnostics.blocking.calls")
+                .description("Blocking operations observed on non-blocking threads")
+                .tag("type", type)
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+        Site site = sites.get(key);
+        if (site == null) {
+            if (sites.size() >= properties.getMaxSites()) {
+                overflow.incrementAndGet();
+                return;
+            }
+            Site created = new Site(type, operation, thread, frames);
+            site = sites.putIfAbsent(key, created);
+            if (site == null) {
+                site = created;
+                log.warn("~~> {} {} on thread {}\n\tat {}", type, operation, thread,
+                        frames.stream().collect(Collectors.joining("\n\tat ")));
+            }
+        }
+        site.hit();
+    }
+
+    private static StackTraceElement[] trimTo(StackTraceElement[] stack, String className, String methodName) {
+        for (int i = 0; i < stack.length; i++) {
+            if (stack[i].getClassName().equals(className) && stack[i].getMethodName().equals(methodName)) {
+                return Arrays.copyOfRange(stack, i, stack.length);
+            }
+        }
+        return stack;
+    }
+
+    private static final class Site {
+        private final String type;
+        private final String operation;
+        private final String thread;
+        private final List<String> stackTrace;
+        private final Instant firstSeen = Instant.now();
+        private final AtomicLong count = new AtomicLong();
+        private volatile Instant lastSeen = firstSeen;
+
+        private Site(String type, String operation, String thread, List<String> stackTrace) {
+            this.type = type;
+            this.operation = operation;
+            this.thread = thread;
+            this.stackTrace = stackTrace;
+        }
+
+        private void hit() {
+            count.incrementAndGet();
+            lastSeen = Instant.now();
+        }
+
+        private BlockingCallReport report() {
+            return new BlockingCallReport(type, operation, thread, count.get(), firstSeen, lastSeen, stackTrace);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package edu.hcmute.commons.service;
+
+import edu.hcmute.commons.config.ChangeEventProperties;
+import edu.hcmute.commons.dto.ChangeEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class ChangeEventService implements StreamingResponses {
+    private static final String EVENT_NAME = "change";
+    private final List<ServerResponse.SseBuilder> subscribers = new CopyOnWriteArrayList<>();
+    private final ThreadPoolExecutor dispatcher;
+
+    public ChangeEventService(ChangeEventProperties properties) {
+        this.dispatcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getDispatchQueueSize()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "change-event-dispatcher");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> log.warn("~~> change event dispatch queue full, dropping event"));
+    }
+
+    public ServerResponse subscribe() {
+        return ServerResponse.sse(sse -> {
+            sse.onComplete(() -> subscribers.remove(sse));
+            sse.onTimeout(() -> subscribers.remove(sse));
+            sse.onError(ex -> subscribers.remove(sse));
+            subscribers.add(sse);
+            log.info("~~> change event subscriber connected, {} subscribers", subscribers.size());
+        }, Duration.ZERO);
+    }
+
+    public void publish(ChangeEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+        } else {
+            dispatch(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${picma.events.heartbeat-interval:15s}")
+    public void heartbeat() {
+        if (subscribers.isEmpty() || !dispatcher.getQueue().isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> {
+            for (ServerResponse.SseBuilder sse : subscribers) {
+                try {
+                    sse.comment("keepalive").send();
+                } catch (IOException | IllegalStateException e) {
+                    subscribers.remove(sse);
+                }
+            }
+        });
+    }
+
+    @Override
+    public int completeAll() {
+        int open = subscribers.size();
+        subscribers.forEach(ServerResponse.SseBuilder::complete);
+        subscribers.clear();
+        return open;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+        completeAll();
+    }
+
+    private void dispatch(ChangeEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> {
+            for (ServerResponse.SseBuilder sse : subscribers) {
+                try {
+                    sse.event(EVENT_NAME).data(event);
+                } catch (IOException | IllegalStateException e) {
+                    subscribers.remove(sse);
+                }
+            }
+        });
+    }
+}
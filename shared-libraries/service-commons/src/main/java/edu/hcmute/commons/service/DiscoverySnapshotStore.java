@@ -0,0 +1,189 @@
+package edu.hcmute.commons.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.shared.Application;
+import edu.hcmute.commons.config.DiscoverySnapshotProperties;
+import edu.hcmute.commons.dto.DiscoverySnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class DiscoverySnapshotStore implements SmartLifecycle {
+    private final DiscoverySnapshotProperties properties;
+    private final ObjectProvider<EurekaClient> eurekaClientProvider;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Counter writes;
+    private volatile Map<String, List<ServiceInstance>> snapshot = Map.of();
+    private volatile long snapshotWrittenAt;
+    private volatile boolean retired;
+    private volatile boolean registryFetched;
+    private volatile int lastWrittenHash;
+    private volatile ScheduledExecutorService writer;
+
+    public DiscoverySnapshotStore(DiscoverySnapshotProperties properties, ObjectProvider<EurekaClient> eurekaClientProvider,
+                                  ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.eurekaClientProvider = eurekaClientProvider;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.writes = Counter.builder("discovery.snapshot.writes")
+                .description("Discovery snapshots written to disk")
+                .register(meterRegistry);
+        Gauge.builder("discovery.snapshot.active", this, store -> store.isServing() ? 1 : 0)
+                .description("Whether lookups may still fall back to the on-disk discovery snapshot")
+                .register(meterRegistry);
+        load();
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled() || eurekaClientProvider.getIfAvailable() == null) {
+            return;
+        }
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "discovery-snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getWriteInterval().toMillis();
+        writer.scheduleWithFixedDelay(this::write, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (writer != null) {
+            writer.shutdownNow();
+            write();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null && !writer.isShutdown();
+    }
+
+    public List<ServiceInstance> fallback(String serviceId, List<ServiceInstance> instances) {
+        if (!instances.isEmpty() || serviceId == null || !isServing()) {
+            return instances;
+        }
+        List<ServiceInstance> saved = snapshot.get(serviceId.toUpperCase(Locale.ROOT));
+        if (saved == null || saved.isEmpty()) {
+            return instances;
+        }
+        meterRegistry.counter("discovery.snapshot.served", "service", serviceId).increment();
+        return saved;
+    }
+
+    public boolean isServing() {
+        if (retired || snapshot.isEmpty()) {
+            return false;
+        }
+        if (registryFetched() || System.currentTimeMillis() - snapshotWrittenAt > properties.getMaxAge().toMillis()) {
+            log.info("~~> discovery snapshot retired, {}", registryFetched() ? "registry fetch succeeded" : "snapshot too old");
+            retired = true;
+            snapshot = Map.of();
+            return false;
+        }
+        return true;
+    }
+
+    @EventListener
+    public void onRegistryFetched(HeartbeatEvent event) {
+        registryFetched = true;
+    }
+
+    private boolean registryFetched() {
+        if (!registryFetched) {
+            EurekaClient eurekaClient = eurekaClientProvider.getIfAvailable();
+            registryFetched = eurekaClient != null && !eurekaClient.getApplications().getRegisteredApplications().isEmpty();
+        }
+        return registryFetched;
+    }
+
+    private void load() {
+        Path path = properties.getPath();
+        if (!properties.isEnabled() || !Files.isReadable(path)) {
+            return;
+        }
+        try {
+            DiscoverySnapshot saved = objectMapper.readValue(path.toFile(), DiscoverySnapshot.class);
+            long age = System.currentTimeMillis() - saved.writtenAt();
+            if (age > properties.getMaxAge().toMillis()) {
+                log.info("~~> ignoring discovery snapshot {} written {}s ago", path, TimeUnit.MILLISECONDS.toSeconds(age));
+                return;
+            }
+            Map<String, List<ServiceInstance>> services = new TreeMap<>();
+            saved.services().forEach((serviceId, instances) -> services.put(serviceId, instances.stream()
+                    .<ServiceInstance>map(instance -> new DefaultServiceInstance(instance.instanceId(), serviceId,
+                            instance.host(), instance.port(), instance.secure(), instance.metadata()))
+                    .toList()));
+            snapshot = services;
+            snapshotWrittenAt = saved.writtenAt();
+            log.info("~~> loaded discovery snapshot with {} services written {}s ago", services.size(),
+                    TimeUnit.MILLISECONDS.toSeconds(age));
+        } catch (IOException e) {
+            log.warn("~~> unreadable discovery snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void write() {
+        if (!registryFetched()) {
+            return;
+        }
+        Path path = properties.getPath();
+        try {
+            Map<String, List<DiscoverySnapshot.Instance>> services = new TreeMap<>();
+            for (Application application : eurekaClientProvider.getObject().getApplications().getRegisteredApplications()) {
+                List<DiscoverySnapshot.Instance> instances = application.getInstances().stream()
+                        .filter(info -> info.getStatus() == InstanceInfo.InstanceStatus.UP)
+                        .map(DiscoverySnapshotStore::toInstance)
+                        .toList();
+                if (!instances.isEmpty()) {
+                    services.put(application.getName().toUpperCase(Locale.ROOT), instances);
+                }
+            }
+            if (services.isEmpty() || services.hashCode() == lastWrittenHash) {
+                return;
+            }
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(temp.toFile(), new DiscoverySnapshot(System.currentTimeMillis(), services));
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lastWrittenHash = services.hashCode();
+            writes.increment();
+        } catch (IOException | RuntimeException e) {
+            log.warn("~~> failed to write discovery snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static DiscoverySnapshot.Instance toInstance(InstanceInfo info) {
+        boolean secure = info.isPortEnabled(InstanceInfo.PortType.SECURE);
+        return new DiscoverySnapshot.Instance(info.getId(), info.getHostName(),
+                secure ? info.getSecurePort() : info.getPort(), secure,
+                info.getMetadata() != null ? Map.copyOf(info.getMetadata()) : Map.of());
+    }
+}
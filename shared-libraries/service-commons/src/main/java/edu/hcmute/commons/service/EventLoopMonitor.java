@@ -0,0 +1,151 @@
+package edu.hcmute.commons.service;
+
+import edu.hcmute.commons.config.DiagnosticsProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class EventLoopMonitor implements SmartLifecycle {
+    private final DiagnosticsProperties.EventLoop properties;
+    private final BlockingCallRecorder blockingCallRecorder;
+    private final MeterRegistry meterRegistry;
+    private final List<LoopProbe> probes = new ArrayList<>();
+    private volatile ScheduledExecutorService scheduler;
+
+    public EventLoopMonitor(DiagnosticsProperties properties, BlockingCallRecorder blockingCallRecorder, MeterRegistry meterRegistry) {
+        this.properties = properties.getEventLoop();
+        this.blockingCallRecorder = blockingCallRecorder;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        EventLoopGroup group = HttpResources.get().onServer(LoopResources.DEFAULT_NATIVE);
+        int index = 0;
+        for (EventExecutor executor : group) {
+            probes.add(new LoopProbe(String.valueOf(index++), executor));
+        }
+        log.info("### Monitoring {} event loops every {} ###", probes.size(), properties.getProbeInterval());
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "event-loop-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getProbeInterval().toNanos();
+        scheduler.scheduleWithFixedDelay(this::probe, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService current = scheduler;
+        if (current != null) {
+            current.shutdownNow();
+            scheduler = null;
+        }
+        probes.forEach(LoopProbe::close);
+        probes.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void probe() {
+        long stallThreshold = properties.getStallThreshold().toNanos();
+        for (LoopProbe probe : probes) {
+            try {
+                probe.tick(stallThreshold);
+            } catch (RuntimeException e) {
+                log.warn("~~> event loop probe {} failed: {}", probe.name, e.getMessage());
+            }
+        }
+    }
+
+    private final class LoopProbe {
+        private final String name;
+        private final EventExecutor executor;
+        private final Timer lag;
+        private final Counter stalls;
+        private final Gauge pendingTasks;
+        private volatile long submittedAt;
+        private volatile Thread thread;
+        private boolean stallReported;
+
+        private LoopProbe(String name, EventExecutor executor) {
+            this.name = name;
+            this.executor = executor;
+            this.lag = Timer.builder("eventloop.lag")
+                    .description("Delay between scheduling a task on an event loop and the loop running it")
+                    .tag("loop", name)
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .distributionStatisticExpiry(Duration.ofMinutes(2))
+                    .register(meterRegistry);
+            this.stalls = Counter.builder("eventloop.stalls")
+                    .description("Probes that waited longer than the stall threshold")
+                    .tag("loop", name)
+                    .register(meterRegistry);
+            this.pendingTasks = executor instanceof SingleThreadEventExecutor single
+                    ? Gauge.builder("eventloop.pending.tasks", single, SingleThreadEventExecutor::pendingTasks)
+                    .tag("loop", name)
+                    .register(meterRegistry)
+                    : null;
+        }
+
+        private void tick(long stallThreshold) {
+            long now = System.nanoTime();
+            long pendingSince = submittedAt;
+            if (pendingSince != 0L) {
+                long stalled = now - pendingSince;
+                Thread loopThread = thread;
+                if (stalled > stallThreshold && !stallReported && loopThread != null) {
+                    stallReported = true;
+                    stalls.increment();
+                    blockingCallRecorder.recordStall(loopThread, stalled);
+                }
+                return;
+            }
+            stallReported = false;
+            submittedAt = now;
+            try {
+                executor.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                submittedAt = 0L;
+            }
+        }
+
+        private void run() {
+            lag.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            thread = Thread.currentThread();
+            submittedAt = 0L;
+        }
+
+        private void close() {
+            meterRegistry.remove(lag);
+            meterRegistry.remove(stalls);
+            if (pendingTasks != null) {
+                meterRegistry.remove(pendingTasks);
+            }
+        }
+    }
+}
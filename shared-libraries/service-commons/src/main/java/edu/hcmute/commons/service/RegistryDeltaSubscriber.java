@@ -0,0 +1,114 @@
+package edu.hcmute.commons.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.hcmute.commons.config.DiscoveryPushProperties;
+import edu.hcmute.commons.dto.InstanceDelta;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+@Slf4j
+public class RegistryDeltaSubscriber implements SmartLifecycle {
+    private static final String DATA_PREFIX = "data:";
+    private final DiscoveryPushProperties properties;
+    private final RegistryOverlay registryOverlay;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private volatile boolean running;
+    private volatile Thread worker;
+    private volatile Stream<String> body;
+
+    public RegistryDeltaSubscriber(DiscoveryPushProperties properties, RegistryOverlay registryOverlay,
+                                   ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.registryOverlay = registryOverlay;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        log.info("### Subscribing to instance deltas from {} ###", properties.getRegistryUrl());
+        running = true;
+        worker = new Thread(this::run, "registry-delta-subscriber");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Stream<String> current = body;
+        if (current != null) {
+            current.close();
+        }
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(properties.getRegistryUrl() + properties.getStreamPath()))
+                .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE)
+                .GET()
+                .build();
+        long backoff = properties.getReconnectBackoff().toMillis();
+        while (running) {
+            try {
+                HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+                if (response.statusCode() == 200) {
+                    backoff = properties.getReconnectBackoff().toMillis();
+                    try (Stream<String> lines = response.body()) {
+                        body = lines;
+                        lines.forEach(this::onLine);
+                    }
+                } else {
+                    response.body().close();
+                    log.warn("~~> instance delta stream rejected with status {}", response.statusCode());
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("~~> instance delta stream dropped: {}", e.toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!running) {
+                return;
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoff = Math.min(backoff * 2, properties.getMaxReconnectBackoff().toMillis());
+        }
+    }
+
+    private void onLine(String line) {
+        if (!line.startsWith(DATA_PREFIX)) {
+            return;
+        }
+        try {
+            registryOverlay.apply(objectMapper.readValue(line.substring(DATA_PREFIX.length()).trim(), InstanceDelta.class));
+        } catch (JsonProcessingException e) {
+            log.warn("~~> unreadable instance delta: {}", e.getOriginalMessage());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package edu.hcmute.commons.service;
+
+import edu.hcmute.commons.config.DiscoveryPushProperties;
+import edu.hcmute.commons.dto.InstanceDelta;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+public class RegistryOverlay {
+    private static final String UP = "UP";
+    private final long ttlNanos;
+    private final Map<String, Map<String, Pending>> apps = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Timer propagation;
+    private final Timer leadTime;
+    private final Counter expired;
+
+    public RegistryOverlay(DiscoveryPushProperties properties, MeterRegistry meterRegistry) {
+        this.ttlNanos = properties.getOverlayTtl().toNanos();
+        this.meterRegistry = meterRegistry;
+        this.propagation = Timer.builder("discovery.push.propagation")
+                .description("Delay between the registry emitting an instance delta and this client applying it")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.leadTime = Timer.builder("discovery.push.lead")
+                .description("How long a pushed delta was applied before the periodic registry fetch caught up")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.expired = Counter.builder("discovery.push.expired")
+                .description("Pushed deltas dropped before the periodic registry fetch confirmed them")
+                .register(meterRegistry);
+    }
+
+    public void apply(InstanceDelta delta) {
+        if (delta.app() == null || delta.instanceId() == null) {
+            return;
+        }
+        propagation.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - delta.timestamp())));
+        meterRegistry.counter("discovery.push.deltas", "type", delta.type()).increment();
+        apps.computeIfAbsent(keyOf(delta.app()), key -> new ConcurrentHashMap<>())
+                .put(delta.instanceId(), new Pending(delta, System.nanoTime()));
+        log.info("~~> applied {} {} {} {}", delta.type(), delta.app(), delta.instanceId(), delta.status());
+    }
+
+    public List<ServiceInstance> apply(String serviceId, List<ServiceInstance> instances) {
+        Map<String, Pending> pending = serviceId != null ? apps.get(keyOf(serviceId)) : null;
+        if (pending == null || pending.isEmpty()) {
+            return instances;
+        }
+        long now = System.nanoTime();
+        List<ServiceInstance> result = new ArrayList<>(instances);
+        Iterator<Pending> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            Pending entry = iterator.next();
+            if (now - entry.receivedNanos > ttlNanos) {
+                iterator.remove();
+                expired.increment();
+                continue;
+            }
+            InstanceDelta delta = entry.delta;
+            int index = indexOf(result, delta.instanceId());
+            if (InstanceDelta.REGISTERED.equals(delta.type()) && UP.equals(delta.status())) {
+                if (index < 0) {
+                    result.add(new DefaultServiceInstance(delta.instanceId(), serviceId, delta.host(), delta.port(),
+                            delta.secure(), delta.metadata()));
+                } else if (Objects.equals(result.get(index).getMetadata(), delta.metadata())) {
+                    confirm(iterator, entry, now);
+                } else {
+                    result.set(index, new DefaultServiceInstance(delta.instanceId(), serviceId, delta.host(), delta.port(),
+                            delta.secure(), delta.metadata()));
+                }
+            } else if (index >= 0) {
+                result.remove(index);
+            } else {
+                confirm(iterator, entry, now);
+            }
+        }
+        return result;
+    }
+
+    private void confirm(Iterator<Pending> iterator, Pending entry, long now) {
+        iterator.remove();
+        leadTime.record(Duration.ofNanos(now - entry.receivedNanos));
+    }
+
+    private static int indexOf(List<ServiceInstance> instances, String instanceId) {
+        for (int i = 0; i < instances.size(); i++) {
+            if (instanceId.equals(instances.get(i).getInstanceId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String keyOf(String serviceId) {
+        return serviceId.toUpperCase(Locale.ROOT);
+    }
+
+    private record Pending(InstanceDelta delta, long receivedNanos) {
+    }
+}
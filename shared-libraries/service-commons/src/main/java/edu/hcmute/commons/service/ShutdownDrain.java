@@ -0,0 +1,136 @@
+package edu.hcmute.commons.service;
+
+import edu.hcmute.commons.config.ShutdownDrainProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.cloud.netflix.eureka.serviceregistry.EurekaAutoServiceRegistration;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class ShutdownDrain implements SmartLifecycle {
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter servedWhileDeregistered;
+    private final Counter drained;
+    private final Counter cutOff;
+    private volatile boolean running;
+    private volatile boolean deregistered;
+    private volatile boolean draining;
+
+    public ShutdownDrain(MeterRegistry meterRegistry) {
+        Gauge.builder("service.requests.in-flight", inFlight, AtomicInteger::get)
+                .description("HTTP requests currently being handled")
+                .register(meterRegistry);
+        this.servedWhileDeregistered = outcome(meterRegistry, "propagation");
+        this.drained = outcome(meterRegistry, "drained");
+        this.cutOff = outcome(meterRegistry, "cut-off");
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (!draining) {
+            return;
+        }
+        draining = false;
+        int remaining = inFlight.get();
+        cutOff.increment(remaining);
+        log.info("### Shutdown drain finished: {} requests drained, {} cut off ###", (long) drained.count(), remaining);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1;
+    }
+
+    public void begin() {
+        inFlight.incrementAndGet();
+    }
+
+    public void end() {
+        inFlight.decrementAndGet();
+        if (draining) {
+            drained.increment();
+        } else if (deregistered && running) {
+            servedWhileDeregistered.increment();
+        }
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("service.shutdown.requests")
+                .description("Requests completed after the instance started shutting down")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public static class Deregistration implements SmartLifecycle {
+        private final ShutdownDrain shutdownDrain;
+        private final ShutdownDrainProperties properties;
+        private final ObjectProvider<EurekaAutoServiceRegistration> registration;
+        private final ObjectProvider<StreamingResponses> streamingResponses;
+        private volatile boolean running;
+
+        public Deregistration(ShutdownDrain shutdownDrain, ShutdownDrainProperties properties,
+                              ObjectProvider<EurekaAutoServiceRegistration> registration,
+                              ObjectProvider<StreamingResponses> streamingResponses) {
+            this.shutdownDrain = shutdownDrain;
+            this.properties = properties;
+            this.registration = registration;
+            this.streamingResponses = streamingResponses;
+        }
+
+        @Override
+        public void start() {
+            running = true;
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+            if (!properties.isEnabled()) {
+                return;
+            }
+            log.info("### Deregistering from Eureka, serving for {} while callers catch up ###", properties.getPropagationWait());
+            registration.ifAvailable(eurekaRegistration -> {
+                if (eurekaRegistration.isRunning()) {
+                    eurekaRegistration.stop();
+                }
+            });
+            shutdownDrain.deregistered = true;
+            try {
+                Thread.sleep(properties.getPropagationWait().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            shutdownDrain.draining = true;
+            int streams = streamingResponses.orderedStream().mapToInt(StreamingResponses::completeAll).sum();
+            log.info("~~> no longer accepting connections, closed {} streams, draining {} in-flight requests",
+                    streams, shutdownDrain.inFlight.get());
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public int getPhase() {
+            return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE + 1;
+        }
+    }
+}
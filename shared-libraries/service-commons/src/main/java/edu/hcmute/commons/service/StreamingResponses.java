@@ -0,0 +1,5 @@
+package edu.hcmute.commons.service;
+
+public interface StreamingResponses {
+    int completeAll();
+}
@@ -0,0 +1,205 @@
+package edu.hcmute.commons.service;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import edu.hcmute.commons.config.WarmupProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotationUtils;
+import reactor.core.publisher.Mono;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class WarmupRunner {
+    private final WarmupProperties properties;
+    private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+    private final ObjectProvider<DataSource> dataSource;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final ObjectProvider<LoadBalancerClientFactory> loadBalancerClientFactory;
+    private final MeterRegistry meterRegistry;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    public WarmupRunner(WarmupProperties properties, ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+                        ObjectProvider<DataSource> dataSource, ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                        ObjectProvider<LoadBalancerClientFactory> loadBalancerClientFactory, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.applicationInfoManager = applicationInfoManager;
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!properties.isEnabled()) {
+            markUp();
+            return;
+        }
+        log.info("### Warming up before registering as UP ###");
+        long started = System.nanoTime();
+        long deadline = started + properties.getMaxDuration().toNanos();
+        try {
+            step("jdbc-pool", deadline, this::openPool);
+            step("jpa-metadata", deadline, () -> touchEntities(deadline));
+            step("feign-clients", deadline, () -> initFeignClients(event.getApplicationContext(), deadline));
+            String port = event.getApplicationContext().getEnvironment().getProperty("local.server.port");
+            for (String path : properties.getRequests()) {
+                step("GET " + path, deadline, () -> replay(port, path, deadline));
+            }
+        } finally {
+            log.info("### Warm-up finished in {}ms ###", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            markUp();
+        }
+    }
+
+    private void step(String name, long deadline, Runnable action) {
+        long started = System.nanoTime();
+        if (started > deadline) {
+            log.warn("~~> warm-up exceeded {}, skipping step {}", properties.getMaxDuration(), name);
+            return;
+        }
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.warn("~~> warm-up step {} failed: {}", name, e.getMessage());
+        }
+        long elapsed = System.nanoTime() - started;
+        Timer.builder("service.warmup.step")
+                .description("Time spent in each warm-up step before the instance registers as UP")
+                .tag("step", name)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("~~> warm-up step {} took {}ms", name, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private void openPool() {
+        DataSource source = dataSource.getIfAvailable();
+        if (source == null) {
+            return;
+        }
+        List<Connection> connections = new ArrayList<>(properties.getPoolConnections());
+        try {
+            for (int i = 0; i < properties.getPoolConnections(); i++) {
+                Connection connection = source.getConnection();
+                connections.add(connection);
+                connection.isValid(1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("opened " + connections.size() + " connections: " + e.getMessage(), e);
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+    }
+
+    private void touchEntities(long deadline) {
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        if (factory == null) {
+            return;
+        }
+        EntityManager entityManager = factory.createEntityManager();
+        try {
+            for (EntityType<?> entity : entityManager.getMetamodel().getEntities()) {
+                if (System.nanoTime() > deadline) {
+                    log.warn("~~> warm-up exceeded {}, skipping remaining entities", properties.getMaxDuration());
+                    return;
+                }
+                entityManager.createQuery("select e from " + entity.getName() + " e", entity.getJavaType())
+                        .setMaxResults(1)
+                        .getResultList();
+            }
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private void initFeignClients(ApplicationContext context, long deadline) {
+        Set<String> services = new LinkedHashSet<>();
+        for (Object client : context.getBeansWithAnnotation(FeignClient.class).values()) {
+            for (Class<?> type : client.getClass().getInterfaces()) {
+                FeignClient annotation = AnnotationUtils.findAnnotation(type, FeignClient.class);
+                if (annotation != null) {
+                    services.add(annotation.name().isEmpty() ? annotation.value() : annotation.name());
+                }
+            }
+        }
+        LoadBalancerClientFactory factory = loadBalancerClientFactory.getIfAvailable();
+        if (factory == null) {
+            return;
+        }
+        for (String service : services) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                log.warn("~~> warm-up exceeded {}, skipping remaining feign clients", properties.getMaxDuration());
+                return;
+            }
+            ReactiveLoadBalancer<?> loadBalancer = factory.getInstance(service);
+            if (loadBalancer != null) {
+                Duration timeout = properties.getRequestTimeout();
+                Mono.from(loadBalancer.choose()).block(timeout.toNanos() < remaining ? timeout : Duration.ofNanos(remaining));
+            }
+        }
+        log.info("~~> initialized load balancers for feign clients {}", services);
+    }
+
+    private void replay(String port, String path, long deadline) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(properties.getRequestTimeout())
+                .GET()
+                .build();
+        int failures = 0;
+        for (int i = 0; i < properties.getIterations() && System.nanoTime() < deadline; i++) {
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 500) {
+                    failures++;
+                }
+            } catch (IOException e) {
+                failures++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (failures > 0) {
+            log.warn("~~> warm-up request GET {} failed {} times", path, failures);
+        }
+    }
+
+    private void markUp() {
+        ApplicationInfoManager manager = applicationInfoManager.getIfAvailable();
+        if (manager != null) {
+            manager.setInstanceStatus(InstanceInfo.InstanceStatus.UP);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package edu.hcmute.commons.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class InstanceLoadTrackerTests {
+    private static final double IDLE_COST = 1_000_000;
+    private final ServiceInstance lead1 = instance("lead-1");
+    private final ServiceInstance lead2 = instance("lead-2");
+    private LoadBalancerProperties properties;
+    private InstanceLoadTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LoadBalancerProperties();
+        properties.setFailurePenalty(Duration.ZERO);
+        tracker = new InstanceLoadTracker(properties);
+        tracker.observe(List.of(lead1, lead2));
+    }
+
+    @Test
+    void unknownInstancesCostTheLatencyFloor() {
+        assertThat(tracker.cost(instance("lead-9"), System.nanoTime())).isEqualTo(IDLE_COST);
+    }
+
+    @Test
+    void inFlightRequestsRaiseTheCost() {
+        start(lead1);
+        start(lead1);
+
+        assertThat(cost(lead1)).isEqualTo(3 * IDLE_COST);
+        assertThat(cost(lead2)).isEqualTo(IDLE_COST);
+    }
+
+    @Test
+    void successfulCompletionReleasesTheInFlightSlot() {
+        Request<Object> first = start(lead1);
+        start(lead1);
+
+        complete(first, lead1, CompletionContext.Status.SUCCESS);
+
+        assertThat(cost(lead1)).isEqualTo(2 * IDLE_COST);
+    }
+
+    @Test
+    void failedCompletionReleasesTheInFlightSlot() {
+        Request<Object> request = start(lead1);
+
+        complete(request, lead1, CompletionContext.Status.FAILED);
+
+        assertThat(cost(lead1)).isEqualTo(IDLE_COST);
+    }
+
+    @Test
+    void failuresArePenalisedAsSlowResponses() {
+        properties.setFailurePenalty(Duration.ofSeconds(1));
+        tracker = new InstanceLoadTracker(properties);
+        tracker.observe(List.of(lead1, lead2));
+
+        complete(start(lead1, new RequestDataContext()), lead1, CompletionContext.Status.FAILED);
+
+        assertThat(cost(lead1)).isGreaterThan(100 * IDLE_COST);
+        assertThat(cost(lead2)).isEqualTo(IDLE_COST);
+    }
+
+    @Test
+    void inFlightNeverDropsBelowZero() {
+        Request<Object> request = start(lead1);
+        complete(request, lead1, CompletionContext.Status.SUCCESS);
+        complete(request, lead1, CompletionContext.Status.SUCCESS);
+
+        start(lead1);
+
+        assertThat(cost(lead1)).isEqualTo(2 * IDLE_COST);
+    }
+
+    @Test
+    void discardedRequestsAreIgnored() {
+        start(lead1);
+
+        complete(start(lead1), lead1, CompletionContext.Status.DISCARD);
+
+        assertThat(cost(lead1)).isEqualTo(3 * IDLE_COST);
+    }
+
+    @Test
+    void instancesThatJoinLaterStartCold() {
+        ServiceInstance lead3 = instance("lead-3");
+        tracker.observe(List.of(lead1, lead2, lead3));
+
+        assertThat(cost(lead3)).isCloseTo(10 * IDLE_COST, within(IDLE_COST));
+        assertThat(cost(lead1)).isEqualTo(IDLE_COST);
+    }
+
+    // An untimed context keeps latency samples out, so the cost only reflects the in-flight count.
+    private Request<Object> start(ServiceInstance instance) {
+        return start(instance, new Object());
+    }
+
+    private Request<Object> start(ServiceInstance instance, Object context) {
+        Request<Object> request = new DefaultRequest<>(context);
+        tracker.onStartRequest(request, new DefaultResponse(instance));
+        return request;
+    }
+
+    private void complete(Request<Object> request, ServiceInstance instance, CompletionContext.Status status) {
+        tracker.onComplete(new CompletionContext<>(status, request, new DefaultResponse(instance)));
+    }
+
+    private double cost(ServiceInstance instance) {
+        return tracker.cost(instance, System.nanoTime());
+    }
+
+    static ServiceInstance instance(String instanceId) {
+        return new DefaultServiceInstance(instanceId, "PROPERTY-LEAD-SERVICE", instanceId, 8080, false);
+    }
+}
@@ -0,0 +1,103 @@
+package edu.hcmute.commons.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static edu.hcmute.commons.config.InstanceLoadTrackerTests.instance;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PowerOfTwoChoicesLoadBalancerTests {
+    private static final String SERVICE_ID = "PROPERTY-LEAD-SERVICE";
+    private final ServiceInstance lead1 = instance("lead-1");
+    private final ServiceInstance lead2 = instance("lead-2");
+    private final ServiceInstance lead3 = instance("lead-3");
+    private InstanceLoadTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new InstanceLoadTracker(new LoadBalancerProperties());
+    }
+
+    @Test
+    void choosesTheLessLoadedOfTwoInstances() {
+        PowerOfTwoChoicesLoadBalancer loadBalancer = loadBalancer(lead1, lead2);
+        loadBalancer.choose(request()).block();
+        busy(lead1, 3);
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(loadBalancer.choose(request()).block().getServer()).isEqualTo(lead2);
+        }
+    }
+
+    @Test
+    void neverChoosesTheMostLoadedInstance() {
+        PowerOfTwoChoicesLoadBalancer loadBalancer = loadBalancer(lead1, lead2, lead3);
+        loadBalancer.choose(request()).block();
+        busy(lead3, 5);
+
+        Set<ServiceInstance> chosen = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            chosen.add(loadBalancer.choose(request()).block().getServer());
+        }
+
+        assertThat(chosen).containsExactlyInAnyOrder(lead1, lead2);
+    }
+
+    @Test
+    void spreadsLoadAsInFlightCountsChange() {
+        PowerOfTwoChoicesLoadBalancer loadBalancer = loadBalancer(lead1, lead2);
+
+        for (int i = 0; i < 10; i++) {
+            Request<Object> request = request();
+            Response<ServiceInstance> response = loadBalancer.choose(request).block();
+            tracker.onStartRequest(request, response);
+        }
+
+        assertThat(tracker.cost(lead1, System.nanoTime())).isEqualTo(tracker.cost(lead2, System.nanoTime()));
+    }
+
+    @Test
+    void returnsTheOnlyInstance() {
+        Response<ServiceInstance> response = loadBalancer(lead1).choose(request()).block();
+
+        assertThat(response.hasServer()).isTrue();
+        assertThat(response.getServer()).isEqualTo(lead1);
+    }
+
+    @Test
+    void returnsAnEmptyResponseWithoutInstances() {
+        Response<ServiceInstance> response = loadBalancer().choose(request()).block();
+
+        assertThat(response.hasServer()).isFalse();
+    }
+
+    private PowerOfTwoChoicesLoadBalancer loadBalancer(ServiceInstance... instances) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("supplier",
+                ServiceInstanceListSuppliers.from(SERVICE_ID, instances)));
+        return new PowerOfTwoChoicesLoadBalancer(beanFactory.getBeanProvider(
+                ServiceInstanceListSupplier.class), SERVICE_ID, tracker);
+    }
+
+    private void busy(ServiceInstance instance, int inFlight) {
+        for (int i = 0; i < inFlight; i++) {
+            tracker.onStartRequest(request(), new DefaultResponse(instance));
+        }
+    }
+
+    private static Request<Object> request() {
+        return new DefaultRequest<>(new RequestDataContext());
+    }
+}
@@ -0,0 +1,169 @@
+package edu.hcmute.commons.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import edu.hcmute.commons.config.DiscoverySnapshotProperties;
+import edu.hcmute.commons.dto.DiscoverySnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DiscoverySnapshotStoreTests {
+    private static final String SERVICE_ID = "PROPERTY-QUOTE-SERVICE";
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<ServiceInstance> none = List.of();
+    @TempDir
+    private Path directory;
+    private DiscoverySnapshotProperties properties;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DiscoverySnapshotProperties();
+        properties.setPath(directory.resolve("discovery-snapshot.json"));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void servesSavedInstancesOnlyWhenDiscoveryReturnsNone() throws IOException {
+        save(System.currentTimeMillis());
+        DiscoverySnapshotStore store = store(noEurekaClient());
+        List<ServiceInstance> live = List.of(new DefaultServiceInstance("quote-9", SERVICE_ID, "10.0.0.9", 8080, false));
+
+        assertThat(store.fallback("property-quote-service", none))
+                .extracting(ServiceInstance::getInstanceId).containsExactly("quote-1");
+        assertThat(store.fallback(SERVICE_ID, live)).isSameAs(live);
+        assertThat(store.fallback("PROPERTY-LEAD-SERVICE", none)).isEmpty();
+        assertThat(meterRegistry.get("discovery.snapshot.served").tag("service", "property-quote-service").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void retiresForGoodOnceTheRegistryHasBeenFetched() throws IOException {
+        save(System.currentTimeMillis());
+        DiscoverySnapshotStore store = store(noEurekaClient());
+        assertThat(store.isServing()).isTrue();
+
+        store.onRegistryFetched(new HeartbeatEvent(this, 1L));
+
+        assertThat(store.isServing()).isFalse();
+        assertThat(store.fallback(SERVICE_ID, none)).isEmpty();
+    }
+
+    @Test
+    void retiresWhenTheEurekaClientAlreadyHoldsApplications() throws IOException {
+        save(System.currentTimeMillis());
+        DiscoverySnapshotStore store = store(eurekaClient(applications(InstanceInfo.InstanceStatus.UP)));
+
+        assertThat(store.fallback(SERVICE_ID, none)).isEmpty();
+        assertThat(store.isServing()).isFalse();
+    }
+
+    @Test
+    void keepsServingWhileTheEurekaClientHasFetchedNothing() throws IOException {
+        save(System.currentTimeMillis());
+        DiscoverySnapshotStore store = store(eurekaClient(new Applications()));
+
+        assertThat(store.fallback(SERVICE_ID, none)).hasSize(1);
+    }
+
+    @Test
+    void ignoresSnapshotOlderThanMaxAgeAtStartup() throws IOException {
+        save(System.currentTimeMillis() - properties.getMaxAge().toMillis() - 1_000);
+
+        assertThat(store(noEurekaClient()).isServing()).isFalse();
+    }
+
+    @Test
+    void retiresSnapshotThatAgesPastMaxAgeWhileServing() throws Exception {
+        properties.setMaxAge(Duration.ofSeconds(1));
+        save(System.currentTimeMillis() - 800);
+        DiscoverySnapshotStore store = store(noEurekaClient());
+        assertThat(store.isServing()).isTrue();
+
+        Thread.sleep(400);
+
+        assertThat(store.isServing()).isFalse();
+        assertThat(store.fallback(SERVICE_ID, none)).isEmpty();
+    }
+
+    @Test
+    void ignoresUnreadableSnapshot() throws IOException {
+        Files.writeString(properties.getPath(), "{not json");
+
+        assertThat(store(noEurekaClient()).isServing()).isFalse();
+    }
+
+    @Test
+    void writesOnlyUpInstancesOnStop() throws IOException {
+        Applications applications = applications(InstanceInfo.InstanceStatus.UP);
+        applications.getRegisteredApplications(SERVICE_ID).addInstance(instanceInfo("quote-2", InstanceInfo.InstanceStatus.DOWN));
+        DiscoverySnapshotStore store = store(eurekaClient(applications));
+
+        store.start();
+        store.stop();
+
+        DiscoverySnapshot written = objectMapper.readValue(properties.getPath().toFile(), DiscoverySnapshot.class);
+        assertThat(written.services()).containsOnlyKeys(SERVICE_ID);
+        assertThat(written.services().get(SERVICE_ID)).extracting(DiscoverySnapshot.Instance::instanceId)
+                .containsExactly("quote-1");
+    }
+
+    private DiscoverySnapshotStore store(ObjectProvider<EurekaClient> eurekaClient) {
+        return new DiscoverySnapshotStore(properties, eurekaClient, objectMapper, meterRegistry);
+    }
+
+    private void save(long writtenAt) throws IOException {
+        objectMapper.writeValue(properties.getPath().toFile(), new DiscoverySnapshot(writtenAt, Map.of(SERVICE_ID,
+                List.of(new DiscoverySnapshot.Instance("quote-1", "10.0.0.1", 8080, false, Map.of())))));
+    }
+
+    private static ObjectProvider<EurekaClient> noEurekaClient() {
+        return new StaticListableBeanFactory().getBeanProvider(EurekaClient.class);
+    }
+
+    private static ObjectProvider<EurekaClient> eurekaClient(Applications applications) {
+        EurekaClient eurekaClient = mock(EurekaClient.class);
+        when(eurekaClient.getApplications()).thenReturn(applications);
+        return new StaticListableBeanFactory(Map.of("eurekaClient", eurekaClient)).getBeanProvider(EurekaClient.class);
+    }
+
+    private static Applications applications(InstanceInfo.InstanceStatus status) {
+        Application application = new Application(SERVICE_ID);
+        application.addInstance(instanceInfo("quote-1", status));
+        Applications applications = new Applications();
+        applications.addApplication(application);
+        return applications;
+    }
+
+    private static InstanceInfo instanceInfo(String instanceId, InstanceInfo.InstanceStatus status) {
+        return InstanceInfo.Builder.newBuilder()
+                .setAppName(SERVICE_ID)
+                .setInstanceId(instanceId)
+                .setHostName("10.0.0." + instanceId.substring(instanceId.lastIndexOf('-') + 1))
+                .setPort(8080)
+                .setStatus(status)
+                .build();
+    }
+}
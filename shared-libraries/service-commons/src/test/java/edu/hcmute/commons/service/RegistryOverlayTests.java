@@ -0,0 +1,113 @@
+package edu.hcmute.commons.service;
+
+import edu.hcmute.commons.config.DiscoveryPushProperties;
+import edu.hcmute.commons.dto.InstanceDelta;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegistryOverlayTests {
+    private static final String SERVICE_ID = "PROPERTY-QUOTE-SERVICE";
+    private final ServiceInstance quote1 = instance("quote-1", Map.of());
+    private DiscoveryPushProperties properties;
+    private MeterRegistry meterRegistry;
+    private RegistryOverlay overlay;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DiscoveryPushProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        overlay = new RegistryOverlay(properties, meterRegistry);
+    }
+
+    @Test
+    void addsRegisteredInstanceBeforeTheRegistryFetchSeesIt() {
+        overlay.apply(delta(InstanceDelta.REGISTERED, "quote-2", "UP", Map.of()));
+
+        List<ServiceInstance> instances = overlay.apply("property-quote-service", List.of(quote1));
+
+        assertThat(instances).extracting(ServiceInstance::getInstanceId).containsExactly("quote-1", "quote-2");
+        assertThat(instances.get(1).getHost()).isEqualTo("10.0.0.2");
+    }
+
+    @Test
+    void removesCancelledAndDownInstancesStillInTheFetchedList() {
+        ServiceInstance quote2 = instance("quote-2", Map.of());
+        overlay.apply(delta(InstanceDelta.CANCELLED, "quote-1", null, Map.of()));
+        overlay.apply(delta(InstanceDelta.REGISTERED, "quote-2", "DOWN", Map.of()));
+
+        assertThat(overlay.apply(SERVICE_ID, List.of(quote1, quote2))).isEmpty();
+    }
+
+    @Test
+    void replacesInstanceWhoseMetadataChanged() {
+        overlay.apply(delta(InstanceDelta.REGISTERED, "quote-1", "UP", Map.of("canary", "true")));
+
+        List<ServiceInstance> instances = overlay.apply(SERVICE_ID, List.of(quote1));
+
+        assertThat(instances).singleElement()
+                .satisfies(instance -> assertThat(instance.getMetadata()).containsEntry("canary", "true"));
+    }
+
+    @Test
+    void dropsDeltaOnceTheFetchedListConfirmsIt() {
+        overlay.apply(delta(InstanceDelta.REGISTERED, "quote-2", "UP", Map.of()));
+        ServiceInstance quote2 = instance("quote-2", Map.of());
+
+        assertThat(overlay.apply(SERVICE_ID, List.of(quote1, quote2))).containsExactly(quote1, quote2);
+        assertThat(overlay.apply(SERVICE_ID, List.of(quote1))).containsExactly(quote1);
+        assertThat(meterRegistry.get("discovery.push.lead").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsCancellationOnceTheInstanceLeftTheFetchedList() {
+        overlay.apply(delta(InstanceDelta.CANCELLED, "quote-1", null, Map.of()));
+
+        assertThat(overlay.apply(SERVICE_ID, List.of())).isEmpty();
+        assertThat(overlay.apply(SERVICE_ID, List.of(quote1))).containsExactly(quote1);
+    }
+
+    @Test
+    void expiresDeltasTheRegistryNeverConfirmed() throws InterruptedException {
+        properties.setOverlayTtl(Duration.ofMillis(20));
+        overlay = new RegistryOverlay(properties, meterRegistry);
+        overlay.apply(delta(InstanceDelta.REGISTERED, "quote-2", "UP", Map.of()));
+        Thread.sleep(50);
+
+        assertThat(overlay.apply(SERVICE_ID, List.of(quote1))).containsExactly(quote1);
+        assertThat(meterRegistry.get("discovery.push.expired").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void leavesOtherServicesAndIncompleteDeltasAlone() {
+        overlay.apply(delta(InstanceDelta.REGISTERED, "quote-2", "UP", Map.of()));
+        overlay.apply(new InstanceDelta(InstanceDelta.REGISTERED, null, "lead-1", "10.0.0.9", 8080, false, "UP",
+                Map.of(), System.currentTimeMillis()));
+        List<ServiceInstance> leads = List.of(new DefaultServiceInstance("lead-1", "PROPERTY-LEAD-SERVICE", "10.0.0.1", 8080, false));
+
+        assertThat(overlay.apply("PROPERTY-LEAD-SERVICE", leads)).isSameAs(leads);
+        assertThat(overlay.apply(null, leads)).isSameAs(leads);
+    }
+
+    private static InstanceDelta delta(String type, String instanceId, String status, Map<String, String> metadata) {
+        return new InstanceDelta(type, SERVICE_ID, instanceId, hostOf(instanceId), 8080, false, status, metadata,
+                System.currentTimeMillis());
+    }
+
+    private static ServiceInstance instance(String instanceId, Map<String, String> metadata) {
+        return new DefaultServiceInstance(instanceId, SERVICE_ID, hostOf(instanceId), 8080, false, metadata);
+    }
+
+    private static String hostOf(String instanceId) {
+        return "10.0.0." + instanceId.substring(instanceId.lastIndexOf('-') + 1);
+    }
+}